@@ -0,0 +1,29 @@
+package com.blitzr.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A lookup in a TtlCache. Disabled by default, as a cache is looked up for most calls.
+ */
+@Name("com.blitzr.CacheLookup")
+@Label("Blitzr Cache Lookup")
+@Category({"Blitzr", "Cache"})
+@Description("A lookup in a cache of the client")
+@StackTrace(false)
+@Enabled(false)
+public class CacheLookupEvent extends Event {
+    @Label("Cache")
+    public String cache;
+
+    @Label("Key")
+    public String key;
+
+    @Label("Hit")
+    public boolean hit;
+}
@@ -0,0 +1,29 @@
+package com.blitzr.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The binding of the body of a successful API call.
+ */
+@Name("com.blitzr.Deserialize")
+@Label("Blitzr Deserialize")
+@Category({"Blitzr", "API"})
+@Description("The binding of an API response to the models")
+@StackTrace(false)
+public class DeserializeEvent extends Event {
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Type")
+    public String type;
+
+    @Label("Binding Time")
+    @Timespan
+    public long time;
+}
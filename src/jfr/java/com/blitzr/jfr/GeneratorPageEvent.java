@@ -0,0 +1,32 @@
+package com.blitzr.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A page fetched by a Generator.
+ */
+@Name("com.blitzr.GeneratorPage")
+@Label("Blitzr Generator Page")
+@Category({"Blitzr", "Generator"})
+@Description("A page fetched by a Generator, and the time its consumer waited for it")
+@StackTrace(false)
+public class GeneratorPageEvent extends Event {
+    @Label("Start")
+    public int start;
+
+    @Label("Limit")
+    public int limit;
+
+    @Label("Items")
+    public int items;
+
+    @Label("Wait")
+    @Timespan
+    public long waitTime;
+}
@@ -0,0 +1,89 @@
+package com.blitzr.jfr;
+
+import com.blitzr.metrics.ClientEventListener;
+import com.blitzr.metrics.ClientEvents;
+import com.blitzr.metrics.RequestMetrics;
+
+/**
+ * <p>Commit the client events as Flight Recorder events, so a recording shows the API calls, the bindings, the
+ * cache lookups and the Generator pages on the threads doing them. Needs JDK 11 or later.</p>
+ * <p>The client fires its events at the end of the work, so the durations are in the Timespan fields of the JFR
+ * events, not in their own duration. The cache lookups are disabled by default : enable com.blitzr.CacheLookup in
+ * the recording settings to see them.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     JfrEventListener.register();
+ *     // java -XX:StartFlightRecording=filename=blitzr.jfr ...
+ * </code></pre>
+ */
+public class JfrEventListener implements ClientEventListener {
+    private static final JfrEventListener INSTANCE = new JfrEventListener();
+
+    /**
+     * Add the listener to the ClientEvents, once.
+     */
+    public static void register() {
+        ClientEvents.removeListener(INSTANCE);
+        ClientEvents.addListener(INSTANCE);
+    }
+
+    public static void unregister() {
+        ClientEvents.removeListener(INSTANCE);
+    }
+
+    @Override
+    public void onRequest(RequestMetrics request) {
+        RequestEvent event = new RequestEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.endpoint = request.getEndpoint();
+        event.status = request.getStatus();
+        event.bytes = request.getBytes();
+        event.connect = request.getConnectNanos();
+        event.firstByte = request.getFirstByteNanos();
+        event.body = request.getBodyNanos();
+        event.deserialize = request.getDeserializeNanos();
+        event.total = request.getTotalNanos();
+        event.commit();
+    }
+
+    @Override
+    public void onDeserialize(String endpoint, String type, long nanos) {
+        DeserializeEvent event = new DeserializeEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.endpoint = endpoint;
+        event.type = type;
+        event.time = nanos;
+        event.commit();
+    }
+
+    @Override
+    public void onCacheLookup(String cache, Object key, boolean hit) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.cache = cache;
+        event.key = String.valueOf(key);
+        event.hit = hit;
+        event.commit();
+    }
+
+    @Override
+    public void onGeneratorPage(int start, int limit, int items, long waitNanos) {
+        GeneratorPageEvent event = new GeneratorPageEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.start = start;
+        event.limit = limit;
+        event.items = items;
+        event.waitTime = waitNanos;
+        event.commit();
+    }
+}
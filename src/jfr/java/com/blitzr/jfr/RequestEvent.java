@@ -0,0 +1,51 @@
+package com.blitzr.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * An API call of the client. The event is committed at the end of the call : its durations are in the fields.
+ */
+@Name("com.blitzr.Request")
+@Label("Blitzr API Request")
+@Category({"Blitzr", "API"})
+@Description("An API call, with the duration of each of its phases")
+@StackTrace(false)
+public class RequestEvent extends Event {
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Status")
+    @Description("HTTP status, or 600 (no connection) and 601 (client error) for the failed calls")
+    public int status;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Connect")
+    @Timespan
+    public long connect;
+
+    @Label("First Byte")
+    @Timespan
+    public long firstByte;
+
+    @Label("Body")
+    @Timespan
+    public long body;
+
+    @Label("Deserialize")
+    @Timespan
+    public long deserialize;
+
+    @Label("Total")
+    @Timespan
+    public long total;
+}
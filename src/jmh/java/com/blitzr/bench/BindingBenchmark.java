@@ -0,0 +1,165 @@
+package com.blitzr.bench;
+
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.release.Release;
+import com.blitzr.models.utils.SearchResults;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Binding time of the main response types, with and without the Afterburner module.</p>
+ * <p>The responses are generated once with the shape of the API ones : an artist with its members, tags and last
+ * releases, a page of 50 releases with their tracklists, and a page of 50 artist search results.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     gradle jmh
+ *     gradle jmh -Pjmh="BindingBenchmark.releases -p afterburner=true"
+ * </code></pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingBenchmark {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Param({"false", "true"})
+    public boolean afterburner;
+
+    private ObjectMapper mapper;
+    private JavaType releaseList;
+    private JavaType artistResults;
+    private byte[] artistJson;
+    private byte[] releasesJson;
+    private byte[] searchJson;
+
+    @Setup
+    public void setUp() {
+        mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        if (afterburner) {
+            mapper.registerModule(new AfterburnerModule());
+        }
+        releaseList = mapper.getTypeFactory().constructCollectionType(List.class, Release.class);
+        artistResults = mapper.getTypeFactory().constructParametricType(SearchResults.class, Artist.class);
+
+        StringBuilder artist = new StringBuilder();
+        appendArtist(artist, 0, null);
+        artist.setLength(artist.length() - 1); // reopen it to add the nested lists
+        artist.append(",\"members\":[");
+        for (int i = 1; i <= 4; i++) {
+            appendArtist(artist, i, null);
+            artist.append(',');
+        }
+        artist.setLength(artist.length() - 1);
+        artist.append("],\"last_releases\":[");
+        for (int i = 0; i < 10; i++) {
+            appendRelease(artist, i, 0);
+            artist.append(',');
+        }
+        artist.setLength(artist.length() - 1);
+        artist.append("]}");
+        artistJson = artist.toString().getBytes(UTF_8);
+
+        StringBuilder releases = new StringBuilder("[");
+        for (int i = 0; i < 50; i++) {
+            appendRelease(releases, i, 12);
+            releases.append(',');
+        }
+        releases.setLength(releases.length() - 1);
+        releasesJson = releases.append(']').toString().getBytes(UTF_8);
+
+        StringBuilder search = new StringBuilder("{\"total\":1234,\"results\":[");
+        for (int i = 0; i < 50; i++) {
+            appendArtist(search, i, "artist");
+            search.append(',');
+        }
+        search.setLength(search.length() - 1);
+        searchJson = search.append("]}").toString().getBytes(UTF_8);
+    }
+
+    @Benchmark
+    public Artist artist() throws IOException {
+        return mapper.readValue(artistJson, Artist.class);
+    }
+
+    @Benchmark
+    public List<Release> releases() throws IOException {
+        return mapper.readValue(releasesJson, releaseList);
+    }
+
+    @Benchmark
+    public SearchResults<Artist> searchArtists() throws IOException {
+        return mapper.readValue(searchJson, artistResults);
+    }
+
+    /**
+     * Append an artist object, with the search entity type if not null.
+     */
+    private static void appendArtist(StringBuilder json, int i, String entity) {
+        json.append('{');
+        if (entity != null) {
+            json.append("\"entity\":\"").append(entity).append("\",");
+        }
+        json.append("\"uuid\":\"ART").append(1000 + i).append("\",\"slug\":\"artist-").append(i)
+                .append("\",\"name\":\"Artist ").append(i).append("\",\"real_name\":\"Real Name ").append(i)
+                .append("\",\"image\":\"https://cdn.blitzr.com/artist/").append(i).append(".jpg\"")
+                .append(",\"thumb\":\"https://cdn.blitzr.com/artist/thumb/").append(i).append(".jpg\"")
+                .append(",\"thumb_300\":\"https://cdn.blitzr.com/artist/300/").append(i).append(".jpg\"")
+                .append(",\"location\":\"Liverpool\",\"location_code\":\"GB\",\"begin_date\":1960,\"type\":\"band\"")
+                .append(",\"disambiguation\":\"English rock band\",\"tags\":[");
+        appendTags(json);
+        json.append("]}");
+    }
+
+    /**
+     * Append a release object with the given number of tracks.
+     */
+    private static void appendRelease(StringBuilder json, int i, int tracks) {
+        json.append("{\"uuid\":\"REL").append(1000 + i).append("\",\"slug\":\"release-").append(i)
+                .append("\",\"name\":\"Release ").append(i).append("\",\"type\":\"official\",\"format\":\"album\"")
+                .append(",\"release_date\":\"1969-09-26\",\"tracks_count\":").append(tracks)
+                .append(",\"thumb\":\"https://cdn.blitzr.com/release/thumb/").append(i).append(".jpg\"")
+                .append(",\"thumb_300\":\"https://cdn.blitzr.com/release/300/").append(i).append(".jpg\"")
+                .append(",\"artists\":[{\"uuid\":\"ART1000\",\"slug\":\"artist-0\",\"name\":\"Artist 0\"}]")
+                .append(",\"identifiers\":[{\"type\":\"barcode\",\"value\":\"07777464462").append(i % 10)
+                .append("\"}],\"tags\":[");
+        appendTags(json);
+        json.append("],\"tracklist\":[");
+        for (int t = 1; t <= tracks; t++) {
+            json.append("{\"uuid\":\"TRA").append(i * 100 + t).append("\",\"title\":\"Track ").append(t)
+                    .append("\",\"duration\":\"3:").append(10 + t).append("\",\"track_position_alpha\":\"A")
+                    .append(t).append("\",\"track_position_num\":").append(t).append("},");
+        }
+        if (tracks > 0) {
+            json.setLength(json.length() - 1);
+        }
+        json.append("]}");
+    }
+
+    private static void appendTags(StringBuilder json) {
+        json.append("{\"slug\":\"rock\",\"name\":\"Rock\",\"weight\":80,\"position\":1},")
+                .append("{\"slug\":\"pop\",\"name\":\"Pop\",\"weight\":60,\"position\":2}");
+    }
+}
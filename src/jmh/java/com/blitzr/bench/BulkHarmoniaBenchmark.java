@@ -0,0 +1,120 @@
+package com.blitzr.bench;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.concurrent.RateLimiter;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.harmonia.BulkHarmoniaResolver;
+import com.blitzr.harmonia.ExternalId;
+import com.blitzr.harmonia.HarmoniaMappings;
+import com.blitzr.harmonia.HarmoniaResolver;
+import com.blitzr.harmonia.Resolution;
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.utils.EntityType;
+import com.blitzr.models.utils.ServiceName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Time to resolve a batch of external ids with BulkHarmoniaResolver, against a stubbed getHarmoniaArtist.</p>
+ * <p>The stub answers in <b>latency</b> ms. Of the ids, about 10% are unknown to Blitzr (404) and 5% fail once
+ * with a 503, retried after 20 ms. The batch is resolved from empty mappings at each invocation. A <b>rate</b> of 0
+ * runs without RateLimiter. The throughput in ids/s is the number of ids divided by the time of the batch.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     gradle jmh -Pjmh="BulkHarmoniaBenchmark -p concurrency=32 -p rate=0"
+ * </code></pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BulkHarmoniaBenchmark {
+    @Param({"8", "32"})
+    public int concurrency;
+
+    @Param({"0", "200"})
+    public int rate;
+
+    @Param({"20"})
+    public int latency;
+
+    @Param({"1000"})
+    public int ids;
+
+    private List<ExternalId> batch;
+    private Set<String> failed;
+    private BlitzrClient client;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        batch = new ArrayList<>(ids);
+        // Draw from fewer distinct ids than the batch size, to have duplicates as in an import file
+        for (int i = 0; i < ids; i++) {
+            batch.add(new ExternalId(EntityType.artist, ServiceName.discogs, random.nextInt(ids * 2 / 3)));
+        }
+        client = new BlitzrClient("key") {
+            @Override
+            public Artist getHarmoniaArtist(ServiceName service, Object id) {
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new BlitzrException(601, "Interrupted");
+                }
+                int n = Integer.parseInt(String.valueOf(id));
+                if (n % 10 == 0) {
+                    throw new BlitzrException(404);
+                }
+                if (n % 20 == 1 && failed.add(String.valueOf(id))) {
+                    throw new BlitzrException(503);
+                }
+                Artist artist = new Artist();
+                artist.setUuid("ART" + n);
+                return artist;
+            }
+        };
+    }
+
+    @Setup(Level.Invocation)
+    public void resetFailures() {
+        failed = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    }
+
+    @Benchmark
+    public int resolve() {
+        BulkHarmoniaResolver bulk = new BulkHarmoniaResolver(new HarmoniaResolver(client, new HarmoniaMappings()));
+        bulk.setConcurrency(concurrency);
+        bulk.setRateLimiter((rate > 0) ? new RateLimiter(rate, 5) : null);
+        bulk.setRetryDelayMillis(20);
+        int mapped = 0;
+        for (Resolution resolution : bulk.resolve(batch.iterator())) {
+            if (resolution.isMapped()) {
+                mapped++;
+            }
+        }
+        return mapped;
+    }
+}
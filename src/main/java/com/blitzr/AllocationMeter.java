@@ -0,0 +1,49 @@
+package com.blitzr;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * Read the bytes allocated by the current thread, with the com.sun.management.ThreadMXBean of the HotSpot JVMs.
+ * The bean is looked up by reflection : on the other JVMs the allocations are unknown.
+ */
+final class AllocationMeter {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final Method ALLOCATED_BYTES = allocatedBytesMethod();
+
+    private AllocationMeter() {
+    }
+
+    /**
+     * @return The bytes allocated by the current thread since it started, -1 if unknown
+     */
+    static long allocatedBytes() {
+        if (ALLOCATED_BYTES == null) {
+            return -1;
+        }
+        try {
+            return (Long) ALLOCATED_BYTES.invoke(THREADS, Thread.currentThread().getId());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static Method allocatedBytesMethod() {
+        try {
+            // The method is taken from the exported interface, the bean class itself may not be accessible
+            Class<?> bean = Class.forName("com.sun.management.ThreadMXBean");
+            if (!bean.isInstance(THREADS)) {
+                return null;
+            }
+            Method supported = bean.getMethod("isThreadAllocatedMemorySupported");
+            Method enabled = bean.getMethod("isThreadAllocatedMemoryEnabled");
+            if (!(Boolean) supported.invoke(THREADS) || !(Boolean) enabled.invoke(THREADS)) {
+                return null;
+            }
+            return bean.getMethod("getThreadAllocatedBytes", long.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
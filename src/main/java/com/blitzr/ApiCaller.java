@@ -1,8 +1,17 @@
 package com.blitzr;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.trace.ApiInterceptor;
+import com.blitzr.trace.ApiRequest;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
@@ -10,12 +19,19 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.net.UnknownHostException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ApiCaller {
+    private static final ObjectMapper MAPPER = ApiCaller.newMapper();
+    private static final ObjectMapper LAZY_MAPPER = LazyList.newMapper();
+    private static final List<ApiInterceptor> INTERCEPTORS = new CopyOnWriteArrayList<>();
+
     /**
      * @param in : buffer with the php result
      * @param bufSize : size of the buffer
@@ -56,6 +72,13 @@ public class ApiCaller {
         }
     }
 
+    private static String parameterToString(Object value) {
+        if (value instanceof Date) {
+            return new SimpleDateFormat("yyyy-MM-dd").format((Date) value);
+        }
+        return value.toString();
+    }
+
     private static String parametersFromMap(HashMap<String, Object> map){
         ArrayList<String> couples = new ArrayList<String>();
 
@@ -63,7 +86,7 @@ public class ApiCaller {
 
             try {
                 if (entry.getValue() != null) {
-                    couples.add(String.format("%s=%s", URLEncoder.encode(entry.getKey(), "UTF-8"), URLEncoder.encode(entry.getValue().toString(), "UTF-8")));
+                    couples.add(String.format("%s=%s", URLEncoder.encode(entry.getKey(), "UTF-8"), URLEncoder.encode(ApiCaller.parameterToString(entry.getValue()), "UTF-8")));
                 }
             } catch (UnsupportedEncodingException e) {
                 e.printStackTrace();
@@ -75,95 +98,359 @@ public class ApiCaller {
         return Utils.concatStringsWSep(couples, "&");
     }
 
-    public static <T> T getApi (String urlStr, Class<T> T, HashMap<String, Object> params) {
-        urlStr = String.format("%s%s?%s", BlitzrClient.getApiUrl(), urlStr, ApiCaller.parametersFromMap(params));
+    private static String buildUrl(String urlStr, HashMap<String, Object> params) {
+        return String.format("%s%s?%s", BlitzrClient.getApiUrl(), urlStr, ApiCaller.parametersFromMap(params));
+    }
+
+    /**
+     * The mappers use the Afterburner module : the models are bound by generated bytecode instead of reflection.
+     * Set the system property "blitzr.afterburner" to false to disable it (eg: on platforms forbidding class
+     * generation).
+     *
+     * @return A new ObjectMapper configured like the one shared by all the API calls
+     */
+    static ObjectMapper newMapper() {
         ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        if (!"false".equals(System.getProperty("blitzr.afterburner"))) {
+            mapper.registerModule(new AfterburnerModule());
+        }
+        return mapper;
+    }
+
+    /**
+     * Add a hook around each API call, see ApiInterceptor. Like the API key, the interceptors are shared by all
+     * the clients.
+     *
+     * @param interceptor The interceptor, called after the ones already added
+     */
+    public static void addInterceptor(ApiInterceptor interceptor) {
+        INTERCEPTORS.add(interceptor);
+    }
+
+    public static void removeInterceptor(ApiInterceptor interceptor) {
+        INTERCEPTORS.remove(interceptor);
+    }
+
+    /**
+     * Call the API and bind the response body, read directly from the connection, to the given type. The call goes
+     * through the interceptors.
+     *
+     * @param urlStr : the endpoint path (eg: "artist/")
+     * @param params : the query parameters, null values are skipped
+     * @param mapper : the mapper used to bind the response
+     * @param type : the type of the response
+     * @return : the bound response
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T call (String urlStr, HashMap<String, Object> params, ObjectMapper mapper, JavaType type) {
+        if (INTERCEPTORS.isEmpty()) {
+            return ApiCaller.execute(urlStr, params, null, mapper, type);
+        }
+        ApiInterceptor[] chain = INTERCEPTORS.toArray(new ApiInterceptor[0]);
+        ApiRequest request = new ApiRequest(urlStr, params, type, false);
+        int entered = 0;
+        Object result = null;
+        RuntimeException error = null;
+        try {
+            while (entered < chain.length && result == null) {
+                result = chain[entered++].before(request);
+            }
+            if (result == null) {
+                result = ApiCaller.execute(request.getEndpoint(), request.getParams(), request.getHeaders(), mapper, type);
+            }
+            return (T) result;
+        } catch (RuntimeException e) {
+            error = e;
+            result = null;
+            throw e;
+        } finally {
+            ApiCaller.after(chain, entered, request, result, error);
+        }
+    }
+
+    private static <T> T execute (String urlStr, HashMap<String, Object> params, Map<String, String> headers, ObjectMapper mapper, JavaType type) {
+        CallTimer timer = new CallTimer(urlStr, type);
+        urlStr = ApiCaller.buildUrl(urlStr, params);
         T object;
+        int statusCode = 0;
         try {
-            URL url = new URL(urlStr);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            HttpURLConnection connection = ApiCaller.open(urlStr, headers);
             connection.connect();
-            ApiCaller.checkStatusCode(connection.getResponseCode());
-            InputStream inputStream = connection.getInputStream();
-            String result = ApiCaller.InputStreamToString(inputStream);
-            object = mapper.readValue(result, T);
-        } catch (Exception e) {
-            e.printStackTrace();
-            if (e instanceof UnknownHostException) {
-                throw new BlitzrException(600, "You don't have any internet connection.");
-            } else {
-                throw new BlitzrException(601, "The Blitzr Client had a internal error.");
+            timer.connected();
+            statusCode = connection.getResponseCode();
+            timer.firstByte();
+            ApiCaller.checkStatusCode(statusCode);
+            InputStream inputStream = timer.meter(connection.getInputStream());
+            try {
+                if (timer.isAccounting()) {
+                    object = mapper.readValue(timer.meter(mapper.getFactory().createParser(inputStream)), type);
+                } else {
+                    object = mapper.readValue(inputStream, type);
+                }
+            } finally {
+                inputStream.close();
             }
+        } catch (BlitzrException e) {
+            timer.done(statusCode, e);
+            throw e;
+        } catch (Exception e) {
+            BlitzrException error = ApiCaller.toBlitzrException(e);
+            timer.done(statusCode, error);
+            throw error;
         }
+        timer.done(statusCode, null);
         return object;
     }
 
+    private static HttpURLConnection open(String urlStr, Map<String, String> headers) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(urlStr).openConnection();
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * Call the after hooks of the interceptors entered, in the reverse order.
+     */
+    private static void after(ApiInterceptor[] chain, int entered, ApiRequest request, Object result, RuntimeException error) {
+        for (int i = entered - 1; i >= 0; i--) {
+            try {
+                chain[i].after(request, result, error);
+            } catch (RuntimeException e) {
+                // A failing hook must not hide the result of the call
+            }
+        }
+    }
+
+    private static BlitzrException toBlitzrException(Exception e) {
+        e.printStackTrace();
+        if (e instanceof UnknownHostException) {
+            return new BlitzrException(600, "You don't have any internet connection.");
+        } else {
+            return new BlitzrException(601, "The Blitzr Client had a internal error.");
+        }
+    }
+
+    public static <T> T getApi (String urlStr, Class<T> T, HashMap<String, Object> params) {
+        return ApiCaller.call(urlStr, params, MAPPER, MAPPER.constructType(T));
+    }
+
+    /**
+     * Same as getApi. If lazyNestedLists is true, the nested lists of the entity are bound when first read.
+     * Refer to the LazyList documentation for the lists concerned.
+     */
+    public static <T> T getApi (String urlStr, Class<T> T, HashMap<String, Object> params, boolean lazyNestedLists) {
+        ObjectMapper mapper = lazyNestedLists ? LAZY_MAPPER : MAPPER;
+        return ApiCaller.call(urlStr, params, mapper, mapper.constructType(T));
+    }
+
     public static <T> List<T> getApiList (String urlStr, Class<T> T, HashMap<String, Object> params) {
-        urlStr = String.format("%s%s?%s", BlitzrClient.getApiUrl(), urlStr, ApiCaller.parametersFromMap(params));
-        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        List<T> object = null;
+        return ApiCaller.call(urlStr, params, MAPPER, MAPPER.getTypeFactory().constructCollectionType(List.class, T));
+    }
+
+    /**
+     * Same as getApiList, but only the fields of the given projection are bound.
+     */
+    public static <T> List<T> getApiList (String urlStr, Projection<T> projection, HashMap<String, Object> params) {
+        ObjectMapper mapper = projection.getMapper();
+        return ApiCaller.call(urlStr, params, mapper,
+                mapper.getTypeFactory().constructCollectionType(List.class, projection.getType()));
+    }
+
+    public static <T, V> HashMap<T, V> getApiHashMap (String urlStr, Class<T> T, Class<V> V, HashMap<String, Object> params) {
+        return ApiCaller.call(urlStr, params, MAPPER, MAPPER.getTypeFactory().constructMapType(HashMap.class, T, V));
+    }
+
+    public static <T, V> T getApiParametricType (String urlStr, Class<T> T, Class<V> V, HashMap<String, Object> params) {
+        return ApiCaller.call(urlStr, params, MAPPER, MAPPER.getTypeFactory().constructParametricType(T, V));
+    }
+
+    /**
+     * Call a list endpoint and give each element of the response to the visitor as soon as it is read. The response
+     * is parsed from the connection stream, the list itself is never built.
+     *
+     * @param urlStr : the endpoint path (eg: "label/releases/")
+     * @param T : the type of the elements
+     * @param params : the query parameters, null values are skipped
+     * @param visitor : the visitor receiving the elements
+     * @return : the number of elements visited
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> int visitApiList (String urlStr, Class<T> T, HashMap<String, Object> params, Visitor<? super T> visitor) {
+        if (INTERCEPTORS.isEmpty()) {
+            return ApiCaller.visit(urlStr, T, params, null, visitor);
+        }
+        ApiInterceptor[] chain = INTERCEPTORS.toArray(new ApiInterceptor[0]);
+        ApiRequest request = new ApiRequest(urlStr, params, MAPPER.constructType(T), true);
+        int entered = 0;
+        Object result = null;
+        RuntimeException error = null;
         try {
-            URL url = new URL(urlStr);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.connect();
-            ApiCaller.checkStatusCode(connection.getResponseCode());
-            InputStream inputStream = connection.getInputStream();
-            String result = ApiCaller.InputStreamToString(inputStream);
-            object = mapper.readValue(result, mapper.getTypeFactory().constructCollectionType(List.class, T));
-        } catch (Exception e) {
-            e.printStackTrace();
-            if (e instanceof UnknownHostException) {
-                throw new BlitzrException(600);
+            while (entered < chain.length && result == null) {
+                result = chain[entered++].before(request);
+            }
+            int count = 0;
+            if (result == null) {
+                count = ApiCaller.visit(request.getEndpoint(), T, request.getParams(), request.getHeaders(), visitor);
             } else {
-                throw new BlitzrException(601);
+                for (Object element : (List<?>) result) {
+                    visitor.visit((T) element);
+                    count++;
+                }
             }
+            result = count;
+            return count;
+        } catch (RuntimeException e) {
+            error = e;
+            result = null;
+            throw e;
+        } finally {
+            ApiCaller.after(chain, entered, request, result, error);
         }
-        return object;
     }
 
-    public static <T, V> HashMap<T, V> getApiHashMap (String urlStr, Class<T> T, Class<V> V, HashMap<String, Object> params) {
-        urlStr = String.format("%s%s?%s", BlitzrClient.getApiUrl(), urlStr, ApiCaller.parametersFromMap(params));
-        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        HashMap<T, V> object = null;
+    /**
+     * Call a list endpoint and give each element of the response to the visitor as raw JSON, read from the
+     * connection stream. Nothing is bound : the elements keep all their fields and values. For a short-circuited
+     * call, the elements returned by the interceptor are serialized back to JSON.
+     *
+     * @param urlStr : the endpoint path (eg: "label/releases/")
+     * @param params : the query parameters, null values are skipped
+     * @param visitor : the visitor reading the elements
+     * @return : the number of elements visited
+     */
+    public static int visitApiJson (String urlStr, HashMap<String, Object> params, final JsonVisitor visitor) {
+        if (INTERCEPTORS.isEmpty()) {
+            return ApiCaller.visit(urlStr, JsonNode.class, params, null, ApiCaller.rawReader(visitor));
+        }
+        ApiInterceptor[] chain = INTERCEPTORS.toArray(new ApiInterceptor[0]);
+        ApiRequest request = new ApiRequest(urlStr, params, MAPPER.constructType(JsonNode.class), true);
+        int entered = 0;
+        Object result = null;
+        RuntimeException error = null;
         try {
-            URL url = new URL(urlStr);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.connect();
-            ApiCaller.checkStatusCode(connection.getResponseCode());
-            InputStream inputStream = connection.getInputStream();
-            String result = ApiCaller.InputStreamToString(inputStream);
-            object = mapper.readValue(result, mapper.getTypeFactory().constructMapType(HashMap.class, T, V));
-        } catch (Exception e) {
-            e.printStackTrace();
-            if (e instanceof UnknownHostException) {
-                throw new BlitzrException(600, "You don't have any internet connection.");
+            while (entered < chain.length && result == null) {
+                result = chain[entered++].before(request);
+            }
+            int count = 0;
+            if (result == null) {
+                count = ApiCaller.visit(request.getEndpoint(), JsonNode.class, request.getParams(),
+                        request.getHeaders(), ApiCaller.rawReader(visitor));
             } else {
-                throw new BlitzrException(601, "The Blitzr Client had a internal error.");
+                for (Object element : (List<?>) result) {
+                    try {
+                        JsonParser parser = MAPPER.treeAsTokens(MAPPER.valueToTree(element));
+                        parser.nextToken();
+                        visitor.visit(parser);
+                    } catch (IOException e) {
+                        throw ApiCaller.toBlitzrException(e);
+                    }
+                    count++;
+                }
             }
+            result = count;
+            return count;
+        } catch (RuntimeException e) {
+            error = e;
+            result = null;
+            throw e;
+        } finally {
+            ApiCaller.after(chain, entered, request, result, error);
         }
-        return object;
     }
 
-    public static <T, V> T getApiParametricType (String urlStr, Class<T> T, Class<V> V, HashMap<String, Object> params) {
-        urlStr = String.format("%s%s?%s", BlitzrClient.getApiUrl(), urlStr, ApiCaller.parametersFromMap(params));
-        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        T object = null;
+    /**
+     * Read one element of a list response, the parser being on its START_OBJECT.
+     */
+    private interface ElementReader {
+        void read(JsonParser parser, CallTimer timer) throws IOException;
+    }
+
+    private static <T> ElementReader boundReader(Class<T> T, final Visitor<? super T> visitor) {
+        final ObjectReader reader = MAPPER.reader(T);
+        return new ElementReader() {
+            @Override
+            public void read(JsonParser parser, CallTimer timer) throws IOException {
+                T element = reader.readValue(parser);
+                // The time of the visitor is the caller's, not the deserialization's
+                timer.pause();
+                try {
+                    visitor.visit(element);
+                } finally {
+                    timer.resume();
+                }
+            }
+        };
+    }
+
+    /**
+     * The raw visitor reads the elements itself : its time and allocations are counted in the deserialization.
+     */
+    private static ElementReader rawReader(final JsonVisitor visitor) {
+        return new ElementReader() {
+            @Override
+            public void read(JsonParser parser, CallTimer timer) throws IOException {
+                visitor.visit(parser);
+                if (parser.getCurrentToken() == JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                }
+            }
+        };
+    }
+
+    private static <T> int visit (String urlStr, Class<T> T, HashMap<String, Object> params, Map<String, String> headers, Visitor<? super T> visitor) {
+        return ApiCaller.visit(urlStr, T, params, headers, ApiCaller.boundReader(T, visitor));
+    }
+
+    private static int visit (String urlStr, Class<?> type, HashMap<String, Object> params, Map<String, String> headers, ElementReader elementReader) {
+        CallTimer timer = new CallTimer(urlStr, type);
+        urlStr = ApiCaller.buildUrl(urlStr, params);
+        int count = 0;
+        int statusCode = 0;
         try {
-            URL url = new URL(urlStr);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            HttpURLConnection connection = ApiCaller.open(urlStr, headers);
             connection.connect();
-            ApiCaller.checkStatusCode(connection.getResponseCode());
-            InputStream inputStream = connection.getInputStream();
-            String result = ApiCaller.InputStreamToString(inputStream);
-            object = mapper.readValue(result, mapper.getTypeFactory().constructParametricType(T, V));
-        } catch (Exception e) {
-            e.printStackTrace();
-            if (e instanceof UnknownHostException) {
-                throw new BlitzrException(600, "You don't have any internet connection.");
-            } else {
-                throw new BlitzrException(601, "The Blitzr Client had a internal error.");
+            timer.connected();
+            statusCode = connection.getResponseCode();
+            timer.firstByte();
+            ApiCaller.checkStatusCode(statusCode);
+            InputStream inputStream = timer.meter(connection.getInputStream());
+            try {
+                JsonParser parser = timer.meter(MAPPER.getFactory().createParser(inputStream));
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new JsonParseException("Expected a JSON array", parser.getCurrentLocation());
+                }
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == JsonToken.VALUE_NULL) {
+                        continue;
+                    }
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new JsonParseException("Expected a JSON object", parser.getCurrentLocation());
+                    }
+                    elementReader.read(parser, timer);
+                    count++;
+                }
+                parser.close();
+            } finally {
+                inputStream.close();
             }
+        } catch (BlitzrException e) {
+            timer.done(statusCode, e);
+            throw e;
+        } catch (IOException e) {
+            BlitzrException error = ApiCaller.toBlitzrException(e);
+            timer.done(statusCode, error);
+            throw error;
+        } catch (RuntimeException e) {
+            // Thrown by the visitor or the binding : recorded as an internal error, given to the caller as is
+            timer.done(statusCode, new BlitzrException(601, String.valueOf(e)));
+            throw e;
         }
-        return object;
+        timer.done(statusCode, null);
+        return count;
     }
 }
@@ -1,5 +1,8 @@
 package com.blitzr;
 
+import com.blitzr.bulk.BulkFetcher;
+import com.blitzr.bulk.BulkResult;
+import com.blitzr.cache.TtlCache;
 import com.blitzr.models.artist.Artist;
 import com.blitzr.models.artist.ArtistExtras;
 import com.blitzr.models.artist.ArtistFilters;
@@ -23,6 +26,7 @@ import com.blitzr.models.track.TrackFilters;
 import com.blitzr.models.utils.*;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -41,7 +45,11 @@ import java.util.List;
  */
 public class BlitzrClient {
     private static final String API_URL = "https://api.blitzr.com/";
+    private static volatile String apiUrl = API_URL;
     private static String mApiKey;
+    private boolean lazyNestedLists;
+    private int bulkConcurrency = 4;
+    private TtlCache<String, Object> entityCache;
 
     /**
      * Create a BlitzrClient with your API Key
@@ -58,7 +66,16 @@ public class BlitzrClient {
      * @return API Base URL as a String
      */
     public static String getApiUrl() {
-        return API_URL;
+        return apiUrl;
+    }
+
+    /**
+     * Send the API calls to another server, eg: a stub server in the tests.
+     *
+     * @param url The base URL, ending with a slash. Null to restore the Blitzr API.
+     */
+    static void setApiUrl(String url) {
+        apiUrl = (url != null) ? url : API_URL;
     }
 
     /**
@@ -70,6 +87,54 @@ public class BlitzrClient {
         return mApiKey;
     }
 
+    /**
+     * Enable or disable the lazy nested lists mode. When enabled, Artist.last_releases, Artist.next_events,
+     * Label.last_releases and Release.tracklist returned by getArtist, getLabel, getRelease and the harmonia methods
+     * are kept as raw JSON tokens and only bound the first time they are read.
+     *
+     * @param lazyNestedLists true to bind the nested lists on demand
+     */
+    public void setLazyNestedLists(boolean lazyNestedLists) {
+        this.lazyNestedLists = lazyNestedLists;
+    }
+
+    /**
+     * @return true if the lazy nested lists mode is enabled
+     */
+    public boolean isLazyNestedLists() {
+        return lazyNestedLists;
+    }
+
+    /**
+     * Set the maximum number of simultaneous calls made by the bulk methods (getArtists, getLabels, getReleases,
+     * getTracks and getTags). Default is 4.
+     *
+     * @param bulkConcurrency Maximum number of simultaneous calls, at least 1
+     */
+    public void setBulkConcurrency(int bulkConcurrency) {
+        if (bulkConcurrency < 1) {
+            throw new IllegalArgumentException("bulkConcurrency must be at least 1");
+        }
+        this.bulkConcurrency = bulkConcurrency;
+    }
+
+    public int getBulkConcurrency() {
+        return bulkConcurrency;
+    }
+
+    /**
+     * Set the cache used by the bulk methods. Entities found in it are not fetched again. Default is no cache.
+     *
+     * @param entityCache The cache, null to disable it
+     */
+    public void setEntityCache(TtlCache<String, Object> entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    public TtlCache<String, Object> getEntityCache() {
+        return entityCache;
+    }
+
     /**
      * Fetch an Artist from Blitzr API. Slug or UUID are mandatory.
      *
@@ -86,7 +151,26 @@ public class BlitzrClient {
         params.put("uuid", uuid);
         params.put("extras", (extras != null) ? Utils.concatOptionsWSep(extras, ",") : null);
         params.put("extras_limit", extras_limit);
-        return ApiCaller.getApi("artist/", Artist.class, params);
+        return ApiCaller.getApi("artist/", Artist.class, params, lazyNestedLists);
+    }
+
+    /**
+     * Fetch many Artists by UUID, with at most getBulkConcurrency() calls at a time. Duplicates are fetched once and
+     * entities found in the entity cache are not fetched again.
+     *
+     * @param uuids The Artists UUIDs
+     * @param extras A list of ArtistExtras, as for getArtist.
+     * @param extras_limit An int to set the limit of the lists fetched by extras.
+     * @return The Artists by UUID, and the error of each UUID which could not be fetched
+     */
+    public BulkResult<Artist> getArtists(Collection<String> uuids, final List<ArtistExtras> extras, final Integer extras_limit) {
+        return new BulkFetcher(bulkConcurrency, entityCache).fetch(uuids, "artist:" + extras + ":" + extras_limit + ":",
+                Artist.class, new BulkFetcher.Fetch<Artist>() {
+                    @Override
+                    public Artist fetch(String uuid) {
+                        return BlitzrClient.this.getArtist(null, uuid, extras, extras_limit);
+                    }
+                });
     }
 
     /**
@@ -167,7 +251,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Artist> artists = BlitzrClient.this.getArtistBands(slug, uuid, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, artists.size(), fetchStart);
                     for (Artist artist: artists) {
                         yield(artist);
                     }
@@ -198,6 +284,45 @@ public class BlitzrClient {
         return ApiCaller.getApiList("artist/events/", Event.class, params);
     }
 
+    /**
+     * Return a list of Events where will play the given Artist. Slug or UUID are mandatory.
+     * @param slug The Artist slug
+     * @param uuid The Artist UUID
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param projection The fields or view type to bind (eg: CompactEvent.VIEW), other fields are skipped while parsing
+     * @return A list of projected Event
+     */
+    public <V> List<V> getArtistEvents(String slug, String uuid, Integer start, Integer limit, Projection<V> projection)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("uuid", uuid);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.getApiList("artist/events/", projection, params);
+    }
+
+    /**
+     * Same data as the getArtistEvents method, but each Event is given to the visitor as soon as it is read :
+     * the list is never built, memory stays flat whatever the limit.
+     * @param slug The Artist slug
+     * @param uuid The Artist UUID
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param visitor The visitor receiving each Event
+     * @return The number of visited elements
+     */
+    public int forEachArtistEvent(String slug, String uuid, Integer start, Integer limit, Visitor<? super Event> visitor)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("uuid", uuid);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.visitApiList("artist/events/", Event.class, params, visitor);
+    }
+
     /**
      * Return a Generator with the same data as getArtistEvents method. Helps to paginate.
      * Slug or UUID are mandatory.
@@ -221,7 +346,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Event> events = BlitzrClient.this.getArtistEvents(slug, uuid, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, events.size(), fetchStart);
                     for (Event event: events) {
                         yield(event);
                     }
@@ -291,7 +418,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Artist> artists = BlitzrClient.this.getArtistMembers(slug, uuid, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, artists.size(), fetchStart);
                     for (Artist artist: artists) {
                         yield(artist);
                     }
@@ -346,7 +475,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Artist> artists = BlitzrClient.this.getArtistRelated(slug, uuid, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, artists.size(), fetchStart);
                     for (Artist artist: artists) {
                         yield(artist);
                     }
@@ -384,6 +515,59 @@ public class BlitzrClient {
         return ApiCaller.getApiList("artist/releases/", Release.class, params);
     }
 
+    /**
+     * Same data as the getArtistReleases method, but each Release is given to the visitor as soon as it is read :
+     * the list is never built, memory stays flat whatever the limit.
+     *
+     * @param slug The Artist slug
+     * @param uuid The Artist UUID
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param type The type of the Release (official|unofficial|all)
+     * @param format The format of the Release (album|single|live|all)
+     * @param credited True to get only Releases where artist is credited (not main releases)
+     * @param visitor The visitor receiving each Release
+     * @return The number of visited elements
+     */
+    public int forEachArtistRelease(String slug, String uuid, Integer start, Integer limit, ReleaseType type, ReleaseFormat format, Boolean credited, Visitor<? super Release> visitor)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("uuid", uuid);
+        params.put("start", start);
+        params.put("limit", limit);
+        params.put("type", type);
+        params.put("format", format);
+        params.put("credited", credited ? "true" : null);
+        return ApiCaller.visitApiList("artist/releases/", Release.class, params, visitor);
+    }
+
+    /**
+     * Return a list of Releases by the given Artist. Slug or UUID are mandatory.
+     *
+     * @param slug The Artist slug
+     * @param uuid The Artist UUID
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param type The type of the Release (official|unofficial|all)
+     * @param format The format of the Release (album|single|live|all)
+     * @param credited True to get only Releases where artist is credited (not main releases)
+     * @param projection The fields or view type to bind, other fields are skipped while parsing
+     * @return A list of projected Release
+     */
+    public <V> List<V> getArtistReleases(String slug, String uuid, Integer start, Integer limit, ReleaseType type, ReleaseFormat format, Boolean credited, Projection<V> projection)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("uuid", uuid);
+        params.put("start", start);
+        params.put("limit", limit);
+        params.put("type", type);
+        params.put("format", format);
+        params.put("credited", credited ? "true" : null);
+        return ApiCaller.getApiList("artist/releases/", projection, params);
+    }
+
     /**
      * Return a Generator with the same data as getArtistReleases method. Helps to paginate.
      * Slug or UUID are mandatory.
@@ -410,7 +594,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Release> releases = BlitzrClient.this.getArtistReleases(slug, uuid, tempStart, tempLimit, type, format, credited);
+                    pageFetched(tempStart, tempLimit, releases.size(), fetchStart);
                     for (Release release: releases) {
                         yield(release);
                     }
@@ -468,7 +654,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Artist> artists = BlitzrClient.this.getArtistSimilar(slug, uuid, filters, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, artists.size(), fetchStart);
                     for (Artist artist: artists) {
                         yield(artist);
                     }
@@ -559,6 +747,73 @@ public class BlitzrClient {
         return ApiCaller.getApiList("events/", Event.class, params);
     }
 
+    /**
+     * Same as getEvents, but only the fields of the given projection are bound.
+     *
+     * @param countryCode Official county code (fr, en)
+     * @param latitude Latitude of a reference geopoint (use with radius)
+     * @param longitude Longitude of a reference geopoint (use with radius)
+     * @param city City where the event takes place (not compatible with country code)
+     * @param venue Venue where the event takes place
+     * @param tag Tag filter
+     * @param dateStart Date minimum
+     * @param dateEnd Date maximum
+     * @param radius Distance max from the reference geopoint (in km)
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param projection The fields or view type to bind (eg: CompactEvent.VIEW), other fields are skipped while parsing
+     * @return A list of projected Event
+     */
+    public <V> List<V> getEvents(String countryCode, Float latitude, Float longitude, String city, String venue, String tag, Date dateStart, Date dateEnd, Integer radius, Integer start, Integer limit, Projection<V> projection) {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("country_code", countryCode);
+        params.put("latitude", latitude);
+        params.put("longitude", longitude);
+        params.put("city", city);
+        params.put("venue", venue);
+        params.put("tag", tag);
+        params.put("date_start", dateStart);
+        params.put("date_end", dateEnd);
+        params.put("radius", radius);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.getApiList("events/", projection, params);
+    }
+
+    /**
+     * Same data as the getEvents method, but each Event is given to the visitor as soon as it is read :
+     * the list is never built, memory stays flat whatever the limit.
+     *
+     * @param countryCode Official county code (fr, en)
+     * @param latitude Latitude of a reference geopoint (use with radius)
+     * @param longitude Longitude of a reference geopoint (use with radius)
+     * @param city City where the event takes place (not compatible with country code)
+     * @param venue Venue where the event takes place
+     * @param tag Tag filter
+     * @param dateStart Date minimum
+     * @param dateEnd Date maximum
+     * @param radius Distance max from the reference geopoint (in km)
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param visitor The visitor receiving each Event
+     * @return The number of visited elements
+     */
+    public int forEachEvent(String countryCode, Float latitude, Float longitude, String city, String venue, String tag, Date dateStart, Date dateEnd, Integer radius, Integer start, Integer limit, Visitor<? super Event> visitor) {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("country_code", countryCode);
+        params.put("latitude", latitude);
+        params.put("longitude", longitude);
+        params.put("city", city);
+        params.put("venue", venue);
+        params.put("tag", tag);
+        params.put("date_start", dateStart);
+        params.put("date_end", dateEnd);
+        params.put("radius", radius);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.visitApiList("events/", Event.class, params, visitor);
+    }
+
     /**
      * Return a Generator with the same data as getEvents method. Helps to paginate.
      * Slug or UUID are mandatory.
@@ -589,7 +844,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Event> events = BlitzrClient.this.getEvents(countryCode, latitude, longitude, city, venue, tag, dateStart, dateEnd, radius, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, events.size(), fetchStart);
                     for (Event event: events) {
                         yield(event);
                     }
@@ -613,7 +870,7 @@ public class BlitzrClient {
         HashMap<String, Object> params = new HashMap<>();
         params.put("service_name", service);
         params.put("service_id", id);
-        return ApiCaller.getApi("harmonia/artist/", Artist.class, params);
+        return ApiCaller.getApi("harmonia/artist/", Artist.class, params, lazyNestedLists);
     }
 
     /**
@@ -627,7 +884,7 @@ public class BlitzrClient {
         HashMap<String, Object> params = new HashMap<>();
         params.put("service_name", service);
         params.put("service_id", id);
-        return ApiCaller.getApi("harmonia/label/", Label.class, params);
+        return ApiCaller.getApi("harmonia/label/", Label.class, params, lazyNestedLists);
     }
 
     /**
@@ -641,7 +898,7 @@ public class BlitzrClient {
         HashMap<String, Object> params = new HashMap<>();
         params.put("service_name", service);
         params.put("service_id", id);
-        return ApiCaller.getApi("harmonia/release/", Release.class, params);
+        return ApiCaller.getApi("harmonia/release/", Release.class, params, lazyNestedLists);
     }
 
     /**
@@ -678,7 +935,26 @@ public class BlitzrClient {
         params.put("uuid", uuid);
         params.put("extras", (extras != null) ? Utils.concatOptionsWSep(extras, ",") : null);
         params.put("extras_limit", extras_limit);
-        return ApiCaller.getApi("label/", Label.class, params);
+        return ApiCaller.getApi("label/", Label.class, params, lazyNestedLists);
+    }
+
+    /**
+     * Fetch many Labels by UUID, with at most getBulkConcurrency() calls at a time. Duplicates are fetched once and
+     * entities found in the entity cache are not fetched again.
+     *
+     * @param uuids The Labels UUIDs
+     * @param extras A list of LabelExtras, as for getLabel.
+     * @param extras_limit An int to set the limit of the lists fetched by extras.
+     * @return The Labels by UUID, and the error of each UUID which could not be fetched
+     */
+    public BulkResult<Label> getLabels(Collection<String> uuids, final ArrayList<LabelExtras> extras, final Integer extras_limit) {
+        return new BulkFetcher(bulkConcurrency, entityCache).fetch(uuids, "label:" + extras + ":" + extras_limit + ":",
+                Label.class, new BulkFetcher.Fetch<Label>() {
+                    @Override
+                    public Label fetch(String uuid) {
+                        return BlitzrClient.this.getLabel(null, uuid, extras, extras_limit);
+                    }
+                });
     }
 
     /**
@@ -701,6 +977,74 @@ public class BlitzrClient {
         return ApiCaller.getApiList("label/artists/", Artist.class, params);
     }
 
+    /**
+     * Same data as the getLabelArtists method, but each Artist is given to the visitor as soon as it is read :
+     * the list is never built, memory stays flat whatever the limit.
+     *
+     * @param slug The Label slug
+     * @param uuid The Label UUID
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param order The order of the Artists (name|releaseDate)
+     * @param visitor The visitor receiving each Artist
+     * @return The number of visited elements
+     */
+    public int forEachLabelArtist(String slug, String uuid, Integer start, Integer limit, LabelArtistsOrder order, Visitor<? super Artist> visitor)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("uuid", uuid);
+        params.put("start", start);
+        params.put("limit", limit);
+        params.put("order", order);
+        return ApiCaller.visitApiList("label/artists/", Artist.class, params, visitor);
+    }
+
+    /**
+     * Same data as the getLabelArtists method, but each Artist is given to the visitor as raw JSON, as it is read :
+     * nothing is bound to the models, all the fields of the API are kept.
+     *
+     * @param slug The Label slug
+     * @param uuid The Label UUID
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param order The order of the Artists (name|releaseDate)
+     * @param visitor The visitor reading each Artist
+     * @return The number of visited elements
+     */
+    public int forEachLabelArtist(String slug, String uuid, Integer start, Integer limit, LabelArtistsOrder order, JsonVisitor visitor)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("uuid", uuid);
+        params.put("start", start);
+        params.put("limit", limit);
+        params.put("order", order);
+        return ApiCaller.visitApiJson("label/artists/", params, visitor);
+    }
+
+    /**
+     * Return a list of Artist by the given Label. Slug or UUID are mandatory.
+     *
+     * @param slug The Label slug
+     * @param uuid The Label UUID
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param order The order of the Artists (name|releaseDate)
+     * @param projection The fields or view type to bind, other fields are skipped while parsing
+     * @return A list of projected Artist
+     */
+    public <V> List<V> getLabelArtists(String slug, String uuid, Integer start, Integer limit, LabelArtistsOrder order, Projection<V> projection)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("uuid", uuid);
+        params.put("start", start);
+        params.put("limit", limit);
+        params.put("order", order);
+        return ApiCaller.getApiList("label/artists/", projection, params);
+    }
+
     /**
      * Return a Generator with the same data as getLabelArtists method. Helps to paginate.
      * Slug or UUID are mandatory.
@@ -724,7 +1068,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Artist> artists = BlitzrClient.this.getLabelArtists(slug, uuid, tempStart, tempLimit, order);
+                    pageFetched(tempStart, tempLimit, artists.size(), fetchStart);
                     for (Artist artist: artists) {
                         yield(artist);
                     }
@@ -793,6 +1139,74 @@ public class BlitzrClient {
         return ApiCaller.getApiList("label/releases/", Release.class, params);
     }
 
+    /**
+     * Same data as the getLabelReleases method, but each Release is given to the visitor as soon as it is read :
+     * the list is never built, memory stays flat whatever the limit.
+     *
+     * @param slug The Label slug
+     * @param uuid The Label UUID
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param format The format of the Release (album|single|live|all)
+     * @param visitor The visitor receiving each Release
+     * @return The number of visited elements
+     */
+    public int forEachLabelRelease(String slug, String uuid, ReleaseFormat format, Integer start, Integer limit, Visitor<? super Release> visitor)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("uuid", uuid);
+        params.put("format", format);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.visitApiList("label/releases/", Release.class, params, visitor);
+    }
+
+    /**
+     * Same data as the getLabelReleases method, but each Release is given to the visitor as raw JSON, as it is
+     * read : nothing is bound to the models, all the fields of the API are kept.
+     *
+     * @param slug The Label slug
+     * @param uuid The Label UUID
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param format The format of the Release (album|single|live|all)
+     * @param visitor The visitor reading each Release
+     * @return The number of visited elements
+     */
+    public int forEachLabelRelease(String slug, String uuid, ReleaseFormat format, Integer start, Integer limit, JsonVisitor visitor)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("uuid", uuid);
+        params.put("format", format);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.visitApiJson("label/releases/", params, visitor);
+    }
+
+    /**
+     * Return a list of Releases by the given Label. Slug or UUID are mandatory.
+     *
+     * @param slug The Label slug
+     * @param uuid The Label UUID
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param format The format of the Release (album|single|live|all)
+     * @param projection The fields or view type to bind, other fields are skipped while parsing
+     * @return A list of projected Release
+     */
+    public <V> List<V> getLabelReleases(String slug, String uuid, ReleaseFormat format, Integer start, Integer limit, Projection<V> projection)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("uuid", uuid);
+        params.put("format", format);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.getApiList("label/releases/", projection, params);
+    }
+
     /**
      * Return a Generator with the same data as getLabelReleases method. Helps to paginate.
      * Slug or UUID are mandatory.
@@ -817,7 +1231,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Release> releases = BlitzrClient.this.getLabelReleases(slug, uuid, format, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, releases.size(), fetchStart);
                     for (Release release: releases) {
                         yield(release);
                     }
@@ -875,7 +1291,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Label> labels = BlitzrClient.this.getLabelSimilar(slug, uuid, filters, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, labels.size(), fetchStart);
                     for (Label label: labels) {
                         yield(label);
                     }
@@ -999,7 +1417,24 @@ public class BlitzrClient {
         HashMap<String, Object> params = new HashMap<>();
         params.put("slug", slug);
         params.put("uuid", uuid);
-        return ApiCaller.getApi("release/", Release.class, params);
+        return ApiCaller.getApi("release/", Release.class, params, lazyNestedLists);
+    }
+
+    /**
+     * Fetch many Releases by UUID, with at most getBulkConcurrency() calls at a time. Duplicates are fetched once and
+     * entities found in the entity cache are not fetched again.
+     *
+     * @param uuids The Releases UUIDs
+     * @return The Releases by UUID, and the error of each UUID which could not be fetched
+     */
+    public BulkResult<Release> getReleases(Collection<String> uuids) {
+        return new BulkFetcher(bulkConcurrency, entityCache).fetch(uuids, "release:", Release.class,
+                new BulkFetcher.Fetch<Release>() {
+                    @Override
+                    public Release fetch(String uuid) {
+                        return BlitzrClient.this.getRelease(null, uuid);
+                    }
+                });
     }
 
     /**
@@ -1063,7 +1498,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     SearchResults<SearchResult> entities = BlitzrClient.this.search(query, types, autocomplete, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, entities.getResults().size(), fetchStart);
                     for (SearchResult result: entities.getResults()) {
                         yield(result);
                     }
@@ -1097,6 +1534,28 @@ public class BlitzrClient {
         return ApiCaller.getApiList("search/artist/", Artist.class, params);
     }
 
+    /**
+     * Search Artist by query and filters.
+     *
+     * @param query Your query
+     * @param filters List of ArtistFilters. Only location, tag and type are available here.
+     * @param autocomplete Enable predictive search
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param projection The fields or view type to bind, other fields are skipped while parsing
+     * @return A list of projected Artist
+     */
+    public <V> List<V> searchArtist(String query, ArtistFilters filters, Boolean autocomplete, Integer start, Integer limit, Projection<V> projection)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("query", query);
+        filters.apply(params);
+        params.put("autocomplete", autocomplete ? "true" : null);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.getApiList("search/artist/", projection, params);
+    }
+
     /**
      * Search Artist by query and filters. Get the total number of results in the answer.
      *
@@ -1144,7 +1603,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Artist> artists = BlitzrClient.this.searchArtist(query, filters, autocomplete, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, artists.size(), fetchStart);
                     for (Artist artist: artists) {
                         yield(artist);
                     }
@@ -1178,6 +1639,28 @@ public class BlitzrClient {
         return ApiCaller.getApiList("search/label/", Label.class, params);
     }
 
+    /**
+     * Search Label by query and filters.
+     *
+     * @param query Your query
+     * @param filters List of LabelFilters. Only location and tag are available here.
+     * @param autocomplete Enable predictive search
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param projection The fields or view type to bind, other fields are skipped while parsing
+     * @return A list of projected Label
+     */
+    public <V> List<V> searchLabel(String query, LabelFilters filters, Boolean autocomplete, Integer start, Integer limit, Projection<V> projection)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("query", query);
+        filters.apply(params);
+        params.put("autocomplete", autocomplete ? "true" : null);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.getApiList("search/label/", projection, params);
+    }
+
     /**
      * Search Label by query and filters. Get the total number of results in the answer.
      *
@@ -1225,7 +1708,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Label> labels = BlitzrClient.this.searchLabel(query, filters, autocomplete, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, labels.size(), fetchStart);
                     for (Label label: labels) {
                         yield(label);
                     }
@@ -1260,6 +1745,28 @@ public class BlitzrClient {
         return ApiCaller.getApiList("search/release/", Release.class, params);
     }
 
+    /**
+     * Search Release by query and filters.
+     *
+     * @param query Your query
+     * @param filters List of ReleaseFilters. Only artist, tag, format_summary, label, year and location are available here.
+     * @param autocomplete Enable predictive search
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param projection The fields or view type to bind, other fields are skipped while parsing
+     * @return A list of projected Release
+     */
+    public <V> List<V> searchRelease(String query, ReleaseFilters filters, Boolean autocomplete, Integer start, Integer limit, Projection<V> projection)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("query", query);
+        filters.apply(params);
+        params.put("autocomplete", autocomplete ? "true" : null);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.getApiList("search/release/", projection, params);
+    }
+
     /**
      * Search Release by query and filters. Get the total number of results in the answer.
      *
@@ -1307,7 +1814,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Release> releases = BlitzrClient.this.searchRelease(query, filters, autocomplete, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, releases.size(), fetchStart);
                     for (Release release: releases) {
                         yield(release);
                     }
@@ -1339,6 +1848,26 @@ public class BlitzrClient {
         return ApiCaller.getApiList("search/track/", Track.class, params);
     }
 
+    /**
+     * Search Track by query and filters.
+     *
+     * @param query Your query
+     * @param filters List of TrackFilters. Only artist, release, format_summary, year and location are available here.
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param projection The fields or view type to bind, other fields are skipped while parsing
+     * @return A list of projected Track
+     */
+    public <V> List<V> searchTrack(String query, TrackFilters filters, Integer start, Integer limit, Projection<V> projection)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("query", query);
+        filters.apply(params);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.getApiList("search/track/", projection, params);
+    }
+
     /**
      * Search Track by query and filters. Get the total number of results in the answer.
      *
@@ -1382,7 +1911,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Track> tracks = BlitzrClient.this.searchTrack(query, filters, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, tracks.size(), fetchStart);
                     for (Track track: tracks) {
                         yield(track);
                     }
@@ -1469,6 +2000,23 @@ public class BlitzrClient {
         return ApiCaller.getApi("tag/", Tag.class, params);
     }
 
+    /**
+     * Fetch many Tags by slug, with at most getBulkConcurrency() calls at a time. Duplicates are fetched once and
+     * entities found in the entity cache are not fetched again.
+     *
+     * @param slugs The Tags slugs
+     * @return The Tags by slug, and the error of each slug which could not be fetched
+     */
+    public BulkResult<Tag> getTags(Collection<String> slugs) {
+        return new BulkFetcher(bulkConcurrency, entityCache).fetch(slugs, "tag:", Tag.class,
+                new BulkFetcher.Fetch<Tag>() {
+                    @Override
+                    public Tag fetch(String slug) {
+                        return BlitzrClient.this.getTag(slug);
+                    }
+                });
+    }
+
     /**
      * Get Artists from a Tag
      *
@@ -1486,6 +2034,43 @@ public class BlitzrClient {
         return ApiCaller.getApiList("tag/artists/", Artist.class, params);
     }
 
+    /**
+     * Same data as the getTagArtists method, but each Artist is given to the visitor as soon as it is read :
+     * the list is never built, memory stays flat whatever the limit.
+     *
+     * @param slug Tag slug
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param visitor The visitor receiving each Artist
+     * @return The number of visited elements
+     */
+    public int forEachTagArtist(String slug, Integer start, Integer limit, Visitor<? super Artist> visitor)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.visitApiList("tag/artists/", Artist.class, params, visitor);
+    }
+
+    /**
+     * Get Artists from a Tag
+     *
+     * @param slug Tag slug
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param projection The fields or view type to bind, other fields are skipped while parsing
+     * @return A list of projected Artist
+     */
+    public <V> List<V> getTagArtists(String slug, Integer start, Integer limit, Projection<V> projection)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.getApiList("tag/artists/", projection, params);
+    }
+
     /**
      * Return a Generator with the same data as getTagArtists method. Helps to paginate.
      * Slug or UUID are mandatory.
@@ -1508,7 +2093,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Artist> artists = BlitzrClient.this.getTagArtists(slug, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, artists.size(), fetchStart);
                     for (Artist artist: artists) {
                         yield(artist);
                     }
@@ -1538,6 +2125,43 @@ public class BlitzrClient {
         return ApiCaller.getApiList("tag/releases/", Release.class, params);
     }
 
+    /**
+     * Same data as the getTagReleases method, but each Release is given to the visitor as soon as it is read :
+     * the list is never built, memory stays flat whatever the limit.
+     *
+     * @param slug Tag slug
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param visitor The visitor receiving each Release
+     * @return The number of visited elements
+     */
+    public int forEachTagRelease(String slug, Integer start, Integer limit, Visitor<? super Release> visitor)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.visitApiList("tag/releases/", Release.class, params, visitor);
+    }
+
+    /**
+     * Get Releases from a Tag
+     *
+     * @param slug Tag slug
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param projection The fields or view type to bind, other fields are skipped while parsing
+     * @return A list of projected Release
+     */
+    public <V> List<V> getTagReleases(String slug, Integer start, Integer limit, Projection<V> projection)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("slug", slug);
+        params.put("start", start);
+        params.put("limit", limit);
+        return ApiCaller.getApiList("tag/releases/", projection, params);
+    }
+
     /**
      * Return a Generator with the same data as getTagReleases method. Helps to paginate.
      * Slug or UUID are mandatory.
@@ -1560,7 +2184,9 @@ public class BlitzrClient {
                 if (tempLimit == null)
                     tempLimit = 10;
                 while(true) {
+                    long fetchStart = System.nanoTime();
                     List<Release> releases = BlitzrClient.this.getTagReleases(slug, tempStart, tempLimit);
+                    pageFetched(tempStart, tempLimit, releases.size(), fetchStart);
                     for (Release release: releases) {
                         yield(release);
                     }
@@ -1586,6 +2212,23 @@ public class BlitzrClient {
         return ApiCaller.getApi("track/", Track.class, params);
     }
 
+    /**
+     * Fetch many Tracks by UUID, with at most getBulkConcurrency() calls at a time. Duplicates are fetched once and
+     * entities found in the entity cache are not fetched again.
+     *
+     * @param uuids The Tracks UUIDs
+     * @return The Tracks by UUID, and the error of each UUID which could not be fetched
+     */
+    public BulkResult<Track> getTracks(Collection<String> uuids) {
+        return new BulkFetcher(bulkConcurrency, entityCache).fetch(uuids, "track:", Track.class,
+                new BulkFetcher.Fetch<Track>() {
+                    @Override
+                    public Track fetch(String uuid) {
+                        return BlitzrClient.this.getTrack(uuid);
+                    }
+                });
+    }
+
     /**
      * Get Track Sources.
      *
@@ -1598,4 +2241,18 @@ public class BlitzrClient {
         params.put("uuid", uuid);
         return ApiCaller.getApiList("track/sources/", Source.class, params);
     }
+
+    /**
+     * Get Track Sources.
+     *
+     * @param uuid Track UUID
+     * @param projection The fields or view type to bind (eg: CompactSource.VIEW), other fields are skipped while parsing
+     * @return List of projected Source.
+     */
+    public <V> List<V> getTrackSources(String uuid, Projection<V> projection)
+    {
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("uuid", uuid);
+        return ApiCaller.getApiList("track/sources/", projection, params);
+    }
 }
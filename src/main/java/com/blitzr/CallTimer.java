@@ -0,0 +1,241 @@
+package com.blitzr;
+
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.metrics.ApiMetrics;
+import com.blitzr.metrics.ClientEvents;
+import com.blitzr.metrics.RequestMetrics;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Measure the phases of one API call, record them in the ApiMetrics and fire them to the ClientEvents. When the
+ * payload accounting is on, also count the characters and objects of the body and the bytes allocated to bind it.
+ */
+class CallTimer {
+    /**
+     * Count the bytes read and the time spent waiting for them, and the characters if counting.
+     */
+    private static class MeteredInputStream extends FilterInputStream {
+        private final boolean countChars;
+        private long bytes;
+        private long chars;
+        private long readNanos;
+
+        MeteredInputStream(InputStream in, boolean countChars) {
+            super(in);
+            this.countChars = countChars;
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            int b = super.read();
+            readNanos += System.nanoTime() - start;
+            if (b >= 0) {
+                bytes++;
+                if (countChars && (b & 0xC0) != 0x80) {
+                    chars++;
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            int count = super.read(buffer, offset, length);
+            readNanos += System.nanoTime() - start;
+            if (count > 0) {
+                bytes += count;
+                if (countChars) {
+                    // Every UTF-8 byte but the continuation bytes (10xxxxxx) starts a character
+                    for (int i = offset; i < offset + count; i++) {
+                        if ((buffer[i] & 0xC0) != 0x80) {
+                            chars++;
+                        }
+                    }
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Count the JSON objects bound. The skipped values (eg: unknown properties) are not counted, nor their content.
+     */
+    private static class CountingParser extends JsonParserDelegate {
+        private long objects;
+
+        CountingParser(JsonParser parser) {
+            super(parser);
+        }
+
+        @Override
+        public JsonToken nextToken() throws IOException {
+            return count(super.nextToken());
+        }
+
+        @Override
+        public JsonToken nextValue() throws IOException {
+            return count(super.nextValue());
+        }
+
+        @Override
+        public JsonParser skipChildren() throws IOException {
+            // The opening token of the skipped object was counted when read
+            if (getCurrentToken() == JsonToken.START_OBJECT) {
+                objects--;
+            }
+            return super.skipChildren();
+        }
+
+        private JsonToken count(JsonToken token) {
+            if (token == JsonToken.START_OBJECT) {
+                objects++;
+            }
+            return token;
+        }
+    }
+
+    private final String endpoint;
+    private final Object type;
+    private final boolean accounting = ApiMetrics.isPayloadAccounting();
+    private final long start = System.nanoTime();
+    private long connected;
+    private long firstByte;
+    private long pausedAt;
+    private long pausedNanos;
+    private long allocatedAtPause = -1;
+    private long pausedAllocated;
+    private MeteredInputStream body;
+    private CountingParser parser;
+    private long allocatedAtBody = -1;
+
+    /**
+     * @param endpoint The endpoint path (eg: "artist/")
+     * @param type The bound type, a JavaType or a Class
+     */
+    CallTimer(String endpoint, Object type) {
+        this.endpoint = endpoint;
+        this.type = type;
+    }
+
+    void connected() {
+        connected = System.nanoTime();
+    }
+
+    void firstByte() {
+        firstByte = System.nanoTime();
+    }
+
+    /**
+     * @return true if the payload is accounted : the body must then be bound through {@link #meter(JsonParser)}
+     */
+    boolean isAccounting() {
+        return accounting;
+    }
+
+    /**
+     * @param in The response body
+     * @return The body, measured
+     */
+    InputStream meter(InputStream in) {
+        body = new MeteredInputStream(in, accounting);
+        if (accounting) {
+            allocatedAtBody = AllocationMeter.allocatedBytes();
+        }
+        return body;
+    }
+
+    /**
+     * @param jsonParser The parser of the response body
+     * @return The parser, counting the objects if the payload is accounted
+     */
+    JsonParser meter(JsonParser jsonParser) {
+        if (!accounting) {
+            return jsonParser;
+        }
+        parser = new CountingParser(jsonParser);
+        return parser;
+    }
+
+    /**
+     * Stop counting the time and the allocations of the deserialization, while the caller handles a bound element.
+     */
+    void pause() {
+        pausedAt = System.nanoTime();
+        if (accounting && allocatedAtBody >= 0) {
+            allocatedAtPause = AllocationMeter.allocatedBytes();
+        }
+    }
+
+    /**
+     * Count the time and the allocations of the deserialization again.
+     */
+    void resume() {
+        pausedNanos += System.nanoTime() - pausedAt;
+        if (allocatedAtPause >= 0) {
+            long allocatedNow = AllocationMeter.allocatedBytes();
+            if (allocatedNow >= 0) {
+                pausedAllocated += allocatedNow - allocatedAtPause;
+            }
+            allocatedAtPause = -1;
+        }
+    }
+
+    /**
+     * Record the call. The paused time is left out of the deserialization time, so out of the total too, and the
+     * paused allocations out of the allocated bytes.
+     *
+     * @param status The HTTP status of the response, ignored if the call failed
+     * @param error The error of the call, null if it succeeded
+     */
+    void done(int status, BlitzrException error) {
+        if (!ApiMetrics.isEnabled() && !ClientEvents.isListened()) {
+            return;
+        }
+        long end = System.nanoTime();
+        long connectNanos = (connected > 0) ? connected - start : end - start;
+        long firstByteNanos = (firstByte > 0) ? firstByte - connected : ((connected > 0) ? end - connected : 0);
+        long bodyNanos = 0;
+        long deserializeNanos = 0;
+        long bytes = 0;
+        if (body != null) {
+            bodyNanos = body.readNanos;
+            deserializeNanos = Math.max(0, end - firstByte - bodyNanos - pausedNanos);
+            bytes = body.bytes;
+        } else if (firstByte > 0) {
+            deserializeNanos = Math.max(0, end - firstByte - pausedNanos);
+        }
+        long chars = -1;
+        long objects = -1;
+        long allocated = -1;
+        if (accounting && body != null && error == null) {
+            chars = body.chars;
+            objects = (parser != null) ? parser.objects : -1;
+            long allocatedNow = AllocationMeter.allocatedBytes();
+            allocated = (allocatedAtBody >= 0 && allocatedNow >= 0)
+                    ? allocatedNow - allocatedAtBody - pausedAllocated : -1;
+        }
+        RequestMetrics request = new RequestMetrics(endpoint, (error != null) ? error.getmStatusCode() : status,
+                connectNanos, firstByteNanos, bodyNanos, deserializeNanos, bytes, chars, objects, allocated, error);
+        ApiMetrics.record(request);
+        if (error == null && ClientEvents.isListened()) {
+            ClientEvents.deserialize(endpoint, typeName(), deserializeNanos);
+        }
+        ClientEvents.request(request);
+    }
+
+    private String typeName() {
+        if (type instanceof JavaType) {
+            return ((JavaType) type).toCanonical();
+        }
+        return (type instanceof Class) ? ((Class<?>) type).getName() : String.valueOf(type);
+    }
+}
@@ -1,5 +1,8 @@
 package com.blitzr;
 
+import com.blitzr.metrics.ClientEvents;
+import com.blitzr.trace.CallContext;
+
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -97,13 +100,28 @@ public abstract class Generator<T> implements Iterable<T> {
         itemRequested.await();
     }
 
+    /**
+     * Fire a page fetched by the producer to the ClientEvents.
+     *
+     * @param start The offset of the page
+     * @param limit The size of the page asked
+     * @param items The number of items received
+     * @param fetchStart The System.nanoTime() before the fetch
+     */
+    protected void pageFetched(int start, int limit, int items, long fetchStart) {
+        ClientEvents.generatorPage(start, limit, items, System.nanoTime() - fetchStart);
+    }
+
     private void startProducer() {
         assert producer == null;
         if (THREAD_GROUP == null)
             THREAD_GROUP = new ThreadGroup("generatorfunctions");
+        // The producer makes its calls with the context of the thread iterating
+        final CallContext context = CallContext.current();
         producer = new Thread(THREAD_GROUP, new Runnable() {
             @Override
             public void run() {
+                CallContext.attach(context);
                 try {
                     itemRequested.await();
                     Generator.this.run();
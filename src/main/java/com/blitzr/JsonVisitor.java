@@ -0,0 +1,36 @@
+package com.blitzr;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * <p>A JsonVisitor receives the elements of a list endpoint as raw JSON, straight from the response parser. Nothing
+ * is bound to the models : the fields unknown to the models are kept, and the values are not rewritten.</p>
+ * <p>It is used by the raw forEach methods of the BlitzrClient, to copy or filter the API data without decoding
+ * it.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     final JsonGenerator out = new JsonFactory().createGenerator(file, JsonEncoding.UTF8);
+ *     out.setRootValueSeparator(null);
+ *     blitzr.forEachLabelRelease("warp", null, null, 0, 1000, new JsonVisitor() {
+ *         &#64;Override
+ *         public void visit(JsonParser element) throws IOException {
+ *             out.copyCurrentStructure(element);
+ *             out.writeRaw('\n');
+ *         }
+ *     });
+ * </code></pre>
+ */
+public interface JsonVisitor {
+    /**
+     * Called for each element, in the order of the response. Null elements of the response are skipped.
+     *
+     * @param element The parser of the response, on the START_OBJECT of the element. Read the whole element or
+     *                nothing of it : an element left unread is skipped after the call.
+     * @throws IOException If the element cannot be read or handled. The call then fails.
+     */
+    void visit(JsonParser element) throws IOException;
+}
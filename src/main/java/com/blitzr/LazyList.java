@@ -0,0 +1,136 @@
+package com.blitzr;
+
+import com.blitzr.exceptions.BlitzrException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.label.Label;
+import com.blitzr.models.release.Release;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * <p>A List bound from its JSON tokens the first time it is read.</p>
+ * <p>When the lazy nested lists mode of the BlitzrClient is enabled, the nested lists Artist.last_releases,
+ * Artist.next_events, Label.last_releases and Release.tracklist are kept as raw tokens while the entity is read,
+ * and only bound to models when the list is accessed.</p>
+ *
+ * @param <T> The type of the list elements
+ */
+public class LazyList<T> extends AbstractList<T> {
+    private static final HashMap<Class<?>, List<String>> LAZY_PROPERTIES = new HashMap<>();
+    static {
+        LAZY_PROPERTIES.put(Artist.class, Arrays.asList("last_releases", "next_events"));
+        LAZY_PROPERTIES.put(Label.class, Arrays.asList("last_releases"));
+        LAZY_PROPERTIES.put(Release.class, Arrays.asList("tracklist"));
+    }
+
+    private final ObjectMapper mapper;
+    private final JavaType type;
+    private TokenBuffer tokens;
+    private List<T> list;
+
+    LazyList(ObjectMapper mapper, JavaType type, TokenBuffer tokens) {
+        this.mapper = mapper;
+        this.type = type;
+        this.tokens = tokens;
+    }
+
+    /**
+     * @return true if the list has already been bound
+     */
+    public synchronized boolean isMaterialized() {
+        return list != null;
+    }
+
+    private synchronized List<T> materialize() {
+        if (list == null) {
+            try {
+                list = mapper.readValue(tokens.asParser(mapper), type);
+            } catch (IOException e) {
+                e.printStackTrace();
+                throw new BlitzrException(601, "The Blitzr Client had a internal error.");
+            }
+            tokens = null;
+        }
+        return list;
+    }
+
+    @Override
+    public T get(int index) {
+        return materialize().get(index);
+    }
+
+    @Override
+    public int size() {
+        return materialize().size();
+    }
+
+    /**
+     * @return A new ObjectMapper keeping the lazy properties as raw tokens
+     */
+    static ObjectMapper newMapper() {
+        ObjectMapper mapper = ApiCaller.newMapper();
+        SimpleModule module = new SimpleModule("lazy-lists");
+        module.setDeserializerModifier(new LazyModifier(mapper));
+        mapper.registerModule(module);
+        return mapper;
+    }
+
+    private static class LazyModifier extends BeanDeserializerModifier {
+        private final ObjectMapper mapper;
+
+        LazyModifier(ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        @Override
+        public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc,
+                                                     BeanDeserializerBuilder builder) {
+            List<String> names = LAZY_PROPERTIES.get(beanDesc.getBeanClass());
+            if (names == null) {
+                return builder;
+            }
+            for (String name : names) {
+                SettableBeanProperty property = builder.findProperty(new PropertyName(name));
+                if (property != null) {
+                    builder.addOrReplaceProperty(
+                            property.withValueDeserializer(new LazyListDeserializer(mapper, property.getType())), true);
+                }
+            }
+            return builder;
+        }
+    }
+
+    private static class LazyListDeserializer extends JsonDeserializer<List<Object>> {
+        private final ObjectMapper mapper;
+        private final JavaType type;
+
+        LazyListDeserializer(ObjectMapper mapper, JavaType type) {
+            this.mapper = mapper;
+            this.type = type;
+        }
+
+        @Override
+        public List<Object> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            TokenBuffer tokens = new TokenBuffer(p);
+            tokens.copyCurrentStructure(p);
+            return new LazyList<>(mapper, type, tokens);
+        }
+    }
+}
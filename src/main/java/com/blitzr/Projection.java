@@ -0,0 +1,118 @@
+package com.blitzr;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>A Projection restricts the fields bound when an API response is read.</p>
+ * <p>The JSON values of the fields that are not part of the projection are skipped by the parser, no object is
+ * created for them. Use it when you only need a few fields of list-heavy endpoints.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     Projection&lt;Artist&gt; light = Projection.of(Artist.class, "uuid", "name", "thumb");
+ *     List&lt;Artist&gt; artists = blitzr.searchArtist("the beatles", new ArtistFilters(), false, 0, 50, light);
+ * </code></pre>
+ *
+ * <p>A lightweight view type can be used instead : any class with the fields you need, unknown fields being
+ * skipped the same way.</p>
+ *
+ * <pre><code>
+ *     List&lt;ArtistName&gt; names = blitzr.getLabelArtists("warp", null, 0, 100, null, Projection.view(ArtistName.class));
+ * </code></pre>
+ *
+ * <p>Projections are immutable and thread safe. Keep them in constants : each one has its own deserializers cache.</p>
+ *
+ * @param <T> The bound type
+ */
+public final class Projection<T> {
+    private final Class<T> type;
+    private final Set<String> fields;
+    private volatile ObjectMapper mapper;
+
+    private Projection(Class<T> type, Set<String> fields) {
+        this.type = type;
+        this.fields = fields;
+    }
+
+    /**
+     * @param type The model class
+     * @param fields The JSON names of the fields to bind (eg: "uuid", "thumb_300")
+     * @return A Projection binding only the given fields of the model
+     */
+    public static <T> Projection<T> of(Class<T> type, String... fields) {
+        return new Projection<>(type, Collections.unmodifiableSet(new HashSet<>(Arrays.asList(fields))));
+    }
+
+    /**
+     * @param type A class declaring only the needed fields
+     * @return A Projection binding the whole view type
+     */
+    public static <T> Projection<T> view(Class<T> type) {
+        return new Projection<>(type, null);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @return The projected fields, null for a view
+     */
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    ObjectMapper getMapper() {
+        if (mapper == null) {
+            ObjectMapper newMapper = ApiCaller.newMapper();
+            if (fields != null) {
+                SimpleModule module = new SimpleModule("projection");
+                module.setDeserializerModifier(new ProjectionModifier());
+                newMapper.registerModule(module);
+            }
+            mapper = newMapper;
+        }
+        return mapper;
+    }
+
+    /**
+     * Turns every property of the projected type which is not part of the projection into an ignorable one.
+     */
+    private class ProjectionModifier extends BeanDeserializerModifier {
+        @Override
+        public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc,
+                                                     BeanDeserializerBuilder builder) {
+            if (beanDesc.getBeanClass() != type) {
+                return builder;
+            }
+            List<PropertyName> skipped = new ArrayList<>();
+            for (Iterator<SettableBeanProperty> it = builder.getProperties(); it.hasNext();) {
+                SettableBeanProperty property = it.next();
+                if (!fields.contains(property.getName())) {
+                    skipped.add(property.getFullName());
+                }
+            }
+            for (PropertyName name : skipped) {
+                builder.removeProperty(name);
+                builder.addIgnorable(name.getSimpleName());
+            }
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.blitzr;
+
+/**
+ * <p>A Visitor receives the elements of a list endpoint one by one, as they are read from the response.</p>
+ * <p>It is used by the forEach methods of the BlitzrClient, which never build the whole list in memory.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     BlitzrClient blitzr = new BlitzrClient(yourApiKey);
+ *     blitzr.forEachLabelRelease("warp", null, null, 0, 1000, new Visitor&lt;Release&gt;() {
+ *         &#64;Override
+ *         public void visit(Release release) {
+ *             System.out.println(release.getName());
+ *         }
+ *     });
+ * </code></pre>
+ *
+ * @param <T> The type of the visited elements
+ */
+public interface Visitor<T> {
+    /**
+     * Called for each element, in the order of the response.
+     *
+     * @param element The element just read, a new instance for each call. Null elements of the response are
+     *                skipped.
+     */
+    void visit(T element);
+}
@@ -0,0 +1,23 @@
+package com.blitzr.autocomplete;
+
+import com.blitzr.exceptions.BlitzrException;
+
+import java.util.List;
+
+/**
+ * Receives the suggestions of an AutocompleteSession. Only the suggestions of the latest input are delivered, on
+ * the threads of the Autocompleter.
+ */
+public interface AutocompleteListener<T> {
+    /**
+     * @param input The input, as given to the session
+     * @param results The suggestions
+     */
+    void onResults(String input, List<T> results);
+
+    /**
+     * @param input The input, as given to the session
+     * @param e The error of the search
+     */
+    void onError(String input, BlitzrException e);
+}
@@ -0,0 +1,123 @@
+package com.blitzr.autocomplete;
+
+import com.blitzr.exceptions.BlitzrException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>The autocompletion of one user. Each input supersedes the previous one : its pending search is cancelled and
+ * its suggestions are never delivered.</p>
+ * <p>Inputs answered by the cache are delivered at once, the others are searched once the input has not changed for
+ * the debounce delay of the Autocompleter.</p>
+ */
+public class AutocompleteSession<T> {
+    private final Autocompleter<T> owner;
+    private final AutocompleteListener<T> listener;
+    private long generation;
+    private ScheduledFuture<?> pending;
+    private String requestedPrefix;
+    private Autocompleter.Callback<T> requested;
+    private boolean closed;
+
+    AutocompleteSession(Autocompleter<T> owner, AutocompleteListener<T> listener) {
+        this.owner = owner;
+        this.listener = listener;
+    }
+
+    /**
+     * @param input The current input of the user
+     */
+    public synchronized void input(final String input) {
+        if (closed) {
+            throw new IllegalStateException("The session is closed");
+        }
+        cancelLocked();
+        final long current = ++generation;
+        final String prefix = Autocompleter.normalize(input);
+        final List<T> cached = (prefix.length() < owner.getMinLength())
+                ? Collections.<T>emptyList() : owner.cached(prefix);
+        try {
+            if (cached != null) {
+                pending = owner.getScheduler().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliver(current, input, cached, null);
+                    }
+                }, 0, TimeUnit.MILLISECONDS);
+            } else {
+                pending = owner.getScheduler().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        search(current, input, prefix);
+                    }
+                }, owner.getDebounceMillis(), TimeUnit.MILLISECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("The autocompleter is shut down");
+        }
+    }
+
+    /**
+     * Cancel the pending search, no more suggestions are delivered.
+     */
+    public synchronized void close() {
+        cancelLocked();
+        generation++;
+        closed = true;
+    }
+
+    private synchronized void search(final long current, final String input, String prefix) {
+        if (current != generation) {
+            return;
+        }
+        pending = null;
+        // The cache may have been filled by another user during the debounce delay
+        final List<T> cached = owner.cached(prefix);
+        if (cached != null) {
+            owner.getScheduler().execute(new Runnable() {
+                @Override
+                public void run() {
+                    deliver(current, input, cached, null);
+                }
+            });
+            return;
+        }
+        requestedPrefix = prefix;
+        requested = new Autocompleter.Callback<T>() {
+            @Override
+            public void done(List<T> results, BlitzrException error) {
+                deliver(current, input, results, error);
+            }
+        };
+        owner.request(prefix, requested);
+    }
+
+    private void deliver(long current, String input, List<T> results, BlitzrException error) {
+        synchronized (this) {
+            if (current != generation) {
+                return;
+            }
+            requested = null;
+        }
+        if (error != null) {
+            listener.onError(input, error);
+        } else {
+            listener.onResults(input, results);
+        }
+    }
+
+    private void cancelLocked() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        if (requested != null) {
+            owner.cancel(requestedPrefix, requested);
+            requested = null;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.blitzr.autocomplete;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.concurrent.BlitzrExecutors;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.artist.ArtistFilters;
+import com.blitzr.models.label.Label;
+import com.blitzr.models.release.Release;
+import com.blitzr.models.track.Track;
+import com.blitzr.models.utils.EntityType;
+import com.blitzr.models.utils.SearchResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>An autocomplete engine shared by all the users, so the search API is only called for the prefixes nobody
+ * typed recently.</p>
+ * <p>The results are cached by normalized prefix (lower case, single spaces) in a trie. When a prefix was answered
+ * with less than <b>limit</b> results, its results are complete, and any longer prefix is answered by filtering
+ * them locally : a result matches when its name contains the prefix at the beginning of a word. Identical prefixes
+ * requested at the same time share a single call.</p>
+ * <p>Each user types in an AutocompleteSession, which debounces the input and cancels the request of a superseded
+ * input when no other user waits for it.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     Autocompleter&lt;Artist&gt; artists = Autocompleter.artists(blitzr, new ArtistFilters(), 10);
+ *     AutocompleteSession&lt;Artist&gt; session = artists.newSession(listener);
+ *     // on each keystroke
+ *     session.input(textField.getText());
+ * </code></pre>
+ */
+public class Autocompleter<T> {
+    /**
+     * The search behind an Autocompleter.
+     */
+    public interface Source<T> {
+        /**
+         * @param prefix The normalized prefix
+         * @param limit Maximum number of results
+         * @return The suggestions
+         */
+        List<T> search(String prefix, int limit);
+
+        /**
+         * @param result A suggestion
+         * @return The text matched against the prefixes, usually the name
+         */
+        String text(T result);
+    }
+
+    interface Callback<T> {
+        void done(List<T> results, BlitzrException error);
+    }
+
+    private class InFlight implements Runnable {
+        private final String prefix;
+        private final List<Callback<T>> waiters = new ArrayList<>();
+        private Future<?> future;
+
+        InFlight(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public void run() {
+            List<T> results = null;
+            BlitzrException error = null;
+            try {
+                requests.incrementAndGet();
+                results = source.search(prefix, limit);
+                cache.put(prefix, results, results.size() < limit);
+            } catch (BlitzrException e) {
+                error = e;
+            } catch (RuntimeException e) {
+                error = new BlitzrException(601, String.valueOf(e));
+            }
+            List<Callback<T>> callbacks;
+            synchronized (inFlight) {
+                if (inFlight.get(prefix) == this) {
+                    inFlight.remove(prefix);
+                }
+                callbacks = new ArrayList<>(waiters);
+                waiters.clear();
+            }
+            for (Callback<T> callback : callbacks) {
+                callback.done(results, error);
+            }
+        }
+    }
+
+    private final Source<T> source;
+    private final int limit;
+    private final PrefixCache<T> cache;
+    private final ExecutorService fetchers;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, InFlight> inFlight = new HashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong filteredHits = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private volatile long debounceMillis = 150;
+    private volatile int minLength = 1;
+
+    /**
+     * @param source The search
+     * @param limit Number of suggestions by prefix
+     * @param ttl Time to live of the cached prefixes
+     * @param unit Unit of the TTL
+     * @param maxPrefixes Maximum number of cached prefixes
+     * @param concurrency Maximum number of searches at the same time
+     */
+    public Autocompleter(Source<T> source, int limit, long ttl, TimeUnit unit, int maxPrefixes, int concurrency) {
+        this.source = source;
+        this.limit = limit;
+        this.cache = new PrefixCache<>(ttl, unit, maxPrefixes);
+        this.fetchers = BlitzrExecutors.newFixedThreadPool("blitzr-autocomplete", concurrency);
+        this.scheduler = BlitzrExecutors.newSingleThreadScheduledExecutor("blitzr-autocomplete-debounce");
+    }
+
+    /**
+     * Autocomplete artists with searchArtist, caching the prefixes 10 minutes.
+     *
+     * @param client The client
+     * @param filters The ArtistFilters of all the searches
+     * @param limit Number of suggestions by prefix
+     * @return An Autocompleter of Artist
+     */
+    public static Autocompleter<Artist> artists(final BlitzrClient client, final ArtistFilters filters, int limit) {
+        return new Autocompleter<>(new Source<Artist>() {
+            @Override
+            public List<Artist> search(String prefix, int limit) {
+                return client.searchArtist(prefix, filters, true, 0, limit);
+            }
+
+            @Override
+            public String text(Artist result) {
+                return result.getName();
+            }
+        }, limit, 10, TimeUnit.MINUTES, 10000, 4);
+    }
+
+    /**
+     * Autocomplete several types of entities with search, caching the prefixes 10 minutes.
+     *
+     * @param client The client
+     * @param types List of EntityType. artist, release, label and track are available here.
+     * @param limit Number of suggestions by prefix
+     * @return An Autocompleter of SearchResult
+     */
+    public static Autocompleter<SearchResult> entities(final BlitzrClient client, final List<EntityType> types, int limit) {
+        return new Autocompleter<>(new Source<SearchResult>() {
+            @Override
+            public List<SearchResult> search(String prefix, int limit) {
+                return client.search(prefix, types, true, 0, limit).getResults();
+            }
+
+            @Override
+            public String text(SearchResult result) {
+                if (result instanceof Artist) {
+                    return ((Artist) result).getName();
+                } else if (result instanceof Label) {
+                    return ((Label) result).getName();
+                } else if (result instanceof Release) {
+                    return ((Release) result).getName();
+                } else if (result instanceof Track) {
+                    return ((Track) result).getTitle();
+                }
+                return null;
+            }
+        }, limit, 10, TimeUnit.MINUTES, 10000, 4);
+    }
+
+    /**
+     * @param debounceMillis Delay without input before a session searches, 150 ms by default
+     */
+    public void setDebounceMillis(long debounceMillis) {
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * @param minLength Minimum length of a normalized prefix to search, shorter inputs have no suggestions. 1 by
+     *                  default.
+     */
+    public void setMinLength(int minLength) {
+        this.minLength = minLength;
+    }
+
+    /**
+     * @param listener The listener receiving the suggestions of the session
+     * @return A new session, for one user
+     */
+    public AutocompleteSession<T> newSession(AutocompleteListener<T> listener) {
+        return new AutocompleteSession<>(this, listener);
+    }
+
+    /**
+     * Return the suggestions of an input, waiting for the search if needed.
+     *
+     * @param input The input
+     * @return The suggestions
+     */
+    public List<T> complete(String input) throws InterruptedException {
+        String prefix = normalize(input);
+        if (prefix.length() < minLength) {
+            return Collections.emptyList();
+        }
+        List<T> cached = cached(prefix);
+        if (cached != null) {
+            return cached;
+        }
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Object[] outcome = new Object[2];
+        Callback<T> callback = new Callback<T>() {
+            @Override
+            public void done(List<T> results, BlitzrException error) {
+                outcome[0] = results;
+                outcome[1] = error;
+                latch.countDown();
+            }
+        };
+        request(prefix, callback);
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            cancel(prefix, callback);
+            throw e;
+        }
+        if (outcome[1] != null) {
+            throw (BlitzrException) outcome[1];
+        }
+        @SuppressWarnings("unchecked")
+        List<T> results = (List<T>) outcome[0];
+        return results;
+    }
+
+    /**
+     * Stop the threads of the autocompleter, its sessions cannot be used anymore.
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        fetchers.shutdownNow();
+    }
+
+    public void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * @return Number of calls to the search API
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return Number of prefixes answered by their own cached results
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * @return Number of prefixes answered by filtering the cached results of a shorter prefix
+     */
+    public long getFilteredHits() {
+        return filteredHits.get();
+    }
+
+    /**
+     * @return Number of searches cancelled because their inputs were superseded
+     */
+    public long getCancelled() {
+        return cancelled.get();
+    }
+
+    public int getCachedPrefixes() {
+        return cache.size();
+    }
+
+    ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    long getDebounceMillis() {
+        return debounceMillis;
+    }
+
+    int getMinLength() {
+        return minLength;
+    }
+
+    /**
+     * @return The suggestions of the prefix found in the cache, null on a miss
+     */
+    List<T> cached(String prefix) {
+        PrefixCache.Entry<T> entry = cache.get(prefix);
+        if (entry != null) {
+            cacheHits.incrementAndGet();
+            return entry.getResults();
+        }
+        entry = cache.getCompleteAncestor(prefix);
+        if (entry == null) {
+            return null;
+        }
+        List<T> filtered = new ArrayList<>();
+        for (T result : entry.getResults()) {
+            if (matches(source.text(result), prefix)) {
+                filtered.add(result);
+            }
+        }
+        filteredHits.incrementAndGet();
+        return filtered;
+    }
+
+    /**
+     * Wait for the search of a prefix, starting it if nobody else waits for it.
+     */
+    void request(String prefix, Callback<T> callback) {
+        synchronized (inFlight) {
+            InFlight flight = inFlight.get(prefix);
+            if (flight == null) {
+                flight = new InFlight(prefix);
+                inFlight.put(prefix, flight);
+                flight.future = fetchers.submit(flight);
+            }
+            flight.waiters.add(callback);
+        }
+    }
+
+    /**
+     * Stop waiting for the search of a prefix, cancelling it if nobody else waits for it.
+     */
+    void cancel(String prefix, Callback<T> callback) {
+        synchronized (inFlight) {
+            InFlight flight = inFlight.get(prefix);
+            if (flight == null || !flight.waiters.remove(callback)) {
+                return;
+            }
+            if (flight.waiters.isEmpty()) {
+                inFlight.remove(prefix);
+                // A running search is left to finish, its results still fill the cache
+                if (flight.future.cancel(false)) {
+                    cancelled.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    static String normalize(String input) {
+        return (input == null) ? "" : input.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean matches(String text, String prefix) {
+        if (text == null) {
+            return false;
+        }
+        String normalized = normalize(text);
+        int index = normalized.indexOf(prefix);
+        while (index >= 0) {
+            if (index == 0 || !Character.isLetterOrDigit(normalized.charAt(index - 1))) {
+                return true;
+            }
+            index = normalized.indexOf(prefix, index + 1);
+        }
+        return false;
+    }
+}
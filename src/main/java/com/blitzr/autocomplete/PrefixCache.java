@@ -0,0 +1,151 @@
+package com.blitzr.autocomplete;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A trie of the results of the autocompleted prefixes, with a TTL and a maximum number of prefixes (the least
+ * recently used ones are evicted first).
+ */
+final class PrefixCache<T> {
+    static final class Entry<T> {
+        private final String prefix;
+        private final List<T> results;
+        private final boolean complete;
+        private final long expiresAt;
+
+        Entry(String prefix, List<T> results, boolean complete, long expiresAt) {
+            this.prefix = prefix;
+            this.results = results;
+            this.complete = complete;
+            this.expiresAt = expiresAt;
+        }
+
+        String getPrefix() {
+            return prefix;
+        }
+
+        List<T> getResults() {
+            return results;
+        }
+
+        /**
+         * @return true if the results are all the matches of the prefix, not only the first page
+         */
+        boolean isComplete() {
+            return complete;
+        }
+    }
+
+    private static final class Node<T> {
+        private final Map<Character, Node<T>> children = new HashMap<>(4);
+        private Entry<T> entry;
+    }
+
+    private final Node<T> root = new Node<>();
+    private final LinkedHashMap<String, Boolean> recent = new LinkedHashMap<>(16, 0.75f, true);
+    private final long ttlMillis;
+    private final int maxPrefixes;
+
+    PrefixCache(long ttl, TimeUnit unit, int maxPrefixes) {
+        this.ttlMillis = unit.toMillis(ttl);
+        this.maxPrefixes = maxPrefixes;
+    }
+
+    synchronized void put(String prefix, List<T> results, boolean complete) {
+        Node<T> node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            Node<T> child = node.children.get(prefix.charAt(i));
+            if (child == null) {
+                child = new Node<>();
+                node.children.put(prefix.charAt(i), child);
+            }
+            node = child;
+        }
+        node.entry = new Entry<>(prefix, results, complete, System.currentTimeMillis() + ttlMillis);
+        recent.put(prefix, Boolean.TRUE);
+        Iterator<String> eldest = recent.keySet().iterator();
+        while (recent.size() > maxPrefixes) {
+            String evicted = eldest.next();
+            eldest.remove();
+            remove(evicted);
+        }
+    }
+
+    /**
+     * @return The entry of exactly this prefix, null if none or expired
+     */
+    synchronized Entry<T> get(String prefix) {
+        Node<T> node = find(prefix);
+        if (node == null || node.entry == null) {
+            return null;
+        }
+        if (node.entry.expiresAt < System.currentTimeMillis()) {
+            recent.remove(prefix);
+            remove(prefix);
+            return null;
+        }
+        recent.get(prefix);
+        return node.entry;
+    }
+
+    /**
+     * @return The complete entry of the longest shorter prefix, null if none
+     */
+    synchronized Entry<T> getCompleteAncestor(String prefix) {
+        long now = System.currentTimeMillis();
+        Entry<T> best = null;
+        Node<T> node = root;
+        for (int i = 0; i < prefix.length() - 1 && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+            if (node != null && node.entry != null && node.entry.complete && node.entry.expiresAt >= now) {
+                best = node.entry;
+            }
+        }
+        if (best != null) {
+            recent.get(best.prefix);
+        }
+        return best;
+    }
+
+    synchronized int size() {
+        return recent.size();
+    }
+
+    synchronized void clear() {
+        root.children.clear();
+        root.entry = null;
+        recent.clear();
+    }
+
+    private Node<T> find(String prefix) {
+        Node<T> node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Remove the entry of the prefix and prune the branches left empty.
+     */
+    private void remove(String prefix) {
+        removeFrom(root, prefix, 0);
+    }
+
+    private boolean removeFrom(Node<T> node, String prefix, int depth) {
+        if (depth == prefix.length()) {
+            node.entry = null;
+        } else {
+            Node<T> child = node.children.get(prefix.charAt(depth));
+            if (child != null && removeFrom(child, prefix, depth + 1)) {
+                node.children.remove(prefix.charAt(depth));
+            }
+        }
+        return node != root && node.entry == null && node.children.isEmpty();
+    }
+}
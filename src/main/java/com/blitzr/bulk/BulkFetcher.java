@@ -0,0 +1,131 @@
+package com.blitzr.bulk;
+
+import com.blitzr.cache.TtlCache;
+import com.blitzr.concurrent.BlitzrExecutors;
+import com.blitzr.exceptions.BlitzrException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * <p>Fetch many entities with one call per entity, at most <b>concurrency</b> calls at a time.</p>
+ * <p>The ids are deduplicated and looked up in the cache first, if any. The BlitzrClient bulk methods (getArtists,
+ * getLabels...) are built on it.</p>
+ */
+public class BulkFetcher {
+    /**
+     * Fetch a single entity.
+     *
+     * @param <T> The type of the entity
+     */
+    public interface Fetch<T> {
+        T fetch(String id);
+    }
+
+    private final int concurrency;
+    private final TtlCache<String, Object> cache;
+
+    /**
+     * @param concurrency Maximum number of simultaneous calls
+     * @param cache Cache shared by the bulk calls, may be null
+     */
+    public BulkFetcher(int concurrency, TtlCache<String, Object> cache) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+        this.cache = cache;
+    }
+
+    /**
+     * @param ids The ids to fetch, duplicates and nulls are ignored
+     * @param cacheKey Prefix of the cache keys, it must identify the entity type and the call options
+     * @param type The type of the entities
+     * @param fetch The call fetching a single entity
+     * @return The entities and the failures by id
+     */
+    public <T> BulkResult<T> fetch(Collection<String> ids, String cacheKey, Class<T> type, final Fetch<T> fetch) {
+        LinkedHashSet<String> unique = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null) {
+                unique.add(id);
+            }
+        }
+
+        BulkResult<T> result = new BulkResult<>();
+        HashMap<String, T> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : unique) {
+            Object cached = (cache != null) ? cache.get(cacheKey + id) : null;
+            if (type.isInstance(cached)) {
+                found.put(id, type.cast(cached));
+                result.addCacheHit();
+            } else {
+                missing.add(id);
+            }
+        }
+
+        HashMap<String, BlitzrException> failures = new HashMap<>();
+        if (!missing.isEmpty()) {
+            ExecutorService executor = BlitzrExecutors.newFixedThreadPool("blitzr-bulk",
+                    Math.min(concurrency, missing.size()));
+            try {
+                Map<String, Future<T>> futures = new LinkedHashMap<>();
+                for (final String id : missing) {
+                    futures.put(id, executor.submit(new Callable<T>() {
+                        @Override
+                        public T call() {
+                            return fetch.fetch(id);
+                        }
+                    }));
+                }
+                for (Map.Entry<String, Future<T>> future : futures.entrySet()) {
+                    String id = future.getKey();
+                    try {
+                        T entity = future.getValue().get();
+                        if (entity == null) {
+                            failures.put(id, new BlitzrException(404, "No entity found for " + id));
+                        } else {
+                            found.put(id, entity);
+                            if (cache != null) {
+                                cache.put(cacheKey + id, entity);
+                            }
+                        }
+                    } catch (ExecutionException e) {
+                        failures.put(id, BulkFetcher.toBlitzrException(e.getCause()));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BlitzrException(601, "The bulk fetch was interrupted.");
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        for (String id : unique) {
+            if (found.containsKey(id)) {
+                result.addEntity(id, found.get(id));
+            } else if (failures.containsKey(id)) {
+                result.addFailure(id, failures.get(id));
+            }
+        }
+        return result;
+    }
+
+    static BlitzrException toBlitzrException(Throwable e) {
+        if (e instanceof BlitzrException) {
+            return (BlitzrException) e;
+        }
+        return new BlitzrException(601, String.valueOf(e));
+    }
+}
@@ -0,0 +1,55 @@
+package com.blitzr.bulk;
+
+import com.blitzr.exceptions.BlitzrException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The result of a bulk fetch : the entities found, by uuid, and the failures, by uuid. A failed uuid never aborts
+ * the rest of the batch.
+ *
+ * @param <T> The type of the entities
+ */
+public class BulkResult<T> {
+    private final LinkedHashMap<String, T> entities = new LinkedHashMap<>();
+    private final LinkedHashMap<String, BlitzrException> failures = new LinkedHashMap<>();
+    private int cacheHits;
+
+    void addEntity(String uuid, T entity) {
+        entities.put(uuid, entity);
+    }
+
+    void addFailure(String uuid, BlitzrException failure) {
+        failures.put(uuid, failure);
+    }
+
+    void addCacheHit() {
+        cacheHits++;
+    }
+
+    /**
+     * @return The fetched entities by uuid, in the order of the request
+     */
+    public Map<String, T> getEntities() {
+        return entities;
+    }
+
+    /**
+     * @return The error of each uuid which could not be fetched
+     */
+    public Map<String, BlitzrException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return The number of entities served by the cache
+     */
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
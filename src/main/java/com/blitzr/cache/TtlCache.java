@@ -0,0 +1,152 @@
+package com.blitzr.cache;
+
+import com.blitzr.metrics.ClientEvents;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A thread safe, size bounded cache whose entries expire after a fixed time to live.</p>
+ * <p>When the cache is full, the least recently used entry is evicted.</p>
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+public class TtlCache<K, V> {
+    private static class CacheEntry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+    private long hits;
+    private long misses;
+    private volatile String name = "cache";
+
+    /**
+     * @param ttl Time to live of the entries
+     * @param unit Unit of the ttl
+     * @param maxSize Maximum number of entries
+     */
+    public TtlCache(long ttl, TimeUnit unit, final int maxSize) {
+        this.ttlNanos = unit.toNanos(ttl);
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param name The name of the cache in the ClientEvents, "cache" by default
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param key The key
+     * @return The cached value, null if absent or expired
+     */
+    public V get(K key) {
+        V value = lookup(key);
+        ClientEvents.cacheLookup(name, key, value != null);
+        return value;
+    }
+
+    private synchronized V lookup(K key) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.expiresAt - System.nanoTime() <= 0) {
+            entries.remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Check for an entry without looking it up : the hits and misses are not counted and no cache lookup is fired
+     * to the ClientEvents.
+     *
+     * @param key The key
+     * @return true if the key has a value not expired
+     */
+    public synchronized boolean containsKey(K key) {
+        CacheEntry<V> entry = entries.get(key);
+        return entry != null && entry.expiresAt - System.nanoTime() > 0;
+    }
+
+    /**
+     * @param key The key
+     * @param value The value, null values are not cached
+     */
+    public synchronized void put(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        entries.put(key, new CacheEntry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Remove all the expired entries.
+     */
+    public synchronized void purge() {
+        long now = System.nanoTime();
+        for (Iterator<CacheEntry<V>> it = entries.values().iterator(); it.hasNext();) {
+            if (it.next().expiresAt - now <= 0) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * @return The number of entries, including the expired ones not purged yet
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTtl(TimeUnit unit) {
+        return unit.convert(ttlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
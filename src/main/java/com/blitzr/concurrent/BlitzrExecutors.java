@@ -0,0 +1,83 @@
+package com.blitzr.concurrent;
+
+import com.blitzr.trace.CallContext;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors used by the client helpers. Like the Generator producers, their threads are daemons : a forgotten
+ * executor never prevents the JVM from exiting. Their tasks run with the CallContext of the thread submitting them.
+ */
+public final class BlitzrExecutors {
+    private BlitzrExecutors() {
+    }
+
+    /**
+     * @param name Prefix of the threads names
+     * @param threads Number of threads
+     * @return A fixed thread pool of daemon threads
+     */
+    public static ExecutorService newFixedThreadPool(String name, int threads) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+                daemonThreadFactory(name)) {
+            @Override
+            public void execute(Runnable command) {
+                super.execute(CallContext.wrap(command));
+            }
+        };
+    }
+
+    /**
+     * @param name Prefix of the threads names
+     * @return A single threaded scheduled executor, its thread being a daemon
+     */
+    public static ScheduledExecutorService newSingleThreadScheduledExecutor(String name) {
+        return new ScheduledThreadPoolExecutor(1, daemonThreadFactory(name)) {
+            @Override
+            public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+                return super.schedule(CallContext.wrap(command), delay, unit);
+            }
+
+            @Override
+            public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+                return super.schedule(CallContext.wrap(callable), delay, unit);
+            }
+
+            @Override
+            public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+                return super.scheduleAtFixedRate(CallContext.wrap(command), initialDelay, period, unit);
+            }
+
+            @Override
+            public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+                return super.scheduleWithFixedDelay(CallContext.wrap(command), initialDelay, delay, unit);
+            }
+        };
+    }
+
+    /**
+     * @param name Prefix of the threads names
+     * @return A factory of daemon threads named name-1, name-2...
+     */
+    public static ThreadFactory daemonThreadFactory(final String name) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.blitzr.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A token bucket limiting the rate of the calls shared by several threads.</p>
+ * <p>The bucket holds up to <b>burst</b> permits and is refilled at <b>permitsPerSecond</b>. A thread waits in
+ * {@link #acquire()} until a permit is available.</p>
+ */
+public class RateLimiter {
+    private final double permitsPerNano;
+    private final double burst;
+    private double permits;
+    private long refilledAt;
+
+    /**
+     * @param permitsPerSecond Sustained rate
+     * @param burst Maximum number of permits taken at once after an idle period, at least 1
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive and burst at least 1");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.permits = burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Take a permit, waiting for it if needed.
+     */
+    public void acquire() throws InterruptedException {
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            permits = Math.min(burst, permits + (now - refilledAt) * permitsPerNano);
+            refilledAt = now;
+            // The permit is taken now, possibly going below zero : the next threads wait for the refill
+            permits -= 1;
+            wait = (permits >= 0) ? 0 : (long) Math.ceil(-permits / permitsPerNano);
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Take a permit if one is available now.
+     *
+     * @return true if the permit was taken
+     */
+    public synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        permits = Math.min(burst, permits + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        if (permits >= 1) {
+            permits -= 1;
+            return true;
+        }
+        return false;
+    }
+}
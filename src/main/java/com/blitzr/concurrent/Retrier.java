@@ -0,0 +1,113 @@
+package com.blitzr.concurrent;
+
+import com.blitzr.exceptions.BlitzrException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Run API calls under a rate limit, retrying the errors which may succeed later.</p>
+ * <p>Each attempt first takes a permit of the RateLimiter, if any. A call failing with a rate limiting (429), server
+ * (5xx) or network (600) error is retried up to <b>maxRetries</b> times, waiting <b>retryDelayMillis</b> before the
+ * first retry and doubling the delay at each retry. Other errors, and the last one, are thrown.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     Retrier retrier = new Retrier(new RateLimiter(20, 5), 3, 500);
+ *     Artist artist = retrier.call(new Retrier.Attempt&lt;Artist&gt;() {
+ *         public Artist call(int attempt) {
+ *             return blitzr.getArtist(null, uuid);
+ *         }
+ *     });
+ * </code></pre>
+ */
+public class Retrier {
+    /**
+     * One attempt of a call.
+     */
+    public interface Attempt<T> {
+        /**
+         * @param attempt Number of the attempt, starting at 1
+         * @return The result of the call
+         */
+        T call(int attempt);
+    }
+
+    private final AtomicLong retries = new AtomicLong();
+    private RateLimiter rateLimiter;
+    private int maxRetries;
+    private long retryDelayMillis;
+
+    /**
+     * @param rateLimiter The limiter of the attempts, null for no limit
+     * @param maxRetries Maximum number of retries of a call
+     * @param retryDelayMillis Delay before the first retry, doubled at each retry
+     */
+    public Retrier(RateLimiter rateLimiter, int maxRetries, long retryDelayMillis) {
+        this.rateLimiter = rateLimiter;
+        this.maxRetries = maxRetries;
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    /**
+     * @param rateLimiter The limiter of the attempts, null for no limit
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * @param maxRetries Maximum number of retries of a call
+     */
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * @param retryDelayMillis Delay before the first retry, doubled at each retry
+     */
+    public void setRetryDelayMillis(long retryDelayMillis) {
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    /**
+     * @param attempt The call
+     * @return The result of the first successful attempt
+     * @throws BlitzrException The error of the last attempt, or the first error not retryable
+     */
+    public <T> T call(Attempt<T> attempt) throws InterruptedException {
+        int attempts = 0;
+        while (true) {
+            RateLimiter limiter = rateLimiter;
+            if (limiter != null) {
+                limiter.acquire();
+            }
+            attempts++;
+            try {
+                return attempt.call(attempts);
+            } catch (BlitzrException e) {
+                if (attempts > maxRetries || !isRetryable(e)) {
+                    throw e;
+                }
+                retries.incrementAndGet();
+                Thread.sleep(retryDelayMillis << Math.min(attempts - 1, 16));
+            }
+        }
+    }
+
+    /**
+     * @return Number of retries, over all the calls
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * Rate limiting (429), server errors (5xx) and network errors (600) may succeed later. The internal errors of
+     * the client (601) are not retried.
+     */
+    public static boolean isRetryable(BlitzrException e) {
+        int status = e.getmStatusCode();
+        return status == 429 || (status >= 500 && status < 600) || status == 600;
+    }
+}
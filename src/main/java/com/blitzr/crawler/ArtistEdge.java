@@ -0,0 +1,17 @@
+package com.blitzr.crawler;
+
+/**
+ * The relations between artists followed by the ArtistGraphCrawler, each one backed by a BlitzrClient method.
+ */
+public enum ArtistEdge {
+    /** getArtistRelated : bands sharing members with the artist */
+    related,
+    /** getArtistSimilar : artists with a similar style */
+    similar,
+    /** getArtistMembers : members of the band */
+    members,
+    /** getArtistBands : bands where the artist played */
+    bands,
+    /** getArtistAliases : other names of the artist */
+    aliases
+}
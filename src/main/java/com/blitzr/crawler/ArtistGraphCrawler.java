@@ -0,0 +1,259 @@
+package com.blitzr.crawler;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.concurrent.BlitzrExecutors;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.artist.ArtistFilters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Breadth first crawler of the artist graph.</p>
+ * <p>Starting from seed artists, it follows the selected edges (related, similar, members, bands, aliases) level by
+ * level, expanding all the artists of a level in parallel. The crawl stops at the max depth or when the node budget is
+ * reached. Nodes and edges are given to a CrawlListener as soon as they are discovered.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     ArtistGraphCrawler crawler = new ArtistGraphCrawler(blitzr);
+ *     crawler.setEdges(EnumSet.of(ArtistEdge.members, ArtistEdge.bands));
+ *     crawler.setMaxDepth(3);
+ *     crawler.setNodeBudget(10000);
+ *     crawler.crawl(Collections.singletonList(beatlesUuid), listener);
+ * </code></pre>
+ */
+public class ArtistGraphCrawler {
+    private final BlitzrClient client;
+    private EnumSet<ArtistEdge> edges = EnumSet.allOf(ArtistEdge.class);
+    private int maxDepth = 2;
+    private int nodeBudget = 1000;
+    private int concurrency = 4;
+    private int edgeLimit = 10;
+    private ArtistFilters similarFilters = new ArtistFilters();
+
+    public ArtistGraphCrawler(BlitzrClient client) {
+        this.client = client;
+    }
+
+    /**
+     * @param edges The edges followed, all by default
+     */
+    public void setEdges(EnumSet<ArtistEdge> edges) {
+        this.edges = EnumSet.copyOf(edges);
+    }
+
+    public EnumSet<ArtistEdge> getEdges() {
+        return EnumSet.copyOf(edges);
+    }
+
+    /**
+     * @param maxDepth Maximum distance from the seeds, 2 by default
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @param nodeBudget Maximum number of nodes, seeds included, 1000 by default
+     */
+    public void setNodeBudget(int nodeBudget) {
+        this.nodeBudget = nodeBudget;
+    }
+
+    public int getNodeBudget() {
+        return nodeBudget;
+    }
+
+    /**
+     * @param concurrency Maximum number of artists expanded at the same time, 4 by default
+     */
+    public void setConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @param edgeLimit Maximum number of neighbours fetched by edge and artist, 10 by default
+     */
+    public void setEdgeLimit(int edgeLimit) {
+        this.edgeLimit = edgeLimit;
+    }
+
+    public int getEdgeLimit() {
+        return edgeLimit;
+    }
+
+    /**
+     * @param similarFilters Filters used for the similar edges
+     */
+    public void setSimilarFilters(ArtistFilters similarFilters) {
+        this.similarFilters = similarFilters;
+    }
+
+    /**
+     * Crawl the graph from the seeds. Blocks until the crawl is over.
+     *
+     * @param seedUuids The uuids of the starting artists
+     * @param listener The listener receiving nodes, edges and errors
+     * @return The number of nodes reached, seeds included
+     * @throws InterruptedException If the thread is interrupted, the crawl is then stopped
+     */
+    public int crawl(Collection<String> seedUuids, CrawlListener listener) throws InterruptedException {
+        final Set<String> visited = Collections.newSetFromMap(
+                new ConcurrentHashMap<String, Boolean>(Math.min(nodeBudget, 1 << 20) * 2));
+        final AtomicInteger nodes = new AtomicInteger();
+        final CrawlListener synchronizedListener = new SynchronizedListener(listener);
+
+        List<String> frontier = new ArrayList<>();
+        for (String uuid : seedUuids) {
+            if (uuid != null && nodes.get() < nodeBudget && visited.add(uuid)) {
+                nodes.incrementAndGet();
+                synchronizedListener.onNode(new Artist(uuid), 0);
+                frontier.add(uuid);
+            }
+        }
+
+        ExecutorService executor = BlitzrExecutors.newFixedThreadPool("blitzr-crawler", concurrency);
+        try {
+            for (int depth = 0; depth < maxDepth && !frontier.isEmpty() && nodes.get() < nodeBudget; depth++) {
+                final int nextDepth = depth + 1;
+                final ConcurrentLinkedQueue<String> next = new ConcurrentLinkedQueue<>();
+                List<Future<?>> futures = new ArrayList<>(frontier.size());
+                for (final String uuid : frontier) {
+                    futures.add(executor.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            expand(uuid, nextDepth, visited, nodes, next, synchronizedListener);
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        throw new BlitzrException(601, String.valueOf(e.getCause()));
+                    }
+                }
+                frontier = new ArrayList<>(next);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return nodes.get();
+    }
+
+    private void expand(String uuid, int depth, Set<String> visited, AtomicInteger nodes,
+                        ConcurrentLinkedQueue<String> next, CrawlListener listener) {
+        for (ArtistEdge edge : edges) {
+            if (nodes.get() >= nodeBudget || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            List<Artist> neighbours;
+            try {
+                neighbours = fetch(edge, uuid);
+            } catch (BlitzrException e) {
+                listener.onError(uuid, edge, e);
+                continue;
+            }
+            if (neighbours == null) {
+                continue;
+            }
+            for (Artist neighbour : neighbours) {
+                String neighbourUuid = neighbour.getUuid();
+                if (neighbourUuid == null) {
+                    continue;
+                }
+                if (!visited.contains(neighbourUuid) && !admit(neighbour, depth, visited, nodes, next, listener)) {
+                    continue;
+                }
+                listener.onEdge(uuid, neighbourUuid, edge);
+            }
+        }
+    }
+
+    /**
+     * Admit a new artist if the budget allows it. The admissions are serialized with the listener calls : a visited
+     * artist is always a node already given to the listener, so an edge never points to an unknown node.
+     *
+     * @return true if the artist is a node of the crawl, false if it is over budget
+     */
+    private boolean admit(Artist artist, int depth, Set<String> visited, AtomicInteger nodes,
+                          ConcurrentLinkedQueue<String> next, CrawlListener listener) {
+        synchronized (listener) {
+            if (visited.contains(artist.getUuid())) {
+                return true;
+            }
+            if (nodes.get() >= nodeBudget) {
+                return false;
+            }
+            nodes.incrementAndGet();
+            visited.add(artist.getUuid());
+            listener.onNode(artist, depth);
+            next.add(artist.getUuid());
+            return true;
+        }
+    }
+
+    private List<Artist> fetch(ArtistEdge edge, String uuid) {
+        switch (edge) {
+            case related:
+                return client.getArtistRelated(null, uuid, 0, edgeLimit);
+            case similar:
+                return client.getArtistSimilar(null, uuid, similarFilters, 0, edgeLimit);
+            case members:
+                return client.getArtistMembers(null, uuid, 0, edgeLimit);
+            case bands:
+                return client.getArtistBands(null, uuid, 0, edgeLimit);
+            case aliases:
+                return client.getArtistAliases(null, uuid);
+            default:
+                throw new IllegalArgumentException("Unknown edge " + edge);
+        }
+    }
+
+    private static class SynchronizedListener implements CrawlListener {
+        private final CrawlListener listener;
+
+        SynchronizedListener(CrawlListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public synchronized void onNode(Artist artist, int depth) {
+            listener.onNode(artist, depth);
+        }
+
+        @Override
+        public synchronized void onEdge(String fromUuid, String toUuid, ArtistEdge edge) {
+            listener.onEdge(fromUuid, toUuid, edge);
+        }
+
+        @Override
+        public synchronized void onError(String uuid, ArtistEdge edge, BlitzrException error) {
+            listener.onError(uuid, edge, error);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.blitzr.crawler;
+
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.artist.Artist;
+
+/**
+ * Receives the nodes and edges of the artist graph while the ArtistGraphCrawler discovers them. Calls are serialized
+ * by the crawler : implementations do not need to be thread safe.
+ */
+public interface CrawlListener {
+    /**
+     * Called once for each artist reached within the node budget.
+     *
+     * @param artist The artist, as returned by the edge method (seeds only have their uuid set)
+     * @param depth The distance from the closest seed, 0 for seeds
+     */
+    void onNode(Artist artist, int depth);
+
+    /**
+     * Called for each edge between two artists reached by the crawl.
+     *
+     * @param fromUuid The uuid of the expanded artist
+     * @param toUuid The uuid of the artist found through the edge
+     * @param edge The edge type
+     */
+    void onEdge(String fromUuid, String toUuid, ArtistEdge edge);
+
+    /**
+     * Called when an edge of an artist could not be fetched. The crawl goes on without it.
+     *
+     * @param uuid The uuid of the expanded artist
+     * @param edge The edge type
+     * @param error The error
+     */
+    void onError(String uuid, ArtistEdge edge, BlitzrException error);
+}
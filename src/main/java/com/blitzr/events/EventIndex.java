@@ -0,0 +1,278 @@
+package com.blitzr.events;
+
+import com.blitzr.models.event.Event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>An in-memory index of events, answering "events within X km of a point between two dates" without scanning
+ * all of them.</p>
+ * <p>Events are located by an EventLocator and stored in a grid of <b>cellDegrees</b> cells, each cell keeping its
+ * events ordered by date_start. A query only reads the date range of the cells around the point, then checks the
+ * distance of the remaining events. Events which cannot be located are not indexed.</p>
+ * <p>The index is an EventSyncListener, so it can be kept up to date by an EventSynchronizer.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     EventIndex index = new EventIndex(Events.byCity(cities));
+ *     index.putAll(blitzr.getEvents("fr", null, null, null, null, "rock", null, null, null, 0, 100));
+ *     List&lt;Event&gt; nextWeek = index.query(userLatitude, userLongitude, 50, new Date(), inSevenDays);
+ * </code></pre>
+ *
+ * <p>The index is thread safe.</p>
+ */
+public class EventIndex implements EventSyncListener {
+    private static class Indexed {
+        private final Event event;
+        private final long cell;
+        private final GeoPoint point;
+
+        Indexed(Event event, long cell, GeoPoint point) {
+            this.event = event;
+            this.cell = cell;
+            this.point = point;
+        }
+    }
+
+    private final EventLocator locator;
+    private final double cellDegrees;
+    private final int columns;
+    private final Map<Long, NavigableSet<Event>> cells = new HashMap<>();
+    private final Map<String, Indexed> byId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param locator Locates the indexed events
+     */
+    public EventIndex(EventLocator locator) {
+        this(locator, 0.5);
+    }
+
+    /**
+     * @param locator Locates the indexed events
+     * @param cellDegrees Side of the grid cells in degrees. Queries are fastest when their radius is about the size
+     *                    of a cell (0.5 degree is about 55 km).
+     */
+    public EventIndex(EventLocator locator, double cellDegrees) {
+        if (cellDegrees <= 0 || cellDegrees > 180) {
+            throw new IllegalArgumentException("cellDegrees must be in ]0, 180]");
+        }
+        this.locator = locator;
+        this.cellDegrees = cellDegrees;
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    /**
+     * Add an event, or replace the event with the same id.
+     *
+     * @param event An event with an id
+     * @return false if the event cannot be located, and so is not indexed
+     */
+    public boolean put(Event event) {
+        if (event.getId() == null) {
+            throw new IllegalArgumentException("Only events with an id can be indexed");
+        }
+        GeoPoint point = locator.locate(event);
+        lock.writeLock().lock();
+        try {
+            removeLocked(event.getId());
+            if (point == null) {
+                return false;
+            }
+            long cell = cell(row(point.getLatitude()), column(point.getLongitude()));
+            NavigableSet<Event> events = cells.get(cell);
+            if (events == null) {
+                events = new TreeSet<>(Events.BY_DATE_START);
+                cells.put(cell, events);
+            }
+            events.add(event);
+            byId.put(event.getId(), new Indexed(event, cell, point));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param events Events with an id
+     * @return The number of events indexed
+     */
+    public int putAll(Collection<Event> events) {
+        int indexed = 0;
+        for (Event event : events) {
+            if (put(event)) {
+                indexed++;
+            }
+        }
+        return indexed;
+    }
+
+    /**
+     * @param id An event id
+     * @return The removed event, null if it was not indexed
+     */
+    public Event remove(String id) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Event get(String id) {
+        lock.readLock().lock();
+        try {
+            Indexed indexed = byId.get(id);
+            return (indexed != null) ? indexed.event : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            byId.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Return the events within a radius of a point, starting between two dates.
+     *
+     * @param latitude Latitude of the point
+     * @param longitude Longitude of the point
+     * @param radiusKm Distance max from the point, in km
+     * @param from Date_start minimum (inclusive), null for no minimum
+     * @param to Date_start maximum (inclusive), null for no maximum
+     * @return The events ordered by date_start
+     */
+    public List<Event> query(float latitude, float longitude, double radiusKm, Date from, Date to) {
+        if (from != null && to != null && from.after(to)) {
+            return Collections.emptyList();
+        }
+        Event fromProbe = (from != null) ? probe(from.getTime()) : null;
+        Event toProbe = (to != null && to.getTime() < Long.MAX_VALUE) ? probe(to.getTime() + 1) : null;
+
+        double latDelta = radiusKm / 110.574;
+        int firstRow = row(Math.max(-90, latitude - latDelta));
+        int lastRow = row(Math.min(90, latitude + latDelta));
+        double cos = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + latDelta)));
+        double lonDelta = (cos > 0) ? radiusKm / (111.320 * cos) : 360;
+        int firstColumn;
+        int columnCount;
+        if (lonDelta >= 180) {
+            firstColumn = 0;
+            columnCount = columns;
+        } else {
+            firstColumn = column(longitude - lonDelta);
+            columnCount = Math.min(columns, floorMod(column(longitude + lonDelta) - firstColumn, columns) + 1);
+        }
+
+        List<Event> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int i = 0; i < columnCount; i++) {
+                    NavigableSet<Event> events = cells.get(cell(row, (firstColumn + i) % columns));
+                    if (events == null) {
+                        continue;
+                    }
+                    if (fromProbe != null) {
+                        events = events.tailSet(fromProbe, true);
+                    }
+                    if (toProbe != null) {
+                        events = events.headSet(toProbe, false);
+                    }
+                    for (Event event : events) {
+                        GeoPoint point = byId.get(event.getId()).point;
+                        if (GeoPoint.distanceKm(latitude, longitude, point.getLatitude(), point.getLongitude()) <= radiusKm) {
+                            result.add(event);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Collections.sort(result, Events.BY_DATE_START);
+        return result;
+    }
+
+    @Override
+    public void onAdded(EventQuery query, Event event) {
+        put(event);
+    }
+
+    @Override
+    public void onUpdated(EventQuery query, Event previous, Event current) {
+        put(current);
+    }
+
+    @Override
+    public void onRemoved(EventQuery query, Event event) {
+        remove(event.getId());
+    }
+
+    private Event removeLocked(String id) {
+        Indexed indexed = byId.remove(id);
+        if (indexed == null) {
+            return null;
+        }
+        NavigableSet<Event> events = cells.get(indexed.cell);
+        events.remove(indexed.event);
+        if (events.isEmpty()) {
+            cells.remove(indexed.cell);
+        }
+        return indexed.event;
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private int column(double longitude) {
+        return floorMod((int) Math.floor((longitude + 180) / cellDegrees), columns);
+    }
+
+    private static int floorMod(int x, int y) {
+        return ((x % y) + y) % y;
+    }
+
+    private static long cell(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    /**
+     * An event sorted before all the events starting at the same time.
+     */
+    private static Event probe(long time) {
+        Event probe = new Event();
+        probe.setDate_start(new Date(time));
+        probe.setId("");
+        return probe;
+    }
+}
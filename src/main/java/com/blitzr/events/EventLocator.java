@@ -0,0 +1,15 @@
+package com.blitzr.events;
+
+import com.blitzr.models.event.Event;
+
+/**
+ * Finds where an event takes place. Events do not carry coordinates, so they are usually located from their venue
+ * or their city.
+ */
+public interface EventLocator {
+    /**
+     * @param event An event
+     * @return Its location, null if unknown
+     */
+    GeoPoint locate(Event event);
+}
@@ -0,0 +1,94 @@
+package com.blitzr.events;
+
+import java.util.Arrays;
+
+/**
+ * The location and tag filters of a getEvents call. Two queries with the same filters are equal, so a query can be
+ * used as a key.
+ */
+public final class EventQuery {
+    private final String countryCode;
+    private final String city;
+    private final Float latitude;
+    private final Float longitude;
+    private final Integer radius;
+    private final String tag;
+
+    /**
+     * @param countryCode Official county code (fr, en)
+     * @param city City where the event takes place (not compatible with country code)
+     * @param latitude Latitude of a reference geopoint (use with radius)
+     * @param longitude Longitude of a reference geopoint (use with radius)
+     * @param radius Distance max from the reference geopoint (in km)
+     * @param tag Tag filter
+     */
+    public EventQuery(String countryCode, String city, Float latitude, Float longitude, Integer radius, String tag) {
+        this.countryCode = countryCode;
+        this.city = city;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.radius = radius;
+        this.tag = tag;
+    }
+
+    public static EventQuery country(String countryCode, String tag) {
+        return new EventQuery(countryCode, null, null, null, null, tag);
+    }
+
+    public static EventQuery city(String city, String tag) {
+        return new EventQuery(null, city, null, null, null, tag);
+    }
+
+    public static EventQuery around(float latitude, float longitude, int radius, String tag) {
+        return new EventQuery(null, null, latitude, longitude, radius, tag);
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public Float getLatitude() {
+        return latitude;
+    }
+
+    public Float getLongitude() {
+        return longitude;
+    }
+
+    public Integer getRadius() {
+        return radius;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EventQuery)) {
+            return false;
+        }
+        return Arrays.equals(values(), ((EventQuery) o).values());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values());
+    }
+
+    @Override
+    public String toString() {
+        return "EventQuery" + Arrays.toString(values());
+    }
+
+    private Object[] values() {
+        return new Object[]{countryCode, city, latitude, longitude, radius, tag};
+    }
+}
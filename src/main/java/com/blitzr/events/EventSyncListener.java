@@ -0,0 +1,27 @@
+package com.blitzr.events;
+
+import com.blitzr.models.event.Event;
+
+/**
+ * Receives the changes found by an EventSynchronizer, for one query.
+ */
+public interface EventSyncListener {
+    /**
+     * @param query The synchronized query
+     * @param event An event not seen before
+     */
+    void onAdded(EventQuery query, Event event);
+
+    /**
+     * @param query The synchronized query
+     * @param previous The event as seen by the previous synchronization
+     * @param current The event as now returned by the API
+     */
+    void onUpdated(EventQuery query, Event previous, Event current);
+
+    /**
+     * @param query The synchronized query
+     * @param event An event no longer returned by the API (cancelled, or started before the synchronization)
+     */
+    void onRemoved(EventQuery query, Event event);
+}
@@ -0,0 +1,244 @@
+package com.blitzr.events;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.event.Event;
+import com.blitzr.models.event.EventProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Keep a local snapshot of the upcoming events of many queries, and report what changed since the last
+ * synchronization.</p>
+ * <p>For each query, the synchronizer keeps the events by id and a watermark : the latest date_start seen. The API
+ * has no "modified since" filter, so an incremental synchronization downloads two windows : the near window (the
+ * next 30 days by default), where most additions and changes happen, and the events starting from the watermark
+ * day, which are the newly announced ones in most cases. Every <b>fullRefreshInterval</b> synchronizations, the
+ * whole upcoming window is downloaded again : it finds the removed events, and the added or updated events starting
+ * between the near window and the watermark, which the incremental synchronizations miss.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     EventSynchronizer synchronizer = new EventSynchronizer(blitzr);
+ *     EventQuery paris = EventQuery.city("paris", "rock");
+ *     // every few minutes
+ *     synchronizer.sync(paris, listener);
+ * </code></pre>
+ *
+ * <p>Different queries can be synchronized from different threads at the same time.</p>
+ */
+public class EventSynchronizer {
+    private static class QueryState {
+        private final Map<String, Event> events = new HashMap<>();
+        private final Map<String, List<Object>> fingerprints = new HashMap<>();
+        private Date watermark;
+        private int syncs;
+    }
+
+    private final BlitzrClient client;
+    private final ConcurrentHashMap<EventQuery, QueryState> states = new ConcurrentHashMap<>();
+    private int fullRefreshInterval = 10;
+    private long nearWindowMillis = TimeUnit.DAYS.toMillis(30);
+    private int pageLimit = 100;
+
+    public EventSynchronizer(BlitzrClient client) {
+        this.client = client;
+    }
+
+    /**
+     * @param fullRefreshInterval Number of synchronizations between two full refreshes, 10 by default. 1 makes every
+     *                            synchronization a full refresh.
+     */
+    public void setFullRefreshInterval(int fullRefreshInterval) {
+        if (fullRefreshInterval < 1) {
+            throw new IllegalArgumentException("fullRefreshInterval must be at least 1");
+        }
+        this.fullRefreshInterval = fullRefreshInterval;
+    }
+
+    /**
+     * @param nearWindow Duration of the window downloaded again by every synchronization, 30 days by default. 0 only
+     *                   downloads the events after the watermark between two full refreshes.
+     * @param unit Unit of the nearWindow
+     */
+    public void setNearWindow(long nearWindow, TimeUnit unit) {
+        this.nearWindowMillis = unit.toMillis(nearWindow);
+    }
+
+    /**
+     * @param pageLimit Number of events fetched by call, 100 by default
+     */
+    public void setPageLimit(int pageLimit) {
+        this.pageLimit = pageLimit;
+    }
+
+    /**
+     * Synchronize a query and report the changes to the listener. The first synchronization of a query reports all
+     * its events as added. The state of the query is only updated once the listener received all the changes : if it
+     * throws, the next synchronization reports the same changes again.
+     *
+     * @param query The query
+     * @param listener The listener receiving the changes
+     * @return The number of events downloaded
+     */
+    public int sync(EventQuery query, EventSyncListener listener) {
+        QueryState state = states.get(query);
+        if (state == null) {
+            QueryState newState = new QueryState();
+            state = states.putIfAbsent(query, newState);
+            if (state == null) {
+                state = newState;
+            }
+        }
+        synchronized (state) {
+            Date now = new Date();
+            boolean full = state.watermark == null || state.syncs % fullRefreshInterval == 0;
+            Date nearEnd = new Date(now.getTime() + nearWindowMillis);
+            Map<String, Event> fetched;
+            if (full || !nearEnd.before(state.watermark)) {
+                fetched = fetch(query, now, null);
+            } else {
+                fetched = fetch(query, state.watermark, null);
+                if (nearWindowMillis > 0) {
+                    fetched.putAll(fetch(query, now, nearEnd));
+                }
+            }
+            // Report the whole batch before changing the state : if the listener throws, the next synchronization
+            // compares against the same state and reports the changes again
+            Map<String, List<Object>> fingerprints = new HashMap<>();
+            for (Event event : fetched.values()) {
+                List<Object> fingerprint = fingerprint(event);
+                fingerprints.put(event.getId(), fingerprint);
+                Event previous = state.events.get(event.getId());
+                if (previous == null) {
+                    listener.onAdded(query, event);
+                } else if (!fingerprint.equals(state.fingerprints.get(event.getId()))) {
+                    listener.onUpdated(query, previous, event);
+                }
+            }
+            List<String> removed = new ArrayList<>();
+            if (full) {
+                for (Map.Entry<String, Event> entry : state.events.entrySet()) {
+                    if (!fetched.containsKey(entry.getKey())) {
+                        removed.add(entry.getKey());
+                        listener.onRemoved(query, entry.getValue());
+                    }
+                }
+            }
+            Date watermark = state.watermark;
+            for (Event event : fetched.values()) {
+                Date start = event.getDate_start();
+                if (start != null && (watermark == null || start.after(watermark))) {
+                    watermark = start;
+                }
+            }
+
+            state.events.putAll(fetched);
+            state.fingerprints.putAll(fingerprints);
+            for (String id : removed) {
+                state.events.remove(id);
+                state.fingerprints.remove(id);
+            }
+            state.watermark = (watermark != null) ? watermark : now;
+            state.syncs++;
+            return fetched.size();
+        }
+    }
+
+    /**
+     * @param query A query
+     * @return The events of the last synchronization of the query, ordered by date_start
+     */
+    public List<Event> getSnapshot(EventQuery query) {
+        QueryState state = states.get(query);
+        if (state == null) {
+            return Collections.emptyList();
+        }
+        synchronized (state) {
+            List<Event> events = new ArrayList<>(state.events.values());
+            Collections.sort(events, Events.BY_DATE_START);
+            return events;
+        }
+    }
+
+    /**
+     * @param query A query
+     * @return The latest date_start seen for the query, null if never synchronized
+     */
+    public Date getWatermark(EventQuery query) {
+        QueryState state = states.get(query);
+        if (state == null) {
+            return null;
+        }
+        synchronized (state) {
+            return state.watermark;
+        }
+    }
+
+    /**
+     * Forget a query : its next synchronization reports all its events as added.
+     */
+    public void forget(EventQuery query) {
+        states.remove(query);
+    }
+
+    public Collection<EventQuery> getQueries() {
+        return Collections.unmodifiableSet(states.keySet());
+    }
+
+    private Map<String, Event> fetch(EventQuery query, Date from, Date to) {
+        LinkedHashMap<String, Event> fetched = new LinkedHashMap<>();
+        int start = 0;
+        while (true) {
+            List<Event> events = client.getEvents(query.getCountryCode(), query.getLatitude(), query.getLongitude(),
+                    query.getCity(), null, query.getTag(), from, to, query.getRadius(), start, pageLimit);
+            for (Event event : events) {
+                if (event.getId() != null) {
+                    fetched.put(event.getId(), event);
+                }
+            }
+            start += pageLimit;
+            if (events.size() < pageLimit) {
+                break;
+            }
+        }
+        return fetched;
+    }
+
+    /**
+     * The compared fields of an event. The values themselves are kept, not a hash of them : a collision would hide
+     * an update.
+     */
+    private static List<Object> fingerprint(Event event) {
+        List<String> artists = new ArrayList<>();
+        if (event.getArtists() != null) {
+            for (Artist artist : event.getArtists()) {
+                artists.add(artist.getUuid());
+            }
+        }
+        List<Object> providers = new ArrayList<>();
+        if (event.getProviders() != null) {
+            for (Map.Entry<String, EventProvider> provider : new TreeMap<>(event.getProviders()).entrySet()) {
+                providers.add(provider.getKey());
+                providers.add(provider.getValue().getCurrency());
+                providers.add(provider.getValue().getMin_price());
+                providers.add((provider.getValue().getTickets() != null) ? provider.getValue().getTickets().size() : 0);
+            }
+        }
+        return Arrays.<Object>asList(event.getName(), event.getDate_start(), event.getDate_end(),
+                event.getVenue(), event.getCity(), event.getCountry(), event.getSlug(), event.getImages(),
+                event.getCategories(), artists, providers);
+    }
+}
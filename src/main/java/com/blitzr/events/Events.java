@@ -0,0 +1,72 @@
+package com.blitzr.events;
+
+import com.blitzr.models.event.Event;
+import com.blitzr.models.utils.City;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Helpers shared by the event tools.
+ */
+public final class Events {
+    /**
+     * Orders events by date_start, then by id. Events without date_start come first.
+     */
+    public static final Comparator<Event> BY_DATE_START = new Comparator<Event>() {
+        @Override
+        public int compare(Event a, Event b) {
+            int byDate = Long.compare(startTime(a), startTime(b));
+            if (byDate != 0) {
+                return byDate;
+            }
+            String idA = (a.getId() != null) ? a.getId() : "";
+            String idB = (b.getId() != null) ? b.getId() : "";
+            return idA.compareTo(idB);
+        }
+    };
+
+    private Events() {
+    }
+
+    /**
+     * @param event An event
+     * @return Its date_start in milliseconds since epoch, Long.MIN_VALUE if unknown
+     */
+    public static long startTime(Event event) {
+        Date start = event.getDate_start();
+        return (start != null) ? start.getTime() : Long.MIN_VALUE;
+    }
+
+    /**
+     * Locate the events by the coordinates of their city, matched by name or ascii name, case insensitive.
+     *
+     * @param cities The known cities
+     * @return An EventLocator
+     */
+    public static EventLocator byCity(Collection<City> cities) {
+        final Map<String, GeoPoint> points = new HashMap<>();
+        for (City city : cities) {
+            if (city.getLatitude() == null || city.getLongitude() == null) {
+                continue;
+            }
+            GeoPoint point = new GeoPoint(city.getLatitude(), city.getLongitude());
+            if (city.getAsciiname() != null) {
+                points.put(city.getAsciiname().toLowerCase(Locale.ROOT), point);
+            }
+            if (city.getName() != null) {
+                points.put(city.getName().toLowerCase(Locale.ROOT), point);
+            }
+        }
+        return new EventLocator() {
+            @Override
+            public GeoPoint locate(Event event) {
+                return (event.getCity() != null) ? points.get(event.getCity().toLowerCase(Locale.ROOT)) : null;
+            }
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.blitzr.events;
+
+/**
+ * A latitude and a longitude, in degrees.
+ */
+public final class GeoPoint {
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final float latitude;
+    private final float longitude;
+
+    public GeoPoint(float latitude, float longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public float getLatitude() {
+        return latitude;
+    }
+
+    public float getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * @param other Another point
+     * @return The great-circle distance between the two points, in km
+     */
+    public double distanceKm(GeoPoint other) {
+        return distanceKm(latitude, longitude, other.latitude, other.longitude);
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GeoPoint)) {
+            return false;
+        }
+        GeoPoint other = (GeoPoint) o;
+        return Float.compare(latitude, other.latitude) == 0 && Float.compare(longitude, other.longitude) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Float.floatToIntBits(latitude) + Float.floatToIntBits(longitude);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + latitude + ", " + longitude + ")";
+    }
+}
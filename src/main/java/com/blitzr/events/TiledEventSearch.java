@@ -0,0 +1,338 @@
+package com.blitzr.events;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.Generator;
+import com.blitzr.concurrent.BlitzrExecutors;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.event.Event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * <p>Search the events of a wide area by splitting it into tiles queried in parallel.</p>
+ * <p>The area (a radius or a bounding box) is covered by square tiles of <b>tileSizeKm</b>, each one queried with
+ * getEvents as the circle enclosing the tile. Tiles are paginated independently, one page ahead, on a pool of
+ * <b>concurrency</b> threads. Their results are merged by date_start and deduplicated by id, as tiles overlap.</p>
+ * <p>The merge relies on getEvents returning the events of a query ordered by date_start.</p>
+ * <p>The tiles on the edge of a circle also cover some area outside of it. Events carry no coordinates : the events
+ * of these tiles are checked against the circle with an EventLocator.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     TiledEventSearch search = new TiledEventSearch(blitzr);
+ *     EventLocator locator = Events.byCity(cities);
+ *     for (Event event : search.around(48.85f, 2.35f, 300, locator, "rock", new Date(), null)) {
+ *         System.out.println(event.getDate_start() + " " + event.getName());
+ *     }
+ * </code></pre>
+ */
+public class TiledEventSearch {
+    private static final double KM_BY_LATITUDE_DEGREE = 110.574;
+    private static final double KM_BY_LONGITUDE_DEGREE_AT_EQUATOR = 111.320;
+
+    /**
+     * A tile, queried as a circle.
+     */
+    public static class Tile {
+        private final float latitude;
+        private final float longitude;
+        private final int radius;
+
+        Tile(float latitude, float longitude, int radius) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.radius = radius;
+        }
+
+        public float getLatitude() {
+            return latitude;
+        }
+
+        public float getLongitude() {
+            return longitude;
+        }
+
+        /**
+         * @return The radius of the query, in km
+         */
+        public int getRadius() {
+            return radius;
+        }
+    }
+
+    private final BlitzrClient client;
+    private double tileSizeKm = 50;
+    private int concurrency = 4;
+    private int pageLimit = 100;
+
+    public TiledEventSearch(BlitzrClient client) {
+        this.client = client;
+    }
+
+    /**
+     * @param tileSizeKm Side of the tiles in km, 50 by default
+     */
+    public void setTileSizeKm(double tileSizeKm) {
+        this.tileSizeKm = tileSizeKm;
+    }
+
+    /**
+     * @param concurrency Number of tiles queried at the same time, 4 by default
+     */
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param pageLimit Number of events fetched by call, 100 by default
+     */
+    public void setPageLimit(int pageLimit) {
+        this.pageLimit = pageLimit;
+    }
+
+    /**
+     * @return The tiles covering the circle
+     */
+    public List<Tile> tilesAround(float latitude, float longitude, double radiusKm) {
+        double latDelta = radiusKm / KM_BY_LATITUDE_DEGREE;
+        double lonDelta = radiusKm / (KM_BY_LONGITUDE_DEGREE_AT_EQUATOR * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        double west = -180;
+        double east = 180;
+        if (lonDelta < 180) {
+            west = wrapLongitude(longitude - lonDelta);
+            east = wrapLongitude(longitude + lonDelta);
+        }
+        List<Tile> tiles = new ArrayList<>();
+        for (Tile tile : tilesInBox(Math.max(-90, latitude - latDelta), west, Math.min(90, latitude + latDelta), east)) {
+            if (GeoPoint.distanceKm(latitude, longitude, tile.latitude, tile.longitude) <= radiusKm + tile.radius) {
+                tiles.add(tile);
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * @param south Minimum latitude
+     * @param west Western longitude, between -180 and 180
+     * @param north Maximum latitude
+     * @param east Eastern longitude, between -180 and 180. Lower than west if the box crosses the antimeridian.
+     * @return The tiles covering the bounding box
+     */
+    public List<Tile> tilesInBox(double south, double west, double north, double east) {
+        if (south > north) {
+            throw new IllegalArgumentException("south must not be greater than north");
+        }
+        if (west < -180 || west > 180 || east < -180 || east > 180) {
+            throw new IllegalArgumentException("longitudes must be between -180 and 180");
+        }
+        if (west > east) {
+            // Crossing the antimeridian : cover each side
+            List<Tile> tiles = tilesInBox(south, west, north, 180);
+            tiles.addAll(tilesInBox(south, -180, north, east));
+            return tiles;
+        }
+        int tileRadius = (int) Math.ceil(tileSizeKm * Math.sqrt(2) / 2);
+        double tileLat = tileSizeKm / KM_BY_LATITUDE_DEGREE;
+        int rows = Math.max(1, (int) Math.ceil((north - south) / tileLat));
+        List<Tile> tiles = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            double latitude = Math.min(south + (row + 0.5) * tileLat, north);
+            double tileLon = tileSizeKm / (KM_BY_LONGITUDE_DEGREE_AT_EQUATOR * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+            int columns = Math.max(1, (int) Math.ceil((east - west) / tileLon));
+            for (int column = 0; column < columns; column++) {
+                double longitude = Math.min(west + (column + 0.5) * tileLon, east);
+                tiles.add(new Tile((float) latitude, (float) longitude, tileRadius));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Return a Generator of the events around a geopoint, ordered by date_start, without duplicates.
+     *
+     * @param latitude Latitude of the center
+     * @param longitude Longitude of the center
+     * @param radiusKm Radius of the area, in km
+     * @param locator Locates the events of the tiles on the edge of the circle : those farther than radiusKm from
+     *                the center, or not located, are skipped. Null keeps them unchecked, they may then be up to a
+     *                tile outside of the circle.
+     * @param tag Tag filter
+     * @param dateStart Date minimum
+     * @param dateEnd Date maximum
+     * @return An Event Generator
+     */
+    public Generator<Event> around(float latitude, float longitude, double radiusKm, EventLocator locator, String tag, Date dateStart, Date dateEnd) {
+        Circle circle = (locator != null) ? new Circle(latitude, longitude, radiusKm, locator) : null;
+        return search(tilesAround(latitude, longitude, radiusKm), circle, tag, dateStart, dateEnd);
+    }
+
+    /**
+     * Return a Generator of the events of a bounding box, ordered by date_start, without duplicates. Events of the
+     * tiles on the edges of the box may be slightly outside of it.
+     *
+     * @param south Minimum latitude
+     * @param west Western longitude, between -180 and 180
+     * @param north Maximum latitude
+     * @param east Eastern longitude, between -180 and 180. Lower than west if the box crosses the antimeridian.
+     * @param tag Tag filter
+     * @param dateStart Date minimum
+     * @param dateEnd Date maximum
+     * @return An Event Generator
+     */
+    public Generator<Event> inBox(double south, double west, double north, double east, String tag, Date dateStart, Date dateEnd) {
+        return search(tilesInBox(south, west, north, east), null, tag, dateStart, dateEnd);
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        return (longitude > 180) ? longitude - 360 : longitude;
+    }
+
+    /**
+     * The circle of an around search.
+     */
+    private static class Circle {
+        private final float latitude;
+        private final float longitude;
+        private final double radiusKm;
+        private final EventLocator locator;
+
+        Circle(float latitude, float longitude, double radiusKm, EventLocator locator) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.radiusKm = radiusKm;
+            this.locator = locator;
+        }
+
+        /**
+         * @return true if the tile is inside the circle, or if the event of a tile on the edge is located inside
+         */
+        boolean contains(Tile tile, Event event) {
+            if (GeoPoint.distanceKm(latitude, longitude, tile.latitude, tile.longitude) + tile.radius <= radiusKm) {
+                return true;
+            }
+            GeoPoint point = locator.locate(event);
+            return point != null
+                    && GeoPoint.distanceKm(latitude, longitude, point.getLatitude(), point.getLongitude()) <= radiusKm;
+        }
+    }
+
+    private Generator<Event> search(final List<Tile> tiles, final Circle circle, final String tag, final Date dateStart,
+                                    final Date dateEnd) {
+        return new Generator<Event>() {
+            @Override
+            protected void run() throws InterruptedException {
+                ExecutorService executor = BlitzrExecutors.newFixedThreadPool("blitzr-event-tiles", concurrency);
+                try {
+                    PriorityQueue<TileCursor> heads = new PriorityQueue<>(Math.max(1, tiles.size()), new Comparator<TileCursor>() {
+                        @Override
+                        public int compare(TileCursor a, TileCursor b) {
+                            return Events.BY_DATE_START.compare(a.head(), b.head());
+                        }
+                    });
+                    List<TileCursor> cursors = new ArrayList<>(tiles.size());
+                    for (Tile tile : tiles) {
+                        cursors.add(new TileCursor(tile, tag, dateStart, dateEnd, executor));
+                    }
+                    for (TileCursor cursor : cursors) {
+                        if (cursor.advance()) {
+                            heads.add(cursor);
+                        }
+                    }
+                    Set<String> seen = new HashSet<>();
+                    while (!heads.isEmpty()) {
+                        TileCursor cursor = heads.poll();
+                        Event event = cursor.head();
+                        // An event skipped on an edge tile may still come from a tile inside the circle
+                        boolean inside = circle == null || circle.contains(cursor.tile, event);
+                        if (inside && (event.getId() == null || seen.add(event.getId()))) {
+                            yield(event);
+                        }
+                        if (cursor.advance()) {
+                            heads.add(cursor);
+                        }
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+        };
+    }
+
+    /**
+     * Pages of a tile, the next page being fetched while the current one is merged.
+     */
+    private class TileCursor {
+        private final Tile tile;
+        private final String tag;
+        private final Date dateStart;
+        private final Date dateEnd;
+        private final ExecutorService executor;
+        private Future<List<Event>> nextPage;
+        private int nextStart;
+        private List<Event> page = Collections.emptyList();
+        private int index = -1;
+
+        TileCursor(Tile tile, String tag, Date dateStart, Date dateEnd, ExecutorService executor) {
+            this.tile = tile;
+            this.tag = tag;
+            this.dateStart = dateStart;
+            this.dateEnd = dateEnd;
+            this.executor = executor;
+            this.nextPage = fetch(0);
+        }
+
+        Event head() {
+            return page.get(index);
+        }
+
+        /**
+         * @return false when the tile has no more events
+         */
+        boolean advance() throws InterruptedException {
+            index++;
+            while (index >= page.size()) {
+                if (nextPage == null) {
+                    return false;
+                }
+                try {
+                    page = new ArrayList<>(nextPage.get());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof BlitzrException) {
+                        throw (BlitzrException) e.getCause();
+                    }
+                    throw new BlitzrException(601, String.valueOf(e.getCause()));
+                }
+                Collections.sort(page, Events.BY_DATE_START);
+                index = 0;
+                nextPage = (page.size() < pageLimit) ? null : fetch(nextStart);
+            }
+            return true;
+        }
+
+        private Future<List<Event>> fetch(final int start) {
+            nextStart = start + pageLimit;
+            return executor.submit(new Callable<List<Event>>() {
+                @Override
+                public List<Event> call() {
+                    return client.getEvents(null, tile.latitude, tile.longitude, null, null, tag, dateStart, dateEnd,
+                            tile.radius, start, pageLimit);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.blitzr.export;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.JsonVisitor;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>Export the releases and the artists of a label to NDJSON files (one JSON entity by line), optionally gzipped.</p>
+ * <p>The tokens of each entity are copied from the response parser to a buffered stream as they are read : the page
+ * is never built in memory and nothing is bound to the models, so all the fields of the API are exported as they
+ * are. Numbers are written back from their parsed value. After each page, the file is
+ * synced and a checkpoint with the pagination offset and the file length is saved. If the export stops, the next
+ * call to export truncates the files to the last checkpoint and resumes from its offset.</p>
+ * <p>Gzipped files are written as one gzip member by page, so a checkpointed file is always a valid gzip file.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     LabelCatalogExporter exporter = new LabelCatalogExporter(blitzr, new File("/data/warp"), true);
+ *     exporter.export("warp", null); // call it again after a crash to resume
+ * </code></pre>
+ */
+public class LabelCatalogExporter {
+    private static final String CHECKPOINT_FILE = "checkpoint.properties";
+
+    private static class WriteException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        WriteException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Write one page of entities to the visitor.
+     */
+    private interface PageSource {
+        int visit(int start, int limit, JsonVisitor visitor);
+    }
+
+    private final BlitzrClient client;
+    private final File directory;
+    private final boolean gzip;
+    private final JsonFactory factory = new JsonFactory();
+    private int pageLimit = 100;
+
+    /**
+     * @param client The client used to fetch the label
+     * @param directory The directory of the NDJSON files and of the checkpoint
+     * @param gzip true to gzip the files
+     */
+    public LabelCatalogExporter(BlitzrClient client, File directory, boolean gzip) {
+        this.client = client;
+        this.directory = directory;
+        this.gzip = gzip;
+    }
+
+    /**
+     * @param pageLimit Number of entities fetched by call, and so between two checkpoints. 100 by default.
+     */
+    public void setPageLimit(int pageLimit) {
+        this.pageLimit = pageLimit;
+    }
+
+    public File getReleasesFile() {
+        return new File(directory, "releases" + (gzip ? ".ndjson.gz" : ".ndjson"));
+    }
+
+    public File getArtistsFile() {
+        return new File(directory, "artists" + (gzip ? ".ndjson.gz" : ".ndjson"));
+    }
+
+    /**
+     * Export the label releases then the label artists, resuming from the last checkpoint if any. Slug or UUID are
+     * mandatory, and must be the same as the ones of the checkpoint.
+     *
+     * @param slug The Label slug
+     * @param uuid The Label UUID
+     * @throws IOException If the files cannot be written
+     */
+    public void export(final String slug, final String uuid) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        String label = slug + "/" + uuid;
+        Properties checkpoint = readCheckpoint();
+        String checkpointLabel = checkpoint.getProperty("label");
+        if (checkpointLabel != null && !checkpointLabel.equals(label)) {
+            throw new IllegalStateException("The checkpoint of " + directory + " belongs to " + checkpointLabel);
+        }
+        checkpoint.setProperty("label", label);
+
+        exportEntities("releases", getReleasesFile(), checkpoint, new PageSource() {
+            @Override
+            public int visit(int start, int limit, JsonVisitor visitor) {
+                return client.forEachLabelRelease(slug, uuid, null, start, limit, visitor);
+            }
+        });
+        exportEntities("artists", getArtistsFile(), checkpoint, new PageSource() {
+            @Override
+            public int visit(int start, int limit, JsonVisitor visitor) {
+                return client.forEachLabelArtist(slug, uuid, start, limit, null, visitor);
+            }
+        });
+    }
+
+    /**
+     * Delete the exported files and the checkpoint, the next export starts from scratch.
+     */
+    public void reset() throws IOException {
+        Files.deleteIfExists(getReleasesFile().toPath());
+        Files.deleteIfExists(getArtistsFile().toPath());
+        Files.deleteIfExists(new File(directory, CHECKPOINT_FILE).toPath());
+    }
+
+    private void exportEntities(String name, File file, Properties checkpoint, PageSource source) throws IOException {
+        if ("true".equals(checkpoint.getProperty(name + ".done"))) {
+            return;
+        }
+        int offset = Integer.parseInt(checkpoint.getProperty(name + ".offset", "0"));
+        long bytes = Long.parseLong(checkpoint.getProperty(name + ".bytes", "0"));
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            // Drop what was written after the last checkpoint
+            channel.truncate(bytes);
+            channel.position(bytes);
+            OutputStream fileOut = new FilterOutputStream(Channels.newOutputStream(channel)) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+
+            while (true) {
+                int count = writePage(fileOut, offset, source);
+                channel.force(false);
+                offset += count;
+                checkpoint.setProperty(name + ".offset", Integer.toString(offset));
+                checkpoint.setProperty(name + ".bytes", Long.toString(channel.position()));
+                if (count < pageLimit) {
+                    checkpoint.setProperty(name + ".done", "true");
+                }
+                writeCheckpoint(checkpoint);
+                if (count < pageLimit) {
+                    break;
+                }
+            }
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private int writePage(OutputStream fileOut, int offset, PageSource source) throws IOException {
+        OutputStream out = new BufferedOutputStream(fileOut, 64 * 1024);
+        if (gzip) {
+            out = new GZIPOutputStream(out, 64 * 1024);
+        }
+        final JsonGenerator generator = factory.createGenerator(out);
+        generator.setRootValueSeparator(null);
+        int count;
+        try {
+            count = source.visit(offset, pageLimit, new JsonVisitor() {
+                @Override
+                public void visit(JsonParser element) {
+                    try {
+                        generator.copyCurrentStructure(element);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new WriteException(e);
+                    }
+                }
+            });
+        } catch (WriteException e) {
+            throw (IOException) e.getCause();
+        }
+        // Closes the gzip member and flushes the buffers, the file itself stays open
+        generator.close();
+        return count;
+    }
+
+    private Properties readCheckpoint() throws IOException {
+        Properties checkpoint = new Properties();
+        File file = new File(directory, CHECKPOINT_FILE);
+        if (file.exists()) {
+            InputStream in = new FileInputStream(file);
+            try {
+                checkpoint.load(in);
+            } finally {
+                in.close();
+            }
+        }
+        return checkpoint;
+    }
+
+    private void writeCheckpoint(Properties checkpoint) throws IOException {
+        File temp = new File(directory, CHECKPOINT_FILE + ".tmp");
+        FileOutputStream out = new FileOutputStream(temp);
+        try {
+            checkpoint.store(out, "Blitzr label export checkpoint");
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+        Files.move(temp.toPath(), new File(directory, CHECKPOINT_FILE).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,196 @@
+package com.blitzr.harmonia;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.Utils;
+import com.blitzr.cache.TtlCache;
+import com.blitzr.concurrent.BlitzrExecutors;
+import com.blitzr.concurrent.RateLimiter;
+import com.blitzr.concurrent.Retrier;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.track.SourceFilters;
+import com.blitzr.models.track.Track;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Match many tracks of other sources with getHarmoniaSearchBySource, like the tracks of a user library.</p>
+ * <p>The source ids are deduplicated, then looked up by <b>concurrency</b> threads under the rate limit, with
+ * retries of the rate limiting, server and network errors. The matches are cached by source id, filters (in any
+ * order) and strictness, so reconciling a library again only looks up its new tracks.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     BatchSourceMatcher matcher = new BatchSourceMatcher(blitzr);
+ *     SourceMatches matches = matcher.match(libraryIds, Arrays.asList(SourceFilters.youtube), true);
+ *     for (Map.Entry&lt;SourceId, List&lt;Track&gt;&gt; match : matches.getMatches().entrySet()) {
+ *         ...
+ *     }
+ * </code></pre>
+ */
+public class BatchSourceMatcher {
+    private final BlitzrClient client;
+    private final TtlCache<String, List<Track>> cache;
+    private final Retrier retrier = new Retrier(new RateLimiter(20, 5), 3, 500);
+    private int concurrency = 8;
+
+    /**
+     * Cache the matches of 100000 source ids for a day.
+     */
+    public BatchSourceMatcher(BlitzrClient client) {
+        this(client, new TtlCache<String, List<Track>>(1, TimeUnit.DAYS, 100000));
+        cache.setName("source-matches");
+    }
+
+    /**
+     * @param client The client
+     * @param cache The cache of the matches
+     */
+    public BatchSourceMatcher(BlitzrClient client, TtlCache<String, List<Track>> cache) {
+        this.client = client;
+        this.cache = cache;
+    }
+
+    /**
+     * @param concurrency Maximum number of lookups at the same time, 8 by default
+     */
+    public void setConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param rateLimiter The limiter of the lookups, 20 calls/s by default. It can be shared with other tools
+     *                    calling the API. Null to not limit the lookups, only their concurrency.
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        retrier.setRateLimiter(rateLimiter);
+    }
+
+    /**
+     * @param maxRetries Maximum number of retries of a lookup, 3 by default
+     */
+    public void setMaxRetries(int maxRetries) {
+        retrier.setMaxRetries(maxRetries);
+    }
+
+    /**
+     * @param retryDelayMillis Delay before the first retry, doubled at each retry. 500 ms by default.
+     */
+    public void setRetryDelayMillis(long retryDelayMillis) {
+        retrier.setRetryDelayMillis(retryDelayMillis);
+    }
+
+    /**
+     * @param ids The source ids, duplicates and nulls are ignored
+     * @param sourceFilters Filter the source, may be null
+     * @param strict True if you want blitzr to guess the best result for you. False if you want all matched results
+     * @return The matches and the failures by source id
+     */
+    public SourceMatches match(Collection<SourceId> ids, final List<SourceFilters> sourceFilters, final boolean strict) {
+        LinkedHashSet<SourceId> unique = new LinkedHashSet<>();
+        for (SourceId id : ids) {
+            if (id != null) {
+                unique.add(id);
+            }
+        }
+        // The filters are a set for the API : the same filters in another order share the cache entries
+        EnumSet<SourceFilters> filters = EnumSet.noneOf(SourceFilters.class);
+        if (sourceFilters != null) {
+            for (SourceFilters filter : sourceFilters) {
+                if (filter != null) {
+                    filters.add(filter);
+                }
+            }
+        }
+        String options = Utils.concatOptionsWSep(filters, ",") + "/" + strict;
+
+        SourceMatches result = new SourceMatches();
+        Map<SourceId, List<Track>> found = new HashMap<>();
+        List<SourceId> missing = new ArrayList<>();
+        for (SourceId id : unique) {
+            List<Track> cached = cache.get(key(id, options));
+            if (cached != null) {
+                found.put(id, cached);
+                result.addCacheHit();
+                continue;
+            }
+            missing.add(id);
+        }
+
+        Map<SourceId, BlitzrException> failures = new HashMap<>();
+        if (!missing.isEmpty()) {
+            ExecutorService executor = BlitzrExecutors.newFixedThreadPool("blitzr-source-matcher",
+                    Math.min(concurrency, missing.size()));
+            try {
+                Map<SourceId, Future<List<Track>>> futures = new HashMap<>();
+                for (final SourceId id : missing) {
+                    futures.put(id, executor.submit(new Callable<List<Track>>() {
+                        @Override
+                        public List<Track> call() throws InterruptedException {
+                            return lookup(id, sourceFilters, strict);
+                        }
+                    }));
+                }
+                for (Map.Entry<SourceId, Future<List<Track>>> future : futures.entrySet()) {
+                    try {
+                        List<Track> tracks = future.getValue().get();
+                        found.put(future.getKey(), tracks);
+                        cache.put(key(future.getKey(), options), tracks);
+                    } catch (ExecutionException e) {
+                        failures.put(future.getKey(), (e.getCause() instanceof BlitzrException)
+                                ? (BlitzrException) e.getCause() : new BlitzrException(601, String.valueOf(e.getCause())));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BlitzrException(601, "The source matching was interrupted.");
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        for (SourceId id : unique) {
+            if (found.containsKey(id)) {
+                result.addMatch(id, found.get(id));
+            } else if (failures.containsKey(id)) {
+                result.addFailure(id, failures.get(id));
+            }
+        }
+        return result;
+    }
+
+    private List<Track> lookup(final SourceId id, final List<SourceFilters> sourceFilters, final boolean strict)
+            throws InterruptedException {
+        return retrier.call(new Retrier.Attempt<List<Track>>() {
+            @Override
+            public List<Track> call(int attempt) {
+                try {
+                    return client.getHarmoniaSearchBySource(id.getSource(), id.getId(), sourceFilters, strict);
+                } catch (BlitzrException e) {
+                    if (e.getmStatusCode() == 404) {
+                        return new ArrayList<>();
+                    }
+                    throw e;
+                }
+            }
+        });
+    }
+
+    private static String key(SourceId id, String options) {
+        return id.getSource() + "/" + id.getId() + "/" + options;
+    }
+}
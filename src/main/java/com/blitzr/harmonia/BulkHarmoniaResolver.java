@@ -0,0 +1,220 @@
+package com.blitzr.harmonia;
+
+import com.blitzr.Generator;
+import com.blitzr.concurrent.BlitzrExecutors;
+import com.blitzr.concurrent.RateLimiter;
+import com.blitzr.concurrent.Retrier;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.pipeline.StageStats;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Resolve a stream of external ids, like the lines of an import file, to Blitzr uuids.</p>
+ * <p>The ids are read lazily from the iterator and deduplicated. The ids already in the HarmoniaMappings are
+ * answered at once, the others are looked up by <b>concurrency</b> threads, under the rate limit. A lookup failing
+ * with a rate limiting, server or network error is retried up to <b>maxRetries</b> times with an exponential
+ * backoff.</p>
+ * <p>The resolutions are streamed in completion order : mapped, unmapped (unknown to Blitzr) or failed.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     BulkHarmoniaResolver bulk = new BulkHarmoniaResolver(new HarmoniaResolver(blitzr, mappings));
+ *     bulk.setRateLimiter(new RateLimiter(20, 5));
+ *     for (Resolution resolution : bulk.resolve(readIds(file))) {
+ *         if (resolution.isMapped()) {
+ *             importer.link(resolution.getExternalId(), resolution.getUuid());
+ *         }
+ *     }
+ *     System.out.println(bulk.getStats());
+ * </code></pre>
+ */
+public class BulkHarmoniaResolver {
+    /**
+     * Resolve an id, keeping the number of attempts.
+     */
+    private static class Lookup implements Retrier.Attempt<String> {
+        private final HarmoniaResolver resolver;
+        private final ExternalId id;
+        private int attempts;
+
+        Lookup(HarmoniaResolver resolver, ExternalId id) {
+            this.resolver = resolver;
+            this.id = id;
+        }
+
+        @Override
+        public String call(int attempt) {
+            attempts = attempt;
+            return resolver.resolve(id.getType(), id.getService(), id.getId());
+        }
+    }
+
+    private final HarmoniaResolver resolver;
+    private final StageStats stats = new StageStats("harmonia");
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong unmapped = new AtomicLong();
+    private final Retrier retrier = new Retrier(new RateLimiter(20, 5), 3, 500);
+    private int concurrency = 8;
+
+    public BulkHarmoniaResolver(HarmoniaResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * @param concurrency Maximum number of lookups at the same time, 8 by default
+     */
+    public void setConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param rateLimiter The limiter of the lookups, 20 calls/s by default. It can be shared with other tools
+     *                    calling the API. Null to not limit the lookups, only their concurrency.
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        retrier.setRateLimiter(rateLimiter);
+    }
+
+    /**
+     * @param maxRetries Maximum number of retries of a lookup, 3 by default
+     */
+    public void setMaxRetries(int maxRetries) {
+        retrier.setMaxRetries(maxRetries);
+    }
+
+    /**
+     * @param retryDelayMillis Delay before the first retry, doubled at each retry. 500 ms by default.
+     */
+    public void setRetryDelayMillis(long retryDelayMillis) {
+        retrier.setRetryDelayMillis(retryDelayMillis);
+    }
+
+    /**
+     * @param ids The external ids, read as the resolutions are consumed
+     * @return A Resolution Generator
+     */
+    public Generator<Resolution> resolve(final Iterator<ExternalId> ids) {
+        return new Generator<Resolution>() {
+            @Override
+            protected void run() throws InterruptedException {
+                ExecutorService executor = BlitzrExecutors.newFixedThreadPool("blitzr-harmonia-bulk", concurrency);
+                CompletionService<Resolution> completion = new ExecutorCompletionService<>(executor);
+                Set<ExternalId> seen = new HashSet<>();
+                int pending = 0;
+                try {
+                    while (ids.hasNext()) {
+                        ExternalId id = ids.next();
+                        if (!seen.add(id)) {
+                            duplicates.incrementAndGet();
+                            continue;
+                        }
+                        if (resolver.isKnown(id.getType(), id.getService(), id.getId())) {
+                            long start = stats.start();
+                            String uuid = resolver.resolve(id.getType(), id.getService(), id.getId());
+                            stats.done(start, true);
+                            yield(resolution(id, uuid, null, 0));
+                            continue;
+                        }
+                        completion.submit(lookup(id));
+                        pending++;
+                        // Keep the queue short, so the iterator is read at the pace of the lookups
+                        while (pending >= 2 * concurrency) {
+                            yield(take(completion));
+                            pending--;
+                        }
+                        Future<Resolution> done;
+                        while ((done = completion.poll()) != null) {
+                            yield(get(done));
+                            pending--;
+                        }
+                    }
+                    while (pending > 0) {
+                        yield(take(completion));
+                        pending--;
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+        };
+    }
+
+    /**
+     * @return The throughput of the resolutions, cumulated over all the calls to resolve
+     */
+    public StageStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return Number of ids skipped as already read
+     */
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    /**
+     * @return Number of ids unknown to Blitzr
+     */
+    public long getUnmapped() {
+        return unmapped.get();
+    }
+
+    public long getRetries() {
+        return retrier.getRetries();
+    }
+
+    private Callable<Resolution> lookup(final ExternalId id) {
+        return new Callable<Resolution>() {
+            @Override
+            public Resolution call() throws InterruptedException {
+                long start = stats.start();
+                Lookup lookup = new Lookup(resolver, id);
+                try {
+                    String uuid = retrier.call(lookup);
+                    stats.done(start, true);
+                    return resolution(id, uuid, null, lookup.attempts);
+                } catch (BlitzrException e) {
+                    stats.done(start, false);
+                    return resolution(id, null, e, lookup.attempts);
+                }
+            }
+        };
+    }
+
+    private Resolution resolution(ExternalId id, String uuid, BlitzrException error, int attempts) {
+        if (uuid == null && error == null) {
+            unmapped.incrementAndGet();
+        }
+        return new Resolution(id, uuid, error, attempts);
+    }
+
+    private static Resolution take(CompletionService<Resolution> completion) throws InterruptedException {
+        return get(completion.take());
+    }
+
+    private static Resolution get(Future<Resolution> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new BlitzrException(601, String.valueOf(e.getCause()));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.blitzr.harmonia;
+
+import com.blitzr.models.utils.EntityType;
+import com.blitzr.models.utils.ServiceName;
+
+import java.util.Arrays;
+
+/**
+ * The id of an artist, a label or a release on another service. Two ids with the same type, service and id are
+ * equal, whatever the type of the id (1289 and "1289").
+ */
+public final class ExternalId {
+    private final EntityType type;
+    private final ServiceName service;
+    private final String id;
+
+    /**
+     * @param type artist, label or release
+     * @param service Service name
+     * @param id Id on the service
+     */
+    public ExternalId(EntityType type, ServiceName service, Object id) {
+        if (type == EntityType.track) {
+            throw new IllegalArgumentException("Tracks are matched with harmonia/searchbysource");
+        }
+        this.type = type;
+        this.service = service;
+        this.id = String.valueOf(id);
+    }
+
+    public EntityType getType() {
+        return type;
+    }
+
+    public ServiceName getService() {
+        return service;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ExternalId)) {
+            return false;
+        }
+        return Arrays.equals(values(), ((ExternalId) o).values());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values());
+    }
+
+    @Override
+    public String toString() {
+        return type + "/" + service + "/" + id;
+    }
+
+    private Object[] values() {
+        return new Object[]{type, service, id};
+    }
+}
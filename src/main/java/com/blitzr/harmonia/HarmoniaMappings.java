@@ -0,0 +1,214 @@
+package com.blitzr.harmonia;
+
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.harmonia.HarmoniaProvider;
+import com.blitzr.models.utils.EntityType;
+import com.blitzr.models.utils.Service;
+import com.blitzr.models.utils.ServiceName;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>A bidirectional store of the identifiers of the Blitzr entities in the other services :
+ * (type, service, id) to uuid, and uuid to the id in each service.</p>
+ * <p>It is filled from the harmonia lookups in both directions and from the services of the artists. A uuid is
+ * complete when all its identifiers were learned at once (from getArtistHarmonia or getLabelHarmonia) : a service
+ * missing from a complete uuid has no identifier.</p>
+ * <p>The store can be saved to and loaded from a tab separated file.</p>
+ *
+ * <p>The store is thread safe.</p>
+ */
+public class HarmoniaMappings {
+    private final Map<String, String> uuids = new HashMap<>();
+    private final Map<String, EnumMap<ServiceName, String>> ids = new HashMap<>();
+    private final Set<String> complete = new HashSet<>();
+
+    /**
+     * @param type The entity type
+     * @param service The service
+     * @param id The id of the entity on the service
+     * @param uuid The uuid of the entity on Blitzr
+     */
+    public synchronized void put(EntityType type, ServiceName service, Object id, String uuid) {
+        if (id == null || uuid == null) {
+            return;
+        }
+        String serviceId = String.valueOf(id);
+        uuids.put(forwardKey(type, service, serviceId), uuid);
+        EnumMap<ServiceName, String> entityIds = ids.get(reverseKey(type, uuid));
+        if (entityIds == null) {
+            entityIds = new EnumMap<>(ServiceName.class);
+            ids.put(reverseKey(type, uuid), entityIds);
+        }
+        entityIds.put(service, serviceId);
+    }
+
+    /**
+     * Learn the identifiers of an artist listed in its services.
+     *
+     * @param artist An artist with its services
+     */
+    public void putServices(Artist artist) {
+        if (artist.getUuid() == null || artist.getServices() == null) {
+            return;
+        }
+        for (Service service : artist.getServices()) {
+            ServiceName name = serviceName(service.getService());
+            if (name != null) {
+                put(EntityType.artist, name, service.getId(), artist.getUuid());
+            }
+        }
+        put(EntityType.artist, ServiceName.blitzr, artist.getUuid(), artist.getUuid());
+    }
+
+    /**
+     * Learn all the identifiers of an entity, as returned by getArtistHarmonia or getLabelHarmonia. The uuid is
+     * then complete.
+     *
+     * @param type The entity type
+     * @param uuid The uuid of the entity on Blitzr
+     * @param providers The identifiers by service name
+     */
+    public synchronized void putHarmonia(EntityType type, String uuid, Map<String, HarmoniaProvider> providers) {
+        for (Map.Entry<String, HarmoniaProvider> provider : providers.entrySet()) {
+            ServiceName name = serviceName(provider.getKey());
+            if (name != null && provider.getValue() != null) {
+                put(type, name, provider.getValue().getId(), uuid);
+            }
+        }
+        complete.add(reverseKey(type, uuid));
+    }
+
+    /**
+     * @return The uuid of the entity, null if unknown
+     */
+    public synchronized String getUuid(EntityType type, ServiceName service, Object id) {
+        return (id != null) ? uuids.get(forwardKey(type, service, String.valueOf(id))) : null;
+    }
+
+    /**
+     * @return The id of the entity on the service, null if unknown
+     */
+    public synchronized String getId(EntityType type, String uuid, ServiceName service) {
+        EnumMap<ServiceName, String> entityIds = ids.get(reverseKey(type, uuid));
+        return (entityIds != null) ? entityIds.get(service) : null;
+    }
+
+    /**
+     * @return The known ids of the entity by service
+     */
+    public synchronized Map<ServiceName, String> getIds(EntityType type, String uuid) {
+        EnumMap<ServiceName, String> entityIds = ids.get(reverseKey(type, uuid));
+        return (entityIds != null) ? new EnumMap<>(entityIds) : Collections.<ServiceName, String>emptyMap();
+    }
+
+    /**
+     * @return true if all the identifiers of the entity are known
+     */
+    public synchronized boolean isComplete(EntityType type, String uuid) {
+        return complete.contains(reverseKey(type, uuid));
+    }
+
+    /**
+     * @return Number of (type, service, id) mappings
+     */
+    public synchronized int size() {
+        return uuids.size();
+    }
+
+    public synchronized void clear() {
+        uuids.clear();
+        ids.clear();
+        complete.clear();
+    }
+
+    /**
+     * Write the mappings to a file, replaced atomically.
+     *
+     * @param file The file
+     * @throws IOException If the file cannot be written
+     */
+    public synchronized void save(File file) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8));
+        try {
+            for (Map.Entry<String, EnumMap<ServiceName, String>> entity : ids.entrySet()) {
+                String[] typeAndUuid = entity.getKey().split("/", 2);
+                for (Map.Entry<ServiceName, String> id : entity.getValue().entrySet()) {
+                    writer.write("map\t" + typeAndUuid[0] + "\t" + typeAndUuid[1] + "\t" + id.getKey() + "\t" + id.getValue() + "\n");
+                }
+            }
+            for (String entity : complete) {
+                String[] typeAndUuid = entity.split("/", 2);
+                writer.write("complete\t" + typeAndUuid[0] + "\t" + typeAndUuid[1] + "\n");
+            }
+        } finally {
+            writer.close();
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Add the mappings of a file written by save.
+     *
+     * @param file The file
+     * @return Number of lines read
+     * @throws IOException If the file cannot be read
+     */
+    public synchronized int load(File file) throws IOException {
+        int lines = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length == 5 && "map".equals(fields[0])) {
+                    put(EntityType.valueOf(fields[1]), ServiceName.valueOf(fields[3]), fields[4], fields[2]);
+                } else if (fields.length == 3 && "complete".equals(fields[0])) {
+                    complete.add(reverseKey(EntityType.valueOf(fields[1]), fields[2]));
+                } else {
+                    continue;
+                }
+                lines++;
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+
+    private static ServiceName serviceName(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return ServiceName.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String forwardKey(EntityType type, ServiceName service, String id) {
+        return type + "/" + service + "/" + id;
+    }
+
+    private static String reverseKey(EntityType type, String uuid) {
+        return type + "/" + uuid;
+    }
+}
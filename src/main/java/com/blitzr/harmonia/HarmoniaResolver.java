@@ -0,0 +1,222 @@
+package com.blitzr.harmonia;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.cache.TtlCache;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.label.Label;
+import com.blitzr.models.release.Release;
+import com.blitzr.models.utils.EntityType;
+import com.blitzr.models.utils.ServiceName;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Translate identifiers between Blitzr and the other services, looking in the HarmoniaMappings before calling
+ * the harmonia endpoints.</p>
+ * <p>Every lookup fills the mappings, so a mapping costs a single call. The ids unknown to Blitzr (404) are
+ * remembered for an hour, without being saved with the mappings.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     HarmoniaMappings mappings = new HarmoniaMappings();
+ *     mappings.load(new File("harmonia.tsv"));
+ *     HarmoniaResolver resolver = new HarmoniaResolver(blitzr, mappings);
+ *     String uuid = resolver.resolveArtist(ServiceName.discogs, 1289);
+ *     String spotifyId = resolver.getArtistId(uuid, ServiceName.spotify);
+ * </code></pre>
+ */
+public class HarmoniaResolver {
+    private interface Lookup {
+        /**
+         * @return The uuid of the entity
+         */
+        String lookup(ServiceName service, Object id);
+    }
+
+    private final BlitzrClient client;
+    private final HarmoniaMappings mappings;
+    private final TtlCache<String, Boolean> unmapped = new TtlCache<>(1, TimeUnit.HOURS, 100000);
+    private final AtomicLong storeHits = new AtomicLong();
+    private final AtomicLong calls = new AtomicLong();
+
+    public HarmoniaResolver(BlitzrClient client, HarmoniaMappings mappings) {
+        this.client = client;
+        this.mappings = mappings;
+        unmapped.setName("harmonia-unmapped");
+    }
+
+    public HarmoniaMappings getMappings() {
+        return mappings;
+    }
+
+    /**
+     * @param service Service name
+     * @param id Artist Id on the given service
+     * @return The Artist UUID, null if the id is unknown to Blitzr
+     */
+    public String resolveArtist(ServiceName service, Object id) {
+        return resolve(EntityType.artist, service, id, new Lookup() {
+            @Override
+            public String lookup(ServiceName service, Object id) {
+                Artist artist = client.getHarmoniaArtist(service, id);
+                mappings.putServices(artist);
+                return artist.getUuid();
+            }
+        });
+    }
+
+    /**
+     * @param service Service name
+     * @param id Label Id on the given service
+     * @return The Label UUID, null if the id is unknown to Blitzr
+     */
+    public String resolveLabel(ServiceName service, Object id) {
+        return resolve(EntityType.label, service, id, new Lookup() {
+            @Override
+            public String lookup(ServiceName service, Object id) {
+                Label label = client.getHarmoniaLabel(service, id);
+                return label.getUuid();
+            }
+        });
+    }
+
+    /**
+     * @param service Service name
+     * @param id Release Id on the given service
+     * @return The Release UUID, null if the id is unknown to Blitzr
+     */
+    public String resolveRelease(ServiceName service, Object id) {
+        return resolve(EntityType.release, service, id, new Lookup() {
+            @Override
+            public String lookup(ServiceName service, Object id) {
+                Release release = client.getHarmoniaRelease(service, id);
+                return release.getUuid();
+            }
+        });
+    }
+
+    /**
+     * @param type artist, label or release
+     * @param service Service name
+     * @param id Id on the given service
+     * @return The UUID, null if the id is unknown to Blitzr
+     */
+    public String resolve(EntityType type, ServiceName service, Object id) {
+        switch (type) {
+            case artist:
+                return resolveArtist(service, id);
+            case label:
+                return resolveLabel(service, id);
+            case release:
+                return resolveRelease(service, id);
+            default:
+                throw new IllegalArgumentException("No harmonia lookup for " + type);
+        }
+    }
+
+    /**
+     * @return true if the id is answered without a call, mapped or known to be unmapped
+     */
+    boolean isKnown(EntityType type, ServiceName service, Object id) {
+        return mappings.getUuid(type, service, id) != null || unmapped.get(type + "/" + service + "/" + id) != null;
+    }
+
+    /**
+     * @param uuid The Artist UUID
+     * @return The ids of the artist by service
+     */
+    public Map<ServiceName, String> getArtistIds(String uuid) {
+        if (mappings.isComplete(EntityType.artist, uuid)) {
+            storeHits.incrementAndGet();
+        } else {
+            calls.incrementAndGet();
+            mappings.putHarmonia(EntityType.artist, uuid, client.getArtistHarmonia(null, uuid));
+        }
+        return mappings.getIds(EntityType.artist, uuid);
+    }
+
+    /**
+     * @param uuid The Label UUID
+     * @return The ids of the label by service
+     */
+    public Map<ServiceName, String> getLabelIds(String uuid) {
+        if (mappings.isComplete(EntityType.label, uuid)) {
+            storeHits.incrementAndGet();
+        } else {
+            calls.incrementAndGet();
+            mappings.putHarmonia(EntityType.label, uuid, client.getLabelHarmonia(null, uuid));
+        }
+        return mappings.getIds(EntityType.label, uuid);
+    }
+
+    /**
+     * @param uuid The Artist UUID
+     * @param service Service name
+     * @return The id of the artist on the service, null if it has none
+     */
+    public String getArtistId(String uuid, ServiceName service) {
+        String id = mappings.getId(EntityType.artist, uuid, service);
+        if (id != null) {
+            storeHits.incrementAndGet();
+            return id;
+        }
+        return getArtistIds(uuid).get(service);
+    }
+
+    /**
+     * @param uuid The Label UUID
+     * @param service Service name
+     * @return The id of the label on the service, null if it has none
+     */
+    public String getLabelId(String uuid, ServiceName service) {
+        String id = mappings.getId(EntityType.label, uuid, service);
+        if (id != null) {
+            storeHits.incrementAndGet();
+            return id;
+        }
+        return getLabelIds(uuid).get(service);
+    }
+
+    /**
+     * @return Number of translations answered by the mappings
+     */
+    public long getStoreHits() {
+        return storeHits.get();
+    }
+
+    /**
+     * @return Number of calls to the harmonia endpoints
+     */
+    public long getCalls() {
+        return calls.get();
+    }
+
+    private String resolve(EntityType type, ServiceName service, Object id, Lookup lookup) {
+        String uuid = mappings.getUuid(type, service, id);
+        if (uuid != null) {
+            storeHits.incrementAndGet();
+            return uuid;
+        }
+        String key = type + "/" + service + "/" + id;
+        if (unmapped.get(key) != null) {
+            storeHits.incrementAndGet();
+            return null;
+        }
+        calls.incrementAndGet();
+        try {
+            uuid = lookup.lookup(service, id);
+        } catch (BlitzrException e) {
+            if (e.getmStatusCode() == 404) {
+                unmapped.put(key, Boolean.TRUE);
+                return null;
+            }
+            throw e;
+        }
+        mappings.put(type, service, id, uuid);
+        return uuid;
+    }
+}
@@ -0,0 +1,58 @@
+package com.blitzr.harmonia;
+
+import com.blitzr.exceptions.BlitzrException;
+
+/**
+ * The outcome of the resolution of an ExternalId : mapped to a uuid, unmapped (unknown to Blitzr), or failed.
+ */
+public final class Resolution {
+    private final ExternalId externalId;
+    private final String uuid;
+    private final BlitzrException error;
+    private final int attempts;
+
+    Resolution(ExternalId externalId, String uuid, BlitzrException error, int attempts) {
+        this.externalId = externalId;
+        this.uuid = uuid;
+        this.error = error;
+        this.attempts = attempts;
+    }
+
+    public ExternalId getExternalId() {
+        return externalId;
+    }
+
+    /**
+     * @return The Blitzr uuid, null if unmapped or failed
+     */
+    public String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * @return The error of the last attempt, null if not failed
+     */
+    public BlitzrException getError() {
+        return error;
+    }
+
+    /**
+     * @return Number of calls made, 0 when answered by the mappings
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public boolean isMapped() {
+        return uuid != null;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    @Override
+    public String toString() {
+        return externalId + " -> " + (isFailed() ? "error " + error.getmStatusCode() : uuid);
+    }
+}
@@ -0,0 +1,56 @@
+package com.blitzr.harmonia;
+
+import com.blitzr.models.utils.SourceName;
+
+import java.util.Arrays;
+
+/**
+ * The id of a track on a source, like the entries of a user library. Two ids with the same source and id are
+ * equal, whatever the type of the id.
+ */
+public final class SourceId {
+    private final SourceName source;
+    private final String id;
+
+    /**
+     * @param source Source name
+     * @param id Track Id on the given source
+     */
+    public SourceId(SourceName source, Object id) {
+        this.source = source;
+        this.id = String.valueOf(id);
+    }
+
+    public SourceName getSource() {
+        return source;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SourceId)) {
+            return false;
+        }
+        return Arrays.equals(values(), ((SourceId) o).values());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values());
+    }
+
+    @Override
+    public String toString() {
+        return source + "/" + id;
+    }
+
+    private Object[] values() {
+        return new Object[]{source, id};
+    }
+}
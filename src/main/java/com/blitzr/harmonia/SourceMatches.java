@@ -0,0 +1,51 @@
+package com.blitzr.harmonia;
+
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.track.Track;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of a batch source matching : the matched tracks by source id, and the failures by source id. A failed
+ * id never aborts the rest of the batch.
+ */
+public class SourceMatches {
+    private final LinkedHashMap<SourceId, List<Track>> matches = new LinkedHashMap<>();
+    private final LinkedHashMap<SourceId, BlitzrException> failures = new LinkedHashMap<>();
+    private int cacheHits;
+
+    void addMatch(SourceId id, List<Track> tracks) {
+        matches.put(id, tracks);
+    }
+
+    void addFailure(SourceId id, BlitzrException failure) {
+        failures.put(id, failure);
+    }
+
+    void addCacheHit() {
+        cacheHits++;
+    }
+
+    /**
+     * @return The tracks matching each source id, an empty list when nothing matched, in the order of the request
+     */
+    public Map<SourceId, List<Track>> getMatches() {
+        return matches;
+    }
+
+    /**
+     * @return The error of each source id which could not be matched
+     */
+    public Map<SourceId, BlitzrException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return The number of source ids served by the cache
+     */
+    public int getCacheHits() {
+        return cacheHits;
+    }
+}
@@ -0,0 +1,120 @@
+package com.blitzr.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>The measures of the API calls, by endpoint path : requests, errors by status, bytes and the durations of
+ * the connect, first byte, body and deserialize phases. Like the ApiCaller, the metrics are shared by all the
+ * clients.</p>
+ * <p>The measures are cumulated since the start or the last reset, read them with {@link #snapshot()}. The
+ * MetricsSinks receive the measures of each call as it ends. Set the system property "blitzr.metrics" to false
+ * to disable the metrics.</p>
+ * <p>The payload accounting adds, for each successful call, the characters and JSON objects of the body and the
+ * bytes allocated by the thread to bind it, to find the calls causing the most garbage collection. It is off by
+ * default : turn it on with {@link #setPayloadAccounting(boolean)} or the system property
+ * "blitzr.metrics.payload". The allocated bytes are only measured on the HotSpot JVMs.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     blitzr.getArtist("daft-punk", null);
+ *     MetricsSnapshot snapshot = ApiMetrics.snapshot();
+ *     System.out.println(snapshot.getEndpoint("artist/").getTotal().getPercentileMillis(99));
+ * </code></pre>
+ */
+public final class ApiMetrics {
+    private static final ConcurrentMap<String, EndpointStats> ENDPOINTS = new ConcurrentHashMap<>();
+    private static final List<MetricsSink> SINKS = new CopyOnWriteArrayList<>();
+    private static volatile boolean enabled = !"false".equals(System.getProperty("blitzr.metrics"));
+    private static volatile boolean payloadAccounting = "true".equals(System.getProperty("blitzr.metrics.payload"));
+    private static volatile long startedAt = System.nanoTime();
+
+    private ApiMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled false to stop recording the calls, true by default
+     */
+    public static void setEnabled(boolean enabled) {
+        ApiMetrics.enabled = enabled;
+    }
+
+    public static boolean isPayloadAccounting() {
+        return payloadAccounting;
+    }
+
+    /**
+     * @param payloadAccounting true to count the characters, objects and allocations of each call, false by default
+     */
+    public static void setPayloadAccounting(boolean payloadAccounting) {
+        ApiMetrics.payloadAccounting = payloadAccounting;
+    }
+
+    /**
+     * @param sink A sink receiving the measures of each call
+     */
+    public static void addSink(MetricsSink sink) {
+        SINKS.add(sink);
+    }
+
+    public static void removeSink(MetricsSink sink) {
+        SINKS.remove(sink);
+    }
+
+    /**
+     * Record the measures of a call. Called by the ApiCaller at the end of each call.
+     *
+     * @param request The measures of the call
+     */
+    public static void record(RequestMetrics request) {
+        if (!enabled) {
+            return;
+        }
+        EndpointStats stats = ENDPOINTS.get(request.getEndpoint());
+        if (stats == null) {
+            EndpointStats created = new EndpointStats(request.getEndpoint());
+            stats = ENDPOINTS.putIfAbsent(request.getEndpoint(), created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+        stats.record(request);
+        for (MetricsSink sink : SINKS) {
+            try {
+                sink.onRequest(request);
+            } catch (RuntimeException e) {
+                // A failing sink must not fail the call
+            }
+        }
+    }
+
+    /**
+     * @return A copy of the measures of all the endpoints
+     */
+    public static MetricsSnapshot snapshot() {
+        Map<String, EndpointStats> copies = new HashMap<>();
+        for (EndpointStats stats : new ArrayList<>(ENDPOINTS.values())) {
+            copies.put(stats.getEndpoint(), stats.copy());
+        }
+        return new MetricsSnapshot(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), copies);
+    }
+
+    /**
+     * Forget all the measures. The sinks are kept.
+     */
+    public static void reset() {
+        ENDPOINTS.clear();
+        startedAt = System.nanoTime();
+    }
+}
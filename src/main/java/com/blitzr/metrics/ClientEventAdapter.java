@@ -0,0 +1,22 @@
+package com.blitzr.metrics;
+
+/**
+ * A ClientEventListener ignoring all the events, to override the ones to receive.
+ */
+public abstract class ClientEventAdapter implements ClientEventListener {
+    @Override
+    public void onRequest(RequestMetrics request) {
+    }
+
+    @Override
+    public void onDeserialize(String endpoint, String type, long nanos) {
+    }
+
+    @Override
+    public void onCacheLookup(String cache, Object key, boolean hit) {
+    }
+
+    @Override
+    public void onGeneratorPage(int start, int limit, int items, long waitNanos) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.blitzr.metrics;
+
+/**
+ * <p>Receive the events of the client, to trace where the time goes : API calls, deserialization, cache lookups
+ * and Generator pages.</p>
+ * <p>The listener is called by the thread doing the work, at its end : it must be fast and thread safe. An
+ * exception thrown by a listener is ignored. Extend {@link ClientEventAdapter} to receive only some events.</p>
+ * <p>On JDK 11 or later, com.blitzr.jfr.JfrEventListener (the "jfr" jar) commits these events as Flight Recorder
+ * events, so a recording shows the client activity on the threads doing it.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     ClientEvents.addListener(new ClientEventAdapter() {
+ *         public void onGeneratorPage(int start, int limit, int items, long waitNanos) {
+ *             if (waitNanos &gt; TimeUnit.SECONDS.toNanos(1)) {
+ *                 log.warning("Slow page at " + start + " : " + items + " items");
+ *             }
+ *         }
+ *     });
+ * </code></pre>
+ */
+public interface ClientEventListener {
+    /**
+     * An API call ended.
+     *
+     * @param request The endpoint, status, bytes and durations of the call
+     */
+    void onRequest(RequestMetrics request);
+
+    /**
+     * The body of a successful API call was bound.
+     *
+     * @param endpoint The endpoint path (eg: "artist/")
+     * @param type The bound type (eg: "java.util.List&lt;com.blitzr.models.artist.Artist&gt;")
+     * @param nanos The time spent binding the body
+     */
+    void onDeserialize(String endpoint, String type, long nanos);
+
+    /**
+     * A value was looked up in a TtlCache.
+     *
+     * @param cache The name of the cache
+     * @param key The key looked up
+     * @param hit true if the value was cached
+     */
+    void onCacheLookup(String cache, Object key, boolean hit);
+
+    /**
+     * A Generator fetched a page.
+     *
+     * @param start The offset of the page
+     * @param limit The size of the page asked
+     * @param items The number of items received
+     * @param waitNanos The time spent fetching the page, waited by the consumer of the Generator
+     */
+    void onGeneratorPage(int start, int limit, int items, long waitNanos);
+}
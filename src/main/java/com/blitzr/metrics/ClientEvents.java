@@ -0,0 +1,86 @@
+package com.blitzr.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * <p>The ClientEventListeners of the client, shared by all the clients like the ApiMetrics.</p>
+ * <p>The client fires the events through the static methods of this class. Without listeners, firing an event
+ * costs a volatile read.</p>
+ */
+public final class ClientEvents {
+    private static final List<ClientEventListener> LISTENERS = new CopyOnWriteArrayList<>();
+    private static volatile boolean listened;
+
+    private ClientEvents() {
+    }
+
+    public static synchronized void addListener(ClientEventListener listener) {
+        LISTENERS.add(listener);
+        listened = true;
+    }
+
+    public static synchronized void removeListener(ClientEventListener listener) {
+        LISTENERS.remove(listener);
+        listened = !LISTENERS.isEmpty();
+    }
+
+    /**
+     * @return true if there is at least one listener
+     */
+    public static boolean isListened() {
+        return listened;
+    }
+
+    public static void request(RequestMetrics request) {
+        if (!listened) {
+            return;
+        }
+        for (ClientEventListener listener : LISTENERS) {
+            try {
+                listener.onRequest(request);
+            } catch (RuntimeException e) {
+                // A failing listener must not fail the client
+            }
+        }
+    }
+
+    public static void deserialize(String endpoint, String type, long nanos) {
+        if (!listened) {
+            return;
+        }
+        for (ClientEventListener listener : LISTENERS) {
+            try {
+                listener.onDeserialize(endpoint, type, nanos);
+            } catch (RuntimeException e) {
+                // A failing listener must not fail the client
+            }
+        }
+    }
+
+    public static void cacheLookup(String cache, Object key, boolean hit) {
+        if (!listened) {
+            return;
+        }
+        for (ClientEventListener listener : LISTENERS) {
+            try {
+                listener.onCacheLookup(cache, key, hit);
+            } catch (RuntimeException e) {
+                // A failing listener must not fail the client
+            }
+        }
+    }
+
+    public static void generatorPage(int start, int limit, int items, long waitNanos) {
+        if (!listened) {
+            return;
+        }
+        for (ClientEventListener listener : LISTENERS) {
+            try {
+                listener.onGeneratorPage(start, limit, items, waitNanos);
+            } catch (RuntimeException e) {
+                // A failing listener must not fail the client
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.blitzr.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The cumulated measures of the calls to one endpoint. Safe to read while the calls run.
+ */
+public class EndpointStats {
+    private final String endpoint;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final ConcurrentMap<Integer, AtomicLong> errorsByStatus = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong accounted = new AtomicLong();
+    private final AtomicLong chars = new AtomicLong();
+    private final AtomicLong objects = new AtomicLong();
+    private final AtomicLong allocated = new AtomicLong();
+    private final AtomicLong allocationMeasures = new AtomicLong();
+    private final AtomicLong maxAllocated = new AtomicLong();
+    private final LatencyHistogram connect;
+    private final LatencyHistogram firstByte;
+    private final LatencyHistogram body;
+    private final LatencyHistogram deserialize;
+    private final LatencyHistogram total;
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+        this.connect = new LatencyHistogram();
+        this.firstByte = new LatencyHistogram();
+        this.body = new LatencyHistogram();
+        this.deserialize = new LatencyHistogram();
+        this.total = new LatencyHistogram();
+    }
+
+    private EndpointStats(EndpointStats stats) {
+        this.endpoint = stats.endpoint;
+        this.requests.set(stats.requests.get());
+        this.errors.set(stats.errors.get());
+        for (Map.Entry<Integer, AtomicLong> status : stats.errorsByStatus.entrySet()) {
+            this.errorsByStatus.put(status.getKey(), new AtomicLong(status.getValue().get()));
+        }
+        this.bytes.set(stats.bytes.get());
+        this.accounted.set(stats.accounted.get());
+        this.chars.set(stats.chars.get());
+        this.objects.set(stats.objects.get());
+        this.allocated.set(stats.allocated.get());
+        this.allocationMeasures.set(stats.allocationMeasures.get());
+        this.maxAllocated.set(stats.maxAllocated.get());
+        this.connect = stats.connect.copy();
+        this.firstByte = stats.firstByte.copy();
+        this.body = stats.body.copy();
+        this.deserialize = stats.deserialize.copy();
+        this.total = stats.total.copy();
+    }
+
+    void record(RequestMetrics request) {
+        requests.incrementAndGet();
+        if (request.isError()) {
+            errors.incrementAndGet();
+            AtomicLong count = errorsByStatus.get(request.getStatus());
+            if (count == null) {
+                AtomicLong created = new AtomicLong();
+                count = errorsByStatus.putIfAbsent(request.getStatus(), created);
+                if (count == null) {
+                    count = created;
+                }
+            }
+            count.incrementAndGet();
+        }
+        bytes.addAndGet(request.getBytes());
+        if (request.getChars() >= 0) {
+            accounted.incrementAndGet();
+            chars.addAndGet(request.getChars());
+            objects.addAndGet(Math.max(0, request.getObjects()));
+        }
+        if (request.getAllocatedBytes() >= 0) {
+            allocationMeasures.incrementAndGet();
+            allocated.addAndGet(request.getAllocatedBytes());
+            long max;
+            while (request.getAllocatedBytes() > (max = maxAllocated.get())
+                    && !maxAllocated.compareAndSet(max, request.getAllocatedBytes())) {
+                // Retry until the max is set or a greater one was recorded
+            }
+        }
+        connect.record(request.getConnectNanos());
+        // The phases not reached are not recorded, so they do not lower the percentiles
+        if (request.getFirstByteNanos() > 0) {
+            firstByte.record(request.getFirstByteNanos());
+        }
+        if (!request.isError()) {
+            body.record(request.getBodyNanos());
+            deserialize.record(request.getDeserializeNanos());
+        }
+        total.record(request.getTotalNanos());
+    }
+
+    /**
+     * @return A copy of these stats, not updated anymore
+     */
+    EndpointStats copy() {
+        return new EndpointStats(this);
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * @return The number of errors by status (eg: 404, 600 for the network errors), sorted by status
+     */
+    public Map<Integer, Long> getErrorsByStatus() {
+        TreeMap<Integer, Long> counts = new TreeMap<>();
+        for (Map.Entry<Integer, AtomicLong> status : errorsByStatus.entrySet()) {
+            counts.put(status.getKey(), status.getValue().get());
+        }
+        return counts;
+    }
+
+    /**
+     * @return The number of bytes of the response bodies
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * @return The average number of bytes of the response bodies
+     */
+    public double getBytesPerRequest() {
+        long n = requests.get();
+        return (n > 0) ? (double) bytes.get() / n : 0;
+    }
+
+    /**
+     * @return The number of successful calls whose payload was accounted
+     */
+    public long getAccountedRequests() {
+        return accounted.get();
+    }
+
+    /**
+     * @return The number of characters of the accounted bodies
+     */
+    public long getChars() {
+        return chars.get();
+    }
+
+    /**
+     * @return The number of JSON objects bound from the accounted bodies
+     */
+    public long getObjects() {
+        return objects.get();
+    }
+
+    /**
+     * @return The average number of JSON objects bound by accounted call
+     */
+    public double getObjectsPerRequest() {
+        long n = accounted.get();
+        return (n > 0) ? (double) objects.get() / n : 0;
+    }
+
+    /**
+     * @return The bytes allocated while reading and binding the accounted bodies, 0 if the JVM cannot measure them
+     */
+    public long getAllocatedBytes() {
+        return allocated.get();
+    }
+
+    /**
+     * @return The average bytes allocated by accounted call
+     */
+    public double getAllocatedBytesPerRequest() {
+        long n = allocationMeasures.get();
+        return (n > 0) ? (double) allocated.get() / n : 0;
+    }
+
+    /**
+     * @return The most bytes allocated by one call
+     */
+    public long getMaxAllocatedBytes() {
+        return maxAllocated.get();
+    }
+
+    public LatencyHistogram getConnect() {
+        return connect;
+    }
+
+    public LatencyHistogram getFirstByte() {
+        return firstByte;
+    }
+
+    /**
+     * @return The time spent reading the bodies of the successful calls
+     */
+    public LatencyHistogram getBody() {
+        return body;
+    }
+
+    /**
+     * @return The time spent binding the bodies of the successful calls
+     */
+    public LatencyHistogram getDeserialize() {
+        return deserialize;
+    }
+
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        String text = String.format("%s: %d requests, %d errors %s, %d bytes, total %s", endpoint, getRequests(),
+                getErrors(), getErrorsByStatus(), getBytes(), total);
+        if (getAccountedRequests() > 0) {
+            text += String.format(", %.0f objects/call, %.0f bytes allocated/call (max %d)", getObjectsPerRequest(),
+                    getAllocatedBytesPerRequest(), getMaxAllocatedBytes());
+        }
+        return text;
+    }
+}
@@ -0,0 +1,122 @@
+package com.blitzr.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>A thread safe histogram of durations, with buckets doubling in size : bucket 0 counts the durations under
+ * 1 microsecond, bucket i the durations from 2^(i-1) to 2^i microseconds. The percentiles are the upper bound of
+ * their bucket, so they are precise to a factor of 2.</p>
+ */
+public class LatencyHistogram {
+    /**
+     * The last bucket counts all the durations from 2^(BUCKETS-2) microseconds (about 9 minutes).
+     */
+    public static final int BUCKETS = 31;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * @param nanos A duration in nanoseconds, ignored if negative
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        buckets.incrementAndGet(bucket(nanos));
+        count.incrementAndGet();
+        sumNanos.addAndGet(nanos);
+        long max;
+        while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+            // Retry until the max is set or a greater one was recorded
+        }
+    }
+
+    /**
+     * @return A copy of this histogram, not updated anymore
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        for (int i = 0; i < BUCKETS; i++) {
+            copy.buckets.set(i, buckets.get(i));
+        }
+        copy.count.set(count.get());
+        copy.sumNanos.set(sumNanos.get());
+        copy.maxNanos.set(maxNanos.get());
+        return copy;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return The average duration in milliseconds, 0 if nothing was recorded
+     */
+    public double getMeanMillis() {
+        long n = count.get();
+        return (n > 0) ? sumNanos.get() / (n * 1e6) : 0;
+    }
+
+    /**
+     * @return The longest duration in milliseconds
+     */
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * @param percentile The percentile, from 0 to 100 (eg: 99 for the p99)
+     * @return The upper bound in milliseconds of the bucket holding the percentile, 0 if nothing was recorded
+     */
+    public double getPercentileMillis(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(n * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(getBucketBoundMicros(i) / 1e3, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * @return The number of durations of each bucket
+     */
+    public long[] getBuckets() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * @param bucket A bucket index
+     * @return The exclusive upper bound of the bucket in microseconds, Long.MAX_VALUE for the last bucket
+     */
+    public static long getBucketBoundMicros(int bucket) {
+        return (bucket < BUCKETS - 1) ? 1L << bucket : Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.1fms p50=%.1fms p99=%.1fms max=%.1fms", getCount(), getMeanMillis(),
+                getPercentileMillis(50), getPercentileMillis(99), getMaxMillis());
+    }
+
+    private static int bucket(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+}
@@ -0,0 +1,25 @@
+package com.blitzr.metrics;
+
+/**
+ * <p>Receive the measures of each API call, to export them to a monitoring system.</p>
+ * <p>The sink is called by the thread which made the call, just before the result is returned : it must be fast
+ * and thread safe. An exception thrown by a sink is ignored.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     ApiMetrics.addSink(new MetricsSink() {
+ *         public void onRequest(RequestMetrics request) {
+ *             if (request.getTotalNanos() &gt; 1000000000L) {
+ *                 logger.warn("Slow call : " + request);
+ *             }
+ *         }
+ *     });
+ * </code></pre>
+ */
+public interface MetricsSink {
+    /**
+     * @param request The measures of the call
+     */
+    void onRequest(RequestMetrics request);
+}
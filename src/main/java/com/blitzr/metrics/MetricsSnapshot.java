@@ -0,0 +1,90 @@
+package com.blitzr.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The measures of all the endpoints at a point in time, returned by {@link ApiMetrics#snapshot()}.
+ */
+public class MetricsSnapshot {
+    private final long elapsedMillis;
+    private final Map<String, EndpointStats> endpoints;
+
+    MetricsSnapshot(long elapsedMillis, Map<String, EndpointStats> endpoints) {
+        this.elapsedMillis = elapsedMillis;
+        this.endpoints = Collections.unmodifiableMap(new TreeMap<>(endpoints));
+    }
+
+    /**
+     * @return The time since the metrics were started or reset, in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return The stats of each called endpoint, sorted by endpoint path
+     */
+    public Map<String, EndpointStats> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * @param endpoint The endpoint path (eg: "artist/")
+     * @return Its stats, null if it was not called
+     */
+    public EndpointStats getEndpoint(String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    public long getRequests() {
+        long requests = 0;
+        for (EndpointStats stats : endpoints.values()) {
+            requests += stats.getRequests();
+        }
+        return requests;
+    }
+
+    public long getErrors() {
+        long errors = 0;
+        for (EndpointStats stats : endpoints.values()) {
+            errors += stats.getErrors();
+        }
+        return errors;
+    }
+
+    public long getBytes() {
+        long bytes = 0;
+        for (EndpointStats stats : endpoints.values()) {
+            bytes += stats.getBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return The number of requests by second of elapsed time, on all the endpoints
+     */
+    public double getThroughput() {
+        return (elapsedMillis > 0) ? getRequests() * 1000.0 / elapsedMillis : 0;
+    }
+
+    /**
+     * @param endpoint The endpoint path
+     * @return The number of requests to the endpoint by second of elapsed time
+     */
+    public double getThroughput(String endpoint) {
+        EndpointStats stats = endpoints.get(endpoint);
+        return (stats != null && elapsedMillis > 0) ? stats.getRequests() * 1000.0 / elapsedMillis : 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format("%d requests, %d errors, %d bytes, %.1f requests/s",
+                getRequests(), getErrors(), getBytes(), getThroughput()));
+        for (EndpointStats stats : endpoints.values()) {
+            builder.append('\n').append(stats);
+        }
+        return builder.toString();
+    }
+}
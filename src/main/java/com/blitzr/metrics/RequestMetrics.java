@@ -0,0 +1,147 @@
+package com.blitzr.metrics;
+
+import com.blitzr.exceptions.BlitzrException;
+
+/**
+ * <p>The measures of one API call, given to the MetricsSinks.</p>
+ * <p>The phases follow each other : connect (TCP and TLS handshakes), first byte (sending the request and waiting
+ * for the response headers), then the body is read and deserialized at the same time, as the response is bound
+ * straight from the connection. The body time is the time spent waiting for the network, the deserialize time is
+ * the rest (including the visitor of visitApiList). A phase not reached because of an error is 0.</p>
+ * <p>With the payload accounting of the ApiMetrics, a successful call also has the number of characters and JSON
+ * objects of its body and the bytes allocated by the thread while binding it. They are -1 when not measured.</p>
+ */
+public class RequestMetrics {
+    private final String endpoint;
+    private final int status;
+    private final long connectNanos;
+    private final long firstByteNanos;
+    private final long bodyNanos;
+    private final long deserializeNanos;
+    private final long bytes;
+    private final long chars;
+    private final long objects;
+    private final long allocatedBytes;
+    private final BlitzrException error;
+
+    /**
+     * @param endpoint The endpoint path (eg: "artist/")
+     * @param status The HTTP status, or the status of the error (600 for a network error)
+     * @param connectNanos The connection duration
+     * @param firstByteNanos The duration from the connection to the response headers
+     * @param bodyNanos The time spent reading the body from the connection
+     * @param deserializeNanos The time spent binding the body
+     * @param bytes The number of bytes of the body
+     * @param error The error of the call, null if it succeeded
+     */
+    public RequestMetrics(String endpoint, int status, long connectNanos, long firstByteNanos, long bodyNanos,
+                          long deserializeNanos, long bytes, BlitzrException error) {
+        this(endpoint, status, connectNanos, firstByteNanos, bodyNanos, deserializeNanos, bytes, -1, -1, -1, error);
+    }
+
+    /**
+     * @param endpoint The endpoint path (eg: "artist/")
+     * @param status The HTTP status, or the status of the error (600 for a network error)
+     * @param connectNanos The connection duration
+     * @param firstByteNanos The duration from the connection to the response headers
+     * @param bodyNanos The time spent reading the body from the connection
+     * @param deserializeNanos The time spent binding the body
+     * @param bytes The number of bytes of the body
+     * @param chars The number of characters of the body, -1 if not counted
+     * @param objects The number of JSON objects bound, -1 if not counted
+     * @param allocatedBytes The bytes allocated by the thread while reading and binding the body, -1 if unknown
+     * @param error The error of the call, null if it succeeded
+     */
+    public RequestMetrics(String endpoint, int status, long connectNanos, long firstByteNanos, long bodyNanos,
+                          long deserializeNanos, long bytes, long chars, long objects, long allocatedBytes,
+                          BlitzrException error) {
+        this.endpoint = endpoint;
+        this.status = status;
+        this.connectNanos = connectNanos;
+        this.firstByteNanos = firstByteNanos;
+        this.bodyNanos = bodyNanos;
+        this.deserializeNanos = deserializeNanos;
+        this.bytes = bytes;
+        this.chars = chars;
+        this.objects = objects;
+        this.allocatedBytes = allocatedBytes;
+        this.error = error;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getConnectNanos() {
+        return connectNanos;
+    }
+
+    public long getFirstByteNanos() {
+        return firstByteNanos;
+    }
+
+    public long getBodyNanos() {
+        return bodyNanos;
+    }
+
+    public long getDeserializeNanos() {
+        return deserializeNanos;
+    }
+
+    /**
+     * @return The duration of the whole call, without the time of the visitor in visit mode
+     */
+    public long getTotalNanos() {
+        return connectNanos + firstByteNanos + bodyNanos + deserializeNanos;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return The number of characters (code points) of the body, -1 if not counted
+     */
+    public long getChars() {
+        return chars;
+    }
+
+    /**
+     * @return The number of JSON objects bound, without the skipped ones (eg: unknown properties), -1 if not
+     * counted
+     */
+    public long getObjects() {
+        return objects;
+    }
+
+    /**
+     * @return The bytes allocated by the thread while reading and binding the body, without the allocations of the
+     * visitor in visit mode, -1 if unknown
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public BlitzrException getError() {
+        return error;
+    }
+
+    public boolean isError() {
+        return error != null;
+    }
+
+    @Override
+    public String toString() {
+        String text = String.format("%s %d %.1fms (connect %.1f, first byte %.1f, body %.1f, deserialize %.1f) %d bytes",
+                endpoint, status, getTotalNanos() / 1e6, connectNanos / 1e6, firstByteNanos / 1e6, bodyNanos / 1e6,
+                deserializeNanos / 1e6, bytes);
+        if (chars >= 0) {
+            text += String.format(", %d chars, %d objects, %d bytes allocated", chars, objects, allocatedBytes);
+        }
+        return text;
+    }
+}
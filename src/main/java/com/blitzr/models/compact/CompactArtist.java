@@ -0,0 +1,123 @@
+package com.blitzr.models.compact;
+
+import com.blitzr.Projection;
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.artist.ArtistType;
+import com.blitzr.models.tag.Tag;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Immutable and compact version of {@link Artist}. Type and location code are interned, missing begin and end dates
+ * are 0. Nested lists (releases, events, members...) are not kept.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class CompactArtist {
+    /**
+     * Bind the API responses straight to CompactArtist, without building the regular models (eg: with the
+     * projection overloads of the BlitzrClient list methods).
+     */
+    public static final Projection<CompactArtist> VIEW = Projection.view(CompactArtist.class);
+
+    private final String uuid;
+    private final String slug;
+    private final String name;
+    private final String thumb;
+    private final String type;
+    private final String location;
+    private final String locationCode;
+    private final int beginDate;
+    private final int endDate;
+    private final List<String> tags;
+
+    private CompactArtist(String uuid, String slug, String name, String thumb, String type, String location,
+                          String locationCode, int beginDate, int endDate, List<String> tags) {
+        this.uuid = uuid;
+        this.slug = slug;
+        this.name = name;
+        this.thumb = thumb;
+        this.type = StringPool.intern(type);
+        this.location = location;
+        this.locationCode = StringPool.intern(locationCode);
+        this.beginDate = beginDate;
+        this.endDate = endDate;
+        this.tags = tags;
+    }
+
+    @JsonCreator
+    static CompactArtist create(@JsonProperty("uuid") String uuid,
+                                @JsonProperty("slug") String slug,
+                                @JsonProperty("name") String name,
+                                @JsonProperty("thumb") String thumb,
+                                @JsonProperty("type") String type,
+                                @JsonProperty("location") String location,
+                                @JsonProperty("location_code") String locationCode,
+                                @JsonProperty("begin_date") Integer beginDate,
+                                @JsonProperty("end_date") Integer endDate,
+                                @JsonProperty("tags") List<Tag> tags) {
+        return new CompactArtist(uuid, slug, name, thumb, type, location, locationCode,
+                (beginDate != null) ? beginDate : 0, (endDate != null) ? endDate : 0, CompactLists.tagSlugs(tags));
+    }
+
+    public static CompactArtist of(Artist artist) {
+        return create(artist.getUuid(), artist.getSlug(), artist.getName(), artist.getThumb(), artist.getType(),
+                artist.getLocation(), artist.getLocation_code(), artist.getBegin_date(), artist.getEnd_date(),
+                artist.getTags());
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getThumb() {
+        return thumb;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return The type as an ArtistType, null if unknown
+     */
+    public ArtistType getArtistType() {
+        return StringPool.toEnum(ArtistType.class, type);
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getLocationCode() {
+        return locationCode;
+    }
+
+    /**
+     * @return The begin year, 0 if unknown
+     */
+    public int getBeginDate() {
+        return beginDate;
+    }
+
+    /**
+     * @return The end year, 0 if unknown
+     */
+    public int getEndDate() {
+        return endDate;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+}
@@ -0,0 +1,123 @@
+package com.blitzr.models.compact;
+
+import com.blitzr.Projection;
+import com.blitzr.models.event.Event;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable and compact version of {@link Event}. Country and categories are interned, artists are kept as
+ * uuids and dates as timestamps. Providers are not kept.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class CompactEvent {
+    /**
+     * Bind the API responses straight to CompactEvent, without building the regular models (eg: with the
+     * projection overloads of the BlitzrClient list methods).
+     */
+    public static final Projection<CompactEvent> VIEW = Projection.view(CompactEvent.class);
+
+    private final String id;
+    private final String slug;
+    private final String name;
+    private final long dateStart;
+    private final long dateEnd;
+    private final String venue;
+    private final String city;
+    private final String country;
+    private final List<String> categories;
+    private final List<String> artistUuids;
+
+    private CompactEvent(String id, String slug, String name, long dateStart, long dateEnd, String venue, String city,
+                         String country, List<String> categories, List<String> artistUuids) {
+        this.id = id;
+        this.slug = slug;
+        this.name = name;
+        this.dateStart = dateStart;
+        this.dateEnd = dateEnd;
+        this.venue = venue;
+        this.city = city;
+        this.country = StringPool.intern(country);
+        this.categories = categories;
+        this.artistUuids = artistUuids;
+    }
+
+    @JsonCreator
+    static CompactEvent create(@JsonProperty("id") String id,
+                               @JsonProperty("slug") String slug,
+                               @JsonProperty("name") String name,
+                               @JsonProperty("date_start") Date dateStart,
+                               @JsonProperty("date_end") Date dateEnd,
+                               @JsonProperty("venue") String venue,
+                               @JsonProperty("city") String city,
+                               @JsonProperty("country") String country,
+                               @JsonProperty("categories") List<String> categories,
+                               @JsonProperty("artists") List<UuidRef> artists) {
+        return new CompactEvent(id, slug, name, CompactLists.time(dateStart), CompactLists.time(dateEnd), venue, city,
+                country, StringPool.internAll(categories), CompactLists.artistUuids(artists));
+    }
+
+    public static CompactEvent of(Event event) {
+        return create(event.getId(), event.getSlug(), event.getName(), event.getDate_start(), event.getDate_end(),
+                event.getVenue(), event.getCity(), event.getCountry(), event.getCategories(),
+                UuidRef.ofArtists(event.getArtists()));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The start date in milliseconds since epoch, Long.MIN_VALUE if unknown
+     */
+    public long getStartTime() {
+        return dateStart;
+    }
+
+    public Date getDate_start() {
+        return CompactLists.date(dateStart);
+    }
+
+    /**
+     * @return The end date in milliseconds since epoch, Long.MIN_VALUE if unknown
+     */
+    public long getEndTime() {
+        return dateEnd;
+    }
+
+    public Date getDate_end() {
+        return CompactLists.date(dateEnd);
+    }
+
+    public String getVenue() {
+        return venue;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    public List<String> getArtistUuids() {
+        return artistUuids;
+    }
+}
@@ -0,0 +1,63 @@
+package com.blitzr.models.compact;
+
+import com.blitzr.models.tag.Tag;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Conversion helpers shared by the compact models.
+ */
+final class CompactLists {
+    static final long NO_DATE = Long.MIN_VALUE;
+
+    private CompactLists() {
+    }
+
+    /**
+     * Immutable copy of a list using the smallest representation available : the shared empty list, a singleton
+     * list or an exactly sized array list.
+     */
+    static <T> List<T> of(Collection<? extends T> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (values.size() == 1) {
+            return Collections.<T>singletonList(values.iterator().next());
+        }
+        return Collections.unmodifiableList(new ArrayList<T>(values));
+    }
+
+    static List<String> artistUuids(List<UuidRef> artists) {
+        if (artists == null || artists.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> uuids = new ArrayList<>(artists.size());
+        for (UuidRef artist : artists) {
+            uuids.add(artist.getUuid());
+        }
+        return of(uuids);
+    }
+
+    static List<String> tagSlugs(List<Tag> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> slugs = new ArrayList<>(tags.size());
+        for (Tag tag : tags) {
+            slugs.add(tag.getSlug());
+        }
+        return of(slugs);
+    }
+
+    static long time(Date date) {
+        return (date != null) ? date.getTime() : NO_DATE;
+    }
+
+    static Date date(long time) {
+        return (time != NO_DATE) ? new Date(time) : null;
+    }
+}
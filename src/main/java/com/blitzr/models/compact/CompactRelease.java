@@ -0,0 +1,152 @@
+package com.blitzr.models.compact;
+
+import com.blitzr.Projection;
+import com.blitzr.models.release.Release;
+import com.blitzr.models.release.ReleaseFormat;
+import com.blitzr.models.release.ReleaseType;
+import com.blitzr.models.tag.Tag;
+import com.blitzr.models.track.Track;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable and compact version of {@link Release}. Type and format are interned, artists are kept as uuids and
+ * the release date as a timestamp.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class CompactRelease {
+    /**
+     * Bind the API responses straight to CompactRelease, without building the regular models (eg: with the
+     * projection overloads of the BlitzrClient list methods).
+     */
+    public static final Projection<CompactRelease> VIEW = Projection.view(CompactRelease.class);
+
+    private final String uuid;
+    private final String slug;
+    private final String name;
+    private final String thumb;
+    private final String type;
+    private final String format;
+    private final long releaseDate;
+    private final int tracksCount;
+    private final List<String> artistUuids;
+    private final List<String> tags;
+    private final List<CompactTrack> tracklist;
+
+    private CompactRelease(String uuid, String slug, String name, String thumb, String type, String format,
+                           long releaseDate, int tracksCount, List<String> artistUuids, List<String> tags,
+                           List<CompactTrack> tracklist) {
+        this.uuid = uuid;
+        this.slug = slug;
+        this.name = name;
+        this.thumb = thumb;
+        this.type = StringPool.intern(type);
+        this.format = StringPool.intern(format);
+        this.releaseDate = releaseDate;
+        this.tracksCount = tracksCount;
+        this.artistUuids = artistUuids;
+        this.tags = tags;
+        this.tracklist = tracklist;
+    }
+
+    @JsonCreator
+    static CompactRelease create(@JsonProperty("uuid") String uuid,
+                                 @JsonProperty("slug") String slug,
+                                 @JsonProperty("name") String name,
+                                 @JsonProperty("thumb") String thumb,
+                                 @JsonProperty("type") String type,
+                                 @JsonProperty("format") String format,
+                                 @JsonProperty("release_date") Date releaseDate,
+                                 @JsonProperty("tracks_count") Integer tracksCount,
+                                 @JsonProperty("artists") List<UuidRef> artists,
+                                 @JsonProperty("tags") List<Tag> tags,
+                                 @JsonProperty("tracklist") List<CompactTrack> tracklist) {
+        return new CompactRelease(uuid, slug, name, thumb, type, format, CompactLists.time(releaseDate),
+                (tracksCount != null) ? tracksCount : 0, CompactLists.artistUuids(artists),
+                CompactLists.tagSlugs(tags), CompactLists.of(tracklist));
+    }
+
+    public static CompactRelease of(Release release) {
+        List<CompactTrack> tracklist = Collections.emptyList();
+        if (release.getTracklist() != null && !release.getTracklist().isEmpty()) {
+            tracklist = new ArrayList<>(release.getTracklist().size());
+            for (Track track : release.getTracklist()) {
+                tracklist.add(CompactTrack.of(track));
+            }
+        }
+        return create(release.getUuid(), release.getSlug(), release.getName(), release.getThumb(), release.getType(),
+                release.getFormat(), release.getRelease_date(), release.getTracks_count(), UuidRef.ofArtists(release.getArtists()),
+                release.getTags(), tracklist);
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getThumb() {
+        return thumb;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return The type as a ReleaseType, null if unknown
+     */
+    public ReleaseType getReleaseType() {
+        return StringPool.toEnum(ReleaseType.class, type);
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * @return The format as a ReleaseFormat, null if unknown
+     */
+    public ReleaseFormat getReleaseFormat() {
+        return StringPool.toEnum(ReleaseFormat.class, format);
+    }
+
+    /**
+     * @return The release date in milliseconds since epoch, Long.MIN_VALUE if unknown
+     */
+    public long getReleaseTime() {
+        return releaseDate;
+    }
+
+    public Date getRelease_date() {
+        return CompactLists.date(releaseDate);
+    }
+
+    public int getTracksCount() {
+        return tracksCount;
+    }
+
+    public List<String> getArtistUuids() {
+        return artistUuids;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public List<CompactTrack> getTracklist() {
+        return tracklist;
+    }
+}
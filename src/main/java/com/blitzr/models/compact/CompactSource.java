@@ -0,0 +1,82 @@
+package com.blitzr.models.compact;
+
+import com.blitzr.Projection;
+import com.blitzr.models.track.Source;
+import com.blitzr.models.utils.SourceName;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Immutable and compact version of {@link Source}. The source name and tags are interned, a missing score is 0 and a
+ * missing safe flag is false.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class CompactSource {
+    /**
+     * Bind the API responses straight to CompactSource, without building the regular models (eg: with the
+     * projection overloads of the BlitzrClient list methods).
+     */
+    public static final Projection<CompactSource> VIEW = Projection.view(CompactSource.class);
+
+    private final String source;
+    private final Object id;
+    private final String url;
+    private final boolean safe;
+    private final int score;
+    private final List<String> tags;
+
+    private CompactSource(String source, Object id, String url, boolean safe, int score, List<String> tags) {
+        this.source = StringPool.intern(source);
+        this.id = id;
+        this.url = url;
+        this.safe = safe;
+        this.score = score;
+        this.tags = StringPool.internAll(tags);
+    }
+
+    @JsonCreator
+    static CompactSource create(@JsonProperty("source") String source,
+                                @JsonProperty("id") Object id,
+                                @JsonProperty("url") String url,
+                                @JsonProperty("safe") Boolean safe,
+                                @JsonProperty("score") Integer score,
+                                @JsonProperty("tags") List<String> tags) {
+        return new CompactSource(source, id, url, safe != null && safe, (score != null) ? score : 0, tags);
+    }
+
+    public static CompactSource of(Source source) {
+        return create(source.getSource(), source.getId(), source.getUrl(), source.getSafe(), source.getScore(),
+                source.getTags());
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public SourceName getSourceName() {
+        return StringPool.toEnum(SourceName.class, source);
+    }
+
+    public Object getId() {
+        return id;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public boolean isSafe() {
+        return safe;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+}
@@ -0,0 +1,116 @@
+package com.blitzr.models.compact;
+
+import com.blitzr.Projection;
+import com.blitzr.models.track.Source;
+import com.blitzr.models.track.Track;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable and compact version of {@link Track}. Credited and search artists are kept as uuids, the release as its
+ * uuid.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class CompactTrack {
+    /**
+     * Bind the API responses straight to CompactTrack, without building the regular models (eg: with the
+     * projection overloads of the BlitzrClient list methods).
+     */
+    public static final Projection<CompactTrack> VIEW = Projection.view(CompactTrack.class);
+
+    private final String uuid;
+    private final String title;
+    private final String duration;
+    private final String trackPositionAlpha;
+    private final int trackPositionNum;
+    private final String releaseUuid;
+    private final List<String> artistUuids;
+    private final List<CompactSource> sources;
+
+    private CompactTrack(String uuid, String title, String duration, String trackPositionAlpha, int trackPositionNum,
+                         String releaseUuid, List<String> artistUuids, List<CompactSource> sources) {
+        this.uuid = uuid;
+        this.title = title;
+        this.duration = duration;
+        this.trackPositionAlpha = StringPool.intern(trackPositionAlpha);
+        this.trackPositionNum = trackPositionNum;
+        this.releaseUuid = releaseUuid;
+        this.artistUuids = artistUuids;
+        this.sources = sources;
+    }
+
+    @JsonCreator
+    static CompactTrack create(@JsonProperty("uuid") String uuid,
+                               @JsonProperty("title") String title,
+                               @JsonProperty("duration") String duration,
+                               @JsonProperty("track_position_alpha") String trackPositionAlpha,
+                               @JsonProperty("track_position_num") Integer trackPositionNum,
+                               @JsonProperty("release") UuidRef release,
+                               @JsonProperty("artists") List<UuidRef> artists,
+                               @JsonProperty("credited_artists") List<UuidRef> creditedArtists,
+                               @JsonProperty("sources") List<CompactSource> sources) {
+        List<UuidRef> allArtists = artists;
+        if (creditedArtists != null && !creditedArtists.isEmpty()) {
+            allArtists = new ArrayList<>(creditedArtists);
+            if (artists != null) {
+                allArtists.addAll(artists);
+            }
+        }
+        return new CompactTrack(uuid, title, duration, trackPositionAlpha,
+                (trackPositionNum != null) ? trackPositionNum : 0,
+                (release != null) ? release.getUuid() : null,
+                CompactLists.artistUuids(allArtists),
+                CompactLists.of(sources));
+    }
+
+    public static CompactTrack of(Track track) {
+        List<CompactSource> sources = Collections.emptyList();
+        if (track.getSources() != null && !track.getSources().isEmpty()) {
+            sources = new ArrayList<>(track.getSources().size());
+            for (Source source : track.getSources()) {
+                sources.add(CompactSource.of(source));
+            }
+        }
+        return create(track.getUuid(), track.getTitle(), track.getDuration(), track.getTrack_position_alpha(),
+                track.getTrack_position_num(),
+                (track.getRelease() != null) ? new UuidRef(track.getRelease().getUuid()) : null,
+                UuidRef.ofArtists(track.getArtists()), UuidRef.ofArtists(track.getCredited_artists()), sources);
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDuration() {
+        return duration;
+    }
+
+    public String getTrackPositionAlpha() {
+        return trackPositionAlpha;
+    }
+
+    public int getTrackPositionNum() {
+        return trackPositionNum;
+    }
+
+    public String getReleaseUuid() {
+        return releaseUuid;
+    }
+
+    public List<String> getArtistUuids() {
+        return artistUuids;
+    }
+
+    public List<CompactSource> getSources() {
+        return sources;
+    }
+}
@@ -0,0 +1,88 @@
+package com.blitzr.models.compact;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>Canonical instances for the low-cardinality strings found in the models (release types and formats, artist
+ * types, country codes, source names, categories...).</p>
+ * <p>The pool has a fixed number of slots, a string taking the slot of its hash : a value colliding with another
+ * one replaces it, so the pool never holds more than {@link #SLOTS} strings. Low-cardinality values stay pooled,
+ * high-cardinality values only cost a slot and are dropped with the next collision.</p>
+ */
+public final class StringPool {
+    /**
+     * Number of slots of the pool.
+     */
+    public static final int SLOTS = 4096;
+
+    private static final AtomicReferenceArray<String> POOL = new AtomicReferenceArray<>(SLOTS);
+
+    private StringPool() {
+    }
+
+    /**
+     * @param value Any string, may be null
+     * @return The canonical instance equal to value, or null
+     */
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        int h = value.hashCode();
+        int slot = (h ^ (h >>> 16)) & (SLOTS - 1);
+        String pooled = POOL.get(slot);
+        if (value.equals(pooled)) {
+            return pooled;
+        }
+        POOL.set(slot, value);
+        return value;
+    }
+
+    /**
+     * @param values A list of strings, may be null
+     * @return An immutable list of canonical instances
+     */
+    public static List<String> internAll(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> interned = new ArrayList<>(values.size());
+        for (String value : values) {
+            interned.add(intern(value));
+        }
+        return CompactLists.of(interned);
+    }
+
+    /**
+     * @return The number of values currently pooled, at most {@link #SLOTS}
+     */
+    public static int size() {
+        int size = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            if (POOL.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @param type The enum class
+     * @param value The enum constant name, may be null or unknown
+     * @return The matching constant or null if value is not a known constant
+     */
+    static <E extends Enum<E>> E toEnum(Class<E> type, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.blitzr.models.compact;
+
+import com.blitzr.models.artist.Artist;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reference to a nested entity (artist, release...) by its uuid. The other properties of the nested object are
+ * skipped by the parser, without building its model.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+final class UuidRef {
+    private final String uuid;
+
+    @JsonCreator
+    UuidRef(@JsonProperty("uuid") String uuid) {
+        this.uuid = uuid;
+    }
+
+    static List<UuidRef> ofArtists(List<Artist> artists) {
+        if (artists == null || artists.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<UuidRef> refs = new ArrayList<>(artists.size());
+        for (Artist artist : artists) {
+            refs.add(new UuidRef(artist.getUuid()));
+        }
+        return refs;
+    }
+
+    String getUuid() {
+        return uuid;
+    }
+}
@@ -0,0 +1,246 @@
+package com.blitzr.pipeline;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.Generator;
+import com.blitzr.concurrent.BlitzrExecutors;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.release.Release;
+import com.blitzr.models.release.ReleaseFormat;
+import com.blitzr.models.release.ReleaseType;
+import com.blitzr.models.track.Track;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Fetch the playable discography of an artist : its releases, the tracklist of each release and the sources of
+ * each track.</p>
+ * <p>The three stages overlap : releases are listed page by page, each release is fetched by the release stage as
+ * soon as it is listed, and the sources of its tracks by the sources stage as soon as its tracklist is known. Each
+ * stage has its own number of threads, and at most <b>maxPendingReleases</b> releases are in the pipeline at the
+ * same time.</p>
+ * <p>The stage stats are cumulated over all the fetches of the DiscographyFetcher : use one DiscographyFetcher by
+ * discography to measure them separately.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     DiscographyFetcher fetcher = new DiscographyFetcher(blitzr);
+ *     for (Release release : fetcher.fetch("the-beatles", null, ReleaseType.official, ReleaseFormat.album, false)) {
+ *         System.out.println(release.getName() + " : " + release.getTracklist().size() + " tracks");
+ *     }
+ *     System.out.println(fetcher.getSourcesStats());
+ * </code></pre>
+ */
+public class DiscographyFetcher {
+    private static class Completed {
+        private final Release release;
+
+        Completed(Release release) {
+            this.release = release;
+        }
+    }
+
+    private final BlitzrClient client;
+    private int releaseConcurrency = 4;
+    private int sourceConcurrency = 8;
+    private int maxPendingReleases = 16;
+    private int pageLimit = 50;
+    private final StageStats listingStats = new StageStats("listing");
+    private final StageStats releaseStats = new StageStats("release");
+    private final StageStats sourcesStats = new StageStats("sources");
+
+    public DiscographyFetcher(BlitzrClient client) {
+        this.client = client;
+    }
+
+    /**
+     * @param releaseConcurrency Number of simultaneous getRelease calls, 4 by default
+     */
+    public void setReleaseConcurrency(int releaseConcurrency) {
+        this.releaseConcurrency = releaseConcurrency;
+    }
+
+    /**
+     * @param sourceConcurrency Number of simultaneous getTrackSources calls, 8 by default
+     */
+    public void setSourceConcurrency(int sourceConcurrency) {
+        this.sourceConcurrency = sourceConcurrency;
+    }
+
+    /**
+     * @param maxPendingReleases Maximum number of releases listed but not yielded yet, 16 by default
+     */
+    public void setMaxPendingReleases(int maxPendingReleases) {
+        this.maxPendingReleases = maxPendingReleases;
+    }
+
+    /**
+     * @param pageLimit Number of releases listed by call, 50 by default
+     */
+    public void setPageLimit(int pageLimit) {
+        this.pageLimit = pageLimit;
+    }
+
+    /**
+     * @return The throughput of the listing calls, cumulated over all the calls to fetch
+     */
+    public StageStats getListingStats() {
+        return listingStats;
+    }
+
+    /**
+     * @return The throughput of the getRelease calls, cumulated over all the calls to fetch. A null release counts
+     * as an error.
+     */
+    public StageStats getReleaseStats() {
+        return releaseStats;
+    }
+
+    /**
+     * @return The throughput of the getTrackSources calls, cumulated over all the calls to fetch
+     */
+    public StageStats getSourcesStats() {
+        return sourcesStats;
+    }
+
+    /**
+     * Return a Generator of fully populated Releases : tracklist set, and sources set on each track. Releases are
+     * yielded as soon as they are complete, not in the listing order. Releases which cannot be fetched, or are
+     * null, are skipped and counted as errors of the release stage ; tracks whose sources cannot be fetched keep
+     * null sources. Slug or UUID are mandatory.
+     *
+     * @param slug The Artist slug
+     * @param uuid The Artist UUID
+     * @param type The type of the Release (official|unofficial|all)
+     * @param format The format of the Release (album|single|live|all)
+     * @param credited True to get only Releases where artist is credited (not main releases)
+     * @return A Release Generator
+     */
+    public Generator<Release> fetch(final String slug, final String uuid, final ReleaseType type, final ReleaseFormat format, final Boolean credited) {
+        return new Generator<Release>() {
+            @Override
+            protected void run() throws InterruptedException {
+                ExecutorService releasePool = BlitzrExecutors.newFixedThreadPool("blitzr-discography-release", releaseConcurrency);
+                ExecutorService sourcePool = BlitzrExecutors.newFixedThreadPool("blitzr-discography-sources", sourceConcurrency);
+                LinkedBlockingQueue<Completed> completed = new LinkedBlockingQueue<>();
+                Semaphore slots = new Semaphore(maxPendingReleases);
+                int pending = 0;
+                try {
+                    int start = 0;
+                    while (true) {
+                        long started = listingStats.start();
+                        List<Release> releases;
+                        try {
+                            releases = client.getArtistReleases(slug, uuid, start, pageLimit, type, format, credited);
+                            listingStats.done(started, true);
+                            pageFetched(start, pageLimit, releases.size(), started);
+                        } catch (BlitzrException e) {
+                            listingStats.done(started, false);
+                            throw e;
+                        }
+                        for (Release release : releases) {
+                            while (!slots.tryAcquire()) {
+                                pending--;
+                                emit(completed.take(), slots);
+                            }
+                            pending++;
+                            submitRelease(release.getUuid(), releasePool, sourcePool, completed);
+                        }
+                        start += pageLimit;
+                        if (releases.size() < pageLimit) {
+                            break;
+                        }
+                    }
+                    for (; pending > 0; pending--) {
+                        emit(completed.take(), slots);
+                    }
+                } finally {
+                    releasePool.shutdownNow();
+                    sourcePool.shutdownNow();
+                }
+            }
+
+            private void emit(Completed done, Semaphore slots) throws InterruptedException {
+                slots.release();
+                if (done.release != null) {
+                    yield(done.release);
+                }
+            }
+        };
+    }
+
+    private void submitRelease(final String releaseUuid, final ExecutorService releasePool,
+                               final ExecutorService sourcePool, final LinkedBlockingQueue<Completed> completed) {
+        releasePool.execute(new Runnable() {
+            @Override
+            public void run() {
+                // Exactly one Completed by release : here, or by the last source task once they are all submitted
+                Release release = null;
+                boolean sourcesSubmitted = false;
+                try {
+                    long started = releaseStats.start();
+                    try {
+                        release = client.getRelease(null, releaseUuid);
+                        releaseStats.done(started, release != null);
+                    } catch (RuntimeException e) {
+                        releaseStats.done(started, false);
+                        return;
+                    }
+                    if (release == null || release.getTracklist() == null || release.getTracklist().isEmpty()) {
+                        return;
+                    }
+                    sourcesSubmitted = true;
+                    submitAllSources(release, sourcePool, completed);
+                } finally {
+                    if (!sourcesSubmitted) {
+                        completed.add(new Completed(release));
+                    }
+                }
+            }
+        });
+    }
+
+    private void submitAllSources(Release release, ExecutorService sourcePool, LinkedBlockingQueue<Completed> completed) {
+        List<Track> tracks = release.getTracklist();
+        AtomicInteger remaining = new AtomicInteger(tracks.size());
+        int submitted = 0;
+        try {
+            for (Track track : tracks) {
+                submitSources(release, track, remaining, sourcePool, completed);
+                submitted++;
+            }
+        } finally {
+            // The tasks not submitted (eg: rejected by the pool) will not count down
+            int missing = tracks.size() - submitted;
+            if (missing > 0 && remaining.addAndGet(-missing) == 0) {
+                completed.add(new Completed(release));
+            }
+        }
+    }
+
+    private void submitSources(final Release release, final Track track, final AtomicInteger remaining,
+                               ExecutorService sourcePool, final LinkedBlockingQueue<Completed> completed) {
+        sourcePool.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    long started = sourcesStats.start();
+                    try {
+                        track.setSources(client.getTrackSources(track.getUuid()));
+                        sourcesStats.done(started, true);
+                    } catch (RuntimeException e) {
+                        sourcesStats.done(started, false);
+                    }
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        completed.add(new Completed(release));
+                    }
+                }
+            }
+        });
+    }
+}
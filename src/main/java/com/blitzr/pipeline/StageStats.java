@@ -0,0 +1,90 @@
+package com.blitzr.pipeline;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput counters of one pipeline stage. Safe to read while the pipeline runs.
+ */
+public class StageStats {
+    private final String name;
+    private final AtomicLong items = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong busyNanos = new AtomicLong();
+    private final AtomicLong firstStart = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong lastEnd = new AtomicLong(Long.MIN_VALUE);
+
+    public StageStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return The start time of a task, to give back to {@link #done(long, boolean)}
+     */
+    public long start() {
+        long now = System.nanoTime();
+        firstStart.compareAndSet(Long.MIN_VALUE, now);
+        return now;
+    }
+
+    /**
+     * Record the end of a task.
+     *
+     * @param start The value returned by {@link #start()}
+     * @param success false if the task failed
+     */
+    public void done(long start, boolean success) {
+        long now = System.nanoTime();
+        busyNanos.addAndGet(now - start);
+        lastEnd.set(now);
+        if (success) {
+            items.incrementAndGet();
+        } else {
+            errors.incrementAndGet();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getItems() {
+        return items.get();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * @return The sum of the tasks durations, in milliseconds
+     */
+    public long getBusyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(busyNanos.get());
+    }
+
+    /**
+     * @return The time between the first task start and the last task end, in milliseconds
+     */
+    public long getElapsedMillis() {
+        long start = firstStart.get();
+        long end = lastEnd.get();
+        if (start == Long.MIN_VALUE || end == Long.MIN_VALUE) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(end - start);
+    }
+
+    /**
+     * @return The number of successful items by second of elapsed time
+     */
+    public double getThroughput() {
+        long elapsed = getElapsedMillis();
+        return (elapsed > 0) ? getItems() * 1000.0 / elapsed : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d items, %d errors, %.1f items/s", name, getItems(), getErrors(), getThroughput());
+    }
+}
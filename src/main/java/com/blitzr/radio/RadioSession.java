@@ -0,0 +1,389 @@
+package com.blitzr.radio;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.concurrent.BlitzrExecutors;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.track.Track;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * <p>A continuous radio queue : tracks are fetched in the background before the queue runs dry.</p>
+ * <p>When the queue depth falls to <b>lowWatermark</b>, <b>batchSize</b> tracks are fetched from the radio
+ * endpoint. Tracks whose uuid is queued or among the <b>recentWindow</b> last tracks are dropped, so a track is not
+ * replayed soon after. A refill without a new track is followed by a delay of <b>emptyRefillDelayMillis</b>, doubled
+ * at each empty refill in a row, before the next one. After <b>maxEmptyRefills</b> refills in a row without a new
+ * track, the radio is exhausted until it is started again.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     RadioSession radio = RadioSession.artistSimilar(blitzr, "daft-punk", null);
+ *     radio.start();
+ *     Track track;
+ *     while ((track = radio.next()) != null) {
+ *         player.play(track);
+ *     }
+ * </code></pre>
+ */
+public class RadioSession {
+    private final RadioSource source;
+    private final Object lock = new Object();
+    private final ArrayDeque<Track> queue = new ArrayDeque<>();
+    private final LinkedHashSet<String> recent = new LinkedHashSet<>();
+    private ExecutorService executor;
+    private int lowWatermark = 5;
+    private int batchSize = 10;
+    private int recentWindow = 200;
+    private int maxEmptyRefills = 3;
+    private long emptyRefillDelayMillis = 1000;
+
+    private boolean refilling;
+    private boolean exhausted;
+    private boolean closed;
+    private int emptyRefills;
+    private BlitzrException lastError;
+
+    private long refills;
+    private long refillErrors;
+    private long totalRefillMillis;
+    private long lastRefillMillis;
+    private long maxRefillMillis;
+    private long duplicates;
+    private long underruns;
+
+    /**
+     * @param source The radio endpoint
+     */
+    public RadioSession(RadioSource source) {
+        this.source = source;
+    }
+
+    public static RadioSession artist(final BlitzrClient client, final String slug, final String uuid) {
+        return new RadioSession(new RadioSource() {
+            @Override
+            public List<Track> fetch(int number) {
+                return client.getRadioArtist(slug, uuid, number);
+            }
+        });
+    }
+
+    public static RadioSession artistSimilar(final BlitzrClient client, final String slug, final String uuid) {
+        return new RadioSession(new RadioSource() {
+            @Override
+            public List<Track> fetch(int number) {
+                return client.getRadioArtistSimilar(slug, uuid, number);
+            }
+        });
+    }
+
+    public static RadioSession label(final BlitzrClient client, final String slug, final String uuid) {
+        return new RadioSession(new RadioSource() {
+            @Override
+            public List<Track> fetch(int number) {
+                return client.getRadioLabel(slug, uuid, number);
+            }
+        });
+    }
+
+    public static RadioSession tag(final BlitzrClient client, final String slug) {
+        return new RadioSession(new RadioSource() {
+            @Override
+            public List<Track> fetch(int number) {
+                return client.getRadioTag(slug, number);
+            }
+        });
+    }
+
+    public static RadioSession event(final BlitzrClient client, final String slug, final String uuid) {
+        return new RadioSession(new RadioSource() {
+            @Override
+            public List<Track> fetch(int number) {
+                return client.getRadioEvent(slug, uuid, number);
+            }
+        });
+    }
+
+    /**
+     * @param lowWatermark Queue depth triggering a refill, 5 by default
+     */
+    public void setLowWatermark(int lowWatermark) {
+        this.lowWatermark = lowWatermark;
+    }
+
+    /**
+     * @param batchSize Number of tracks requested by refill, 10 by default
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param recentWindow Number of last tracks which cannot be queued again, 200 by default
+     */
+    public void setRecentWindow(int recentWindow) {
+        this.recentWindow = recentWindow;
+    }
+
+    /**
+     * @param maxEmptyRefills Number of refills in a row without a new track before the radio is exhausted, 3 by
+     *                        default
+     */
+    public void setMaxEmptyRefills(int maxEmptyRefills) {
+        this.maxEmptyRefills = maxEmptyRefills;
+    }
+
+    /**
+     * @param emptyRefillDelayMillis Delay before the refill following an empty refill, doubled at each empty refill
+     *                               in a row. 1000 ms by default.
+     */
+    public void setEmptyRefillDelayMillis(long emptyRefillDelayMillis) {
+        this.emptyRefillDelayMillis = emptyRefillDelayMillis;
+    }
+
+    /**
+     * Start filling the queue. Once the radio is exhausted, start it again to try new refills.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (executor == null) {
+                executor = BlitzrExecutors.newFixedThreadPool("blitzr-radio", 1);
+            }
+            if (exhausted) {
+                exhausted = false;
+                emptyRefills = 0;
+            }
+            refillIfNeeded();
+        }
+    }
+
+    /**
+     * Return the next track, waiting for a refill if the queue is empty.
+     *
+     * @return The next track, null when the radio is exhausted or closed
+     * @throws BlitzrException If the queue is empty and the refill done while waiting failed
+     */
+    public Track next() throws InterruptedException {
+        synchronized (lock) {
+            if (executor == null) {
+                throw new IllegalStateException("The session is not started");
+            }
+            if (queue.isEmpty() && !exhausted && !closed) {
+                underruns++;
+                // An error of a refill ended before this call is stale : refill again instead of throwing it
+                if (!refilling) {
+                    lastError = null;
+                }
+            }
+            while (queue.isEmpty() && !exhausted && !closed) {
+                if (lastError != null && !refilling) {
+                    BlitzrException error = lastError;
+                    lastError = null;
+                    throw error;
+                }
+                refillIfNeeded();
+                lock.wait();
+            }
+            Track track = queue.poll();
+            refillIfNeeded();
+            return track;
+        }
+    }
+
+    /**
+     * @return The next track without waiting, null if the queue is empty
+     */
+    public Track poll() {
+        synchronized (lock) {
+            Track track = queue.poll();
+            refillIfNeeded();
+            return track;
+        }
+    }
+
+    /**
+     * Stop the refills. Waiting calls to next return null.
+     */
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            queue.clear();
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * @param count Maximum number of tracks
+     * @return The next tracks of the queue, without removing them
+     */
+    public List<Track> getUpcoming(int count) {
+        synchronized (lock) {
+            List<Track> upcoming = new ArrayList<>(Math.min(count, queue.size()));
+            for (Iterator<Track> it = queue.iterator(); it.hasNext() && upcoming.size() < count; ) {
+                upcoming.add(it.next());
+            }
+            return upcoming;
+        }
+    }
+
+    public boolean isExhausted() {
+        synchronized (lock) {
+            return exhausted;
+        }
+    }
+
+    /**
+     * @return Number of successful refills
+     */
+    public long getRefills() {
+        synchronized (lock) {
+            return refills;
+        }
+    }
+
+    public long getRefillErrors() {
+        synchronized (lock) {
+            return refillErrors;
+        }
+    }
+
+    public long getLastRefillMillis() {
+        synchronized (lock) {
+            return lastRefillMillis;
+        }
+    }
+
+    public long getMaxRefillMillis() {
+        synchronized (lock) {
+            return maxRefillMillis;
+        }
+    }
+
+    public long getAverageRefillMillis() {
+        synchronized (lock) {
+            return (refills > 0) ? totalRefillMillis / refills : 0;
+        }
+    }
+
+    /**
+     * @return Number of fetched tracks dropped as queued or recently played
+     */
+    public long getDuplicates() {
+        synchronized (lock) {
+            return duplicates;
+        }
+    }
+
+    /**
+     * @return Number of calls to next which found the queue empty and had to wait
+     */
+    public long getUnderruns() {
+        synchronized (lock) {
+            return underruns;
+        }
+    }
+
+    private void refillIfNeeded() {
+        if (refilling || exhausted || closed || executor == null || queue.size() > lowWatermark) {
+            return;
+        }
+        refilling = true;
+        final long delay = (emptyRefills > 0) ? emptyRefillDelayMillis << Math.min(emptyRefills - 1, 16) : 0;
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    refill(delay);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refilling = false;
+        }
+    }
+
+    /**
+     * @param delay Time to wait before fetching, after empty refills
+     */
+    private void refill(long delay) {
+        List<Track> tracks = null;
+        BlitzrException error = null;
+        long started = 0;
+        try {
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            started = System.currentTimeMillis();
+            tracks = source.fetch(batchSize);
+        } catch (InterruptedException e) {
+            // Closed while waiting
+            synchronized (lock) {
+                refilling = false;
+                lock.notifyAll();
+            }
+            return;
+        } catch (BlitzrException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            error = new BlitzrException(601, String.valueOf(e));
+        }
+        long elapsed = System.currentTimeMillis() - started;
+        synchronized (lock) {
+            refilling = false;
+            try {
+                if (closed) {
+                    return;
+                }
+                if (error != null) {
+                    refillErrors++;
+                    lastError = error;
+                    return;
+                }
+                refills++;
+                lastError = null;
+                lastRefillMillis = elapsed;
+                totalRefillMillis += elapsed;
+                maxRefillMillis = Math.max(maxRefillMillis, elapsed);
+                int added = 0;
+                if (tracks != null) {
+                    for (Track track : tracks) {
+                        if (track == null) {
+                            continue;
+                        }
+                        if (track.getUuid() != null && !recent.add(track.getUuid())) {
+                            duplicates++;
+                            continue;
+                        }
+                        queue.add(track);
+                        added++;
+                    }
+                }
+                for (Iterator<String> eldest = recent.iterator(); recent.size() > recentWindow + queue.size(); ) {
+                    eldest.next();
+                    eldest.remove();
+                }
+                emptyRefills = (added == 0) ? emptyRefills + 1 : 0;
+                if (emptyRefills >= maxEmptyRefills) {
+                    exhausted = true;
+                }
+                refillIfNeeded();
+            } finally {
+                lock.notifyAll();
+            }
+        }
+    }
+}
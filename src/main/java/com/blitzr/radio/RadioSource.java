@@ -0,0 +1,16 @@
+package com.blitzr.radio;
+
+import com.blitzr.models.track.Track;
+
+import java.util.List;
+
+/**
+ * The radio endpoint behind a RadioSession.
+ */
+public interface RadioSource {
+    /**
+     * @param number The number of Tracks needed
+     * @return Some tracks, possibly already played
+     */
+    List<Track> fetch(int number);
+}
@@ -0,0 +1,249 @@
+package com.blitzr.radio;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.cache.TtlCache;
+import com.blitzr.concurrent.BlitzrExecutors;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.track.Source;
+import com.blitzr.models.track.SourceFilters;
+import com.blitzr.models.track.Track;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Resolve the playable source of the tracks, prefetching the sources of the next tracks so playback never waits
+ * on getTrackSources.</p>
+ * <p>The sources are cached by track uuid. A lookup already running for a track, prefetch or not, is shared by the
+ * callers asking for the same track.</p>
+ * <p>The best source is the first one by : position of its name in the preferred sources (the other sources come
+ * last), safe sources first, highest score first.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     SourceResolver resolver = new SourceResolver(blitzr);
+ *     resolver.setPreferredSources(SourceFilters.spotify, SourceFilters.youtube);
+ *     Track track;
+ *     while ((track = radio.next()) != null) {
+ *         resolver.prefetch(radio);
+ *         player.play(resolver.resolve(track));
+ *     }
+ * </code></pre>
+ */
+public class SourceResolver {
+    private final BlitzrClient client;
+    private final TtlCache<String, List<Source>> cache;
+    private final ExecutorService executor;
+    private final Map<String, Future<List<Source>>> inFlight = new HashMap<>();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private volatile List<SourceFilters> preferredSources = Collections.emptyList();
+    private volatile boolean safeOnly;
+    private volatile int prefetchCount = 3;
+
+    /**
+     * Cache the sources of 10000 tracks for 30 minutes, with 4 concurrent lookups.
+     */
+    public SourceResolver(BlitzrClient client) {
+        this(client, new TtlCache<String, List<Source>>(30, TimeUnit.MINUTES, 10000), 4);
+        cache.setName("track-sources");
+    }
+
+    /**
+     * @param client The client
+     * @param cache The cache of the sources by track uuid
+     * @param concurrency Maximum number of lookups at the same time
+     */
+    public SourceResolver(BlitzrClient client, TtlCache<String, List<Source>> cache, int concurrency) {
+        this.client = client;
+        this.cache = cache;
+        this.executor = BlitzrExecutors.newFixedThreadPool("blitzr-sources", concurrency);
+    }
+
+    /**
+     * @param preferredSources The sources, by order of preference
+     */
+    public void setPreferredSources(SourceFilters... preferredSources) {
+        this.preferredSources = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(preferredSources)));
+    }
+
+    /**
+     * @param safeOnly true to never select a source not flagged as safe, false by default
+     */
+    public void setSafeOnly(boolean safeOnly) {
+        this.safeOnly = safeOnly;
+    }
+
+    /**
+     * @param prefetchCount Number of next tracks prefetched, 3 by default
+     */
+    public void setPrefetchCount(int prefetchCount) {
+        this.prefetchCount = prefetchCount;
+    }
+
+    /**
+     * Start looking up the sources of the next tracks of a list, in the background.
+     *
+     * @param tracks The next tracks, the first prefetchCount ones are prefetched
+     */
+    public void prefetch(List<Track> tracks) {
+        for (int i = 0; i < tracks.size() && i < prefetchCount; i++) {
+            Track track = tracks.get(i);
+            if (track.getSources() == null && track.getUuid() != null && !cache.containsKey(track.getUuid())) {
+                lookup(track.getUuid());
+            }
+        }
+    }
+
+    /**
+     * Start looking up the sources of the next tracks of a radio queue, in the background.
+     */
+    public void prefetch(RadioSession radio) {
+        prefetch(radio.getUpcoming(prefetchCount));
+    }
+
+    /**
+     * @param uuid Track UUID
+     * @return List of Source, from the cache when possible
+     */
+    public List<Source> getSources(String uuid) {
+        List<Source> sources = cache.get(uuid);
+        if (sources != null) {
+            return sources;
+        }
+        Future<List<Source>> future = lookup(uuid);
+        if (!future.isDone()) {
+            waits.incrementAndGet();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BlitzrException(601, "Interrupted while looking up the sources of " + uuid);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BlitzrException) {
+                throw (BlitzrException) e.getCause();
+            }
+            throw new BlitzrException(601, String.valueOf(e.getCause()));
+        }
+    }
+
+    /**
+     * @param track A track, its own sources are used when it has some
+     * @return The best source of the track, null if none is acceptable
+     */
+    public Source resolve(Track track) {
+        return select((track.getSources() != null) ? track.getSources() : getSources(track.getUuid()));
+    }
+
+    /**
+     * @param uuid Track UUID
+     * @return The best source of the track, null if none is acceptable
+     */
+    public Source resolve(String uuid) {
+        return select(getSources(uuid));
+    }
+
+    /**
+     * @param sources The sources of a track, may be null
+     * @return The best source, null if none is acceptable
+     */
+    public Source select(List<Source> sources) {
+        if (sources == null) {
+            return null;
+        }
+        List<Source> candidates = new ArrayList<>();
+        for (Source source : sources) {
+            if (source != null && source.getUrl() != null && (!safeOnly || Boolean.TRUE.equals(source.getSafe()))) {
+                candidates.add(source);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        final List<SourceFilters> preferred = preferredSources;
+        return Collections.min(candidates, new Comparator<Source>() {
+            @Override
+            public int compare(Source a, Source b) {
+                int byPreference = Integer.compare(rank(preferred, a), rank(preferred, b));
+                if (byPreference != 0) {
+                    return byPreference;
+                }
+                int bySafe = Boolean.compare(Boolean.TRUE.equals(b.getSafe()), Boolean.TRUE.equals(a.getSafe()));
+                if (bySafe != 0) {
+                    return bySafe;
+                }
+                int scoreA = (a.getScore() != null) ? a.getScore() : Integer.MIN_VALUE;
+                int scoreB = (b.getScore() != null) ? b.getScore() : Integer.MIN_VALUE;
+                return Integer.compare(scoreB, scoreA);
+            }
+        });
+    }
+
+    /**
+     * Stop the lookup threads.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return Number of calls to getTrackSources
+     */
+    public long getLookups() {
+        return lookups.get();
+    }
+
+    /**
+     * @return Number of getSources calls which had to wait for a lookup still running
+     */
+    public long getWaits() {
+        return waits.get();
+    }
+
+    private Future<List<Source>> lookup(final String uuid) {
+        synchronized (inFlight) {
+            Future<List<Source>> future = inFlight.get(uuid);
+            if (future == null) {
+                future = executor.submit(new Callable<List<Source>>() {
+                    @Override
+                    public List<Source> call() {
+                        try {
+                            lookups.incrementAndGet();
+                            List<Source> sources = client.getTrackSources(uuid);
+                            cache.put(uuid, sources);
+                            return sources;
+                        } finally {
+                            synchronized (inFlight) {
+                                inFlight.remove(uuid);
+                            }
+                        }
+                    }
+                });
+                inFlight.put(uuid, future);
+            }
+            return future;
+        }
+    }
+
+    private static int rank(List<SourceFilters> preferred, Source source) {
+        for (int i = 0; i < preferred.size(); i++) {
+            if (preferred.get(i).name().equals(source.getSource())) {
+                return i;
+            }
+        }
+        return preferred.size();
+    }
+}
@@ -0,0 +1,173 @@
+package com.blitzr.search;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.concurrent.BlitzrExecutors;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.artist.ArtistFilters;
+import com.blitzr.models.label.LabelFilters;
+import com.blitzr.models.release.ReleaseFilters;
+import com.blitzr.models.track.TrackFilters;
+import com.blitzr.models.utils.EntityType;
+import com.blitzr.models.utils.SearchResult;
+import com.blitzr.models.utils.SearchResults;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>Run searchArtist, searchRelease, searchLabel and searchTrack at the same time, each with its own filters, and
+ * merge their results.</p>
+ * <p>Each type has a latency budget, 2 seconds by default, counted from the start of the search. A type which does
+ * not answer within its budget, or fails, is left out of the results instead of failing the whole search.</p>
+ * <p>The results are merged rank by rank : the first artist, release, label and track, then the second ones...
+ * so each type keeps its own relevance order. The totals are the numbers of matches given by the server.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     FederatedSearch search = new FederatedSearch(blitzr);
+ *     search.setBudget(EntityType.track, 500, TimeUnit.MILLISECONDS);
+ *     FederatedSearchResults results = search.search("daft punk", new ArtistFilters(), null,
+ *             new ReleaseFilters(null, null, null, null, "electronic"), new TrackFilters(), false, 10);
+ * </code></pre>
+ */
+public class FederatedSearch {
+    private final BlitzrClient client;
+    private final EnumMap<EntityType, Long> budgets = new EnumMap<>(EntityType.class);
+    private long defaultBudgetMillis = 2000;
+
+    public FederatedSearch(BlitzrClient client) {
+        this.client = client;
+    }
+
+    /**
+     * @param type The type of the search
+     * @param budget Maximum time waited for the results of this type
+     * @param unit Unit of the budget
+     */
+    public void setBudget(EntityType type, long budget, TimeUnit unit) {
+        budgets.put(type, unit.toMillis(budget));
+    }
+
+    /**
+     * @param budget Maximum time waited for the results of the types without their own budget
+     * @param unit Unit of the budget
+     */
+    public void setDefaultBudget(long budget, TimeUnit unit) {
+        this.defaultBudgetMillis = unit.toMillis(budget);
+    }
+
+    /**
+     * Search the types whose filters are given. Use empty filters to search a type without filtering it.
+     *
+     * @param query Your query
+     * @param artistFilters ArtistFilters of the artist search, null to skip the artists
+     * @param labelFilters LabelFilters of the label search, null to skip the labels
+     * @param releaseFilters ReleaseFilters of the release search, null to skip the releases
+     * @param trackFilters TrackFilters of the track search, null to skip the tracks
+     * @param autocomplete Enable predictive search (artists, labels and releases)
+     * @param limit Limit of each type
+     * @return The merged results, partial if a type timed out or failed
+     */
+    public FederatedSearchResults search(final String query, final ArtistFilters artistFilters,
+                                         final LabelFilters labelFilters, final ReleaseFilters releaseFilters,
+                                         final TrackFilters trackFilters, final Boolean autocomplete, final int limit) {
+        EnumMap<EntityType, Callable<SearchResults<? extends SearchResult>>> searches = new EnumMap<>(EntityType.class);
+        if (artistFilters != null) {
+            searches.put(EntityType.artist, new Callable<SearchResults<? extends SearchResult>>() {
+                @Override
+                public SearchResults<? extends SearchResult> call() {
+                    return client.searchArtistWithExtras(query, artistFilters, autocomplete, 0, limit);
+                }
+            });
+        }
+        if (releaseFilters != null) {
+            searches.put(EntityType.release, new Callable<SearchResults<? extends SearchResult>>() {
+                @Override
+                public SearchResults<? extends SearchResult> call() {
+                    return client.searchReleaseWithExtras(query, releaseFilters, autocomplete, 0, limit);
+                }
+            });
+        }
+        if (labelFilters != null) {
+            searches.put(EntityType.label, new Callable<SearchResults<? extends SearchResult>>() {
+                @Override
+                public SearchResults<? extends SearchResult> call() {
+                    return client.searchLabelWithExtras(query, labelFilters, autocomplete, 0, limit);
+                }
+            });
+        }
+        if (trackFilters != null) {
+            searches.put(EntityType.track, new Callable<SearchResults<? extends SearchResult>>() {
+                @Override
+                public SearchResults<? extends SearchResult> call() {
+                    return client.searchTrackWithExtras(query, trackFilters, 0, limit);
+                }
+            });
+        }
+
+        FederatedSearchResults results = new FederatedSearchResults();
+        List<List<? extends SearchResult>> lists = new ArrayList<>();
+        int total = 0;
+        if (!searches.isEmpty()) {
+            long started = System.currentTimeMillis();
+            ExecutorService executor = BlitzrExecutors.newFixedThreadPool("blitzr-federated-search", searches.size());
+            try {
+                EnumMap<EntityType, Future<SearchResults<? extends SearchResult>>> futures = new EnumMap<>(EntityType.class);
+                for (Map.Entry<EntityType, Callable<SearchResults<? extends SearchResult>>> search : searches.entrySet()) {
+                    futures.put(search.getKey(), executor.submit(search.getValue()));
+                }
+                for (Map.Entry<EntityType, Future<SearchResults<? extends SearchResult>>> future : futures.entrySet()) {
+                    EntityType type = future.getKey();
+                    Long budget = budgets.get(type);
+                    long wait = started + ((budget != null) ? budget : defaultBudgetMillis) - System.currentTimeMillis();
+                    try {
+                        SearchResults<? extends SearchResult> page = future.getValue().get(Math.max(0, wait), TimeUnit.MILLISECONDS);
+                        List<? extends SearchResult> list = (page.getResults() != null)
+                                ? page.getResults() : new ArrayList<SearchResult>();
+                        int typeTotal = (page.getTotal() != null) ? page.getTotal() : list.size();
+                        results.setTotal(type, typeTotal);
+                        total += typeTotal;
+                        lists.add(list);
+                    } catch (TimeoutException e) {
+                        future.getValue().cancel(true);
+                        results.addTimedOut(type);
+                    } catch (ExecutionException e) {
+                        results.addFailure(type, (e.getCause() instanceof BlitzrException)
+                                ? (BlitzrException) e.getCause() : new BlitzrException(601, String.valueOf(e.getCause())));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        results.addTimedOut(type);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        List<SearchResult> merged = new ArrayList<>();
+        for (int rank = 0; ; rank++) {
+            boolean found = false;
+            for (List<? extends SearchResult> list : lists) {
+                if (rank < list.size()) {
+                    merged.add(list.get(rank));
+                    found = true;
+                }
+            }
+            if (!found) {
+                break;
+            }
+        }
+        results.setResults(merged);
+        results.setTotal(total);
+        return results;
+    }
+}
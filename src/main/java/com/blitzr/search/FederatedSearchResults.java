@@ -0,0 +1,61 @@
+package com.blitzr.search;
+
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.utils.EntityType;
+import com.blitzr.models.utils.SearchResult;
+import com.blitzr.models.utils.SearchResults;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The merged results of a FederatedSearch. The total is the sum of the numbers of matches of the types which
+ * answered in time, the results only holding their first page.
+ */
+public class FederatedSearchResults extends SearchResults<SearchResult> {
+    private final EnumMap<EntityType, Integer> totals = new EnumMap<>(EntityType.class);
+    private final EnumSet<EntityType> timedOut = EnumSet.noneOf(EntityType.class);
+    private final EnumMap<EntityType, BlitzrException> failures = new EnumMap<>(EntityType.class);
+
+    void setTotal(EntityType type, int total) {
+        totals.put(type, total);
+    }
+
+    void addTimedOut(EntityType type) {
+        timedOut.add(type);
+    }
+
+    void addFailure(EntityType type, BlitzrException failure) {
+        failures.put(type, failure);
+    }
+
+    /**
+     * @return The number of matches of each type which answered in time, as given by the server
+     */
+    public Map<EntityType, Integer> getTotals() {
+        return totals;
+    }
+
+    /**
+     * @return The types which did not answer within their latency budget
+     */
+    public Set<EntityType> getTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * @return The error of each type whose search failed
+     */
+    public Map<EntityType, BlitzrException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return true if a type timed out or failed
+     */
+    public boolean isPartial() {
+        return !timedOut.isEmpty() || !failures.isEmpty();
+    }
+}
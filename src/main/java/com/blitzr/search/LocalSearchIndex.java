@@ -0,0 +1,636 @@
+package com.blitzr.search;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.cache.TtlCache;
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.artist.ArtistFilters;
+import com.blitzr.models.label.Label;
+import com.blitzr.models.label.LabelFilters;
+import com.blitzr.models.release.Release;
+import com.blitzr.models.release.ReleaseFilters;
+import com.blitzr.models.tag.Tag;
+import com.blitzr.models.track.Track;
+import com.blitzr.models.track.TrackFilters;
+import com.blitzr.models.utils.EntityType;
+import com.blitzr.models.utils.SearchResult;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>An in-process full-text index over the artists, labels, releases and tracks already fetched, answering the
+ * search queries without calling the API.</p>
+ * <p>Names, tags and locations are split into lower case words without accents. A query matches the entities
+ * containing all its words, the last one being a prefix in autocomplete mode. Results matching in their name come
+ * first. The filters are the ones of the search endpoints, checked against the indexed models : a filter on a
+ * field the model does not have (a release fetched without its artists for example) excludes it.</p>
+ * <p>The searchXxx methods answer from the index when it fills the first page of a query, and call the search API
+ * otherwise or when fresh results are required. The API results are then indexed. The source chosen on the first
+ * page is kept for the next pages of the query : a query answered from the index is paginated in the index, and its
+ * results are then only the indexed entities, the API having possibly more. Entities indexed for longer than
+ * <b>maxAge</b> are ignored.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     LocalSearchIndex index = new LocalSearchIndex(blitzr, 1, TimeUnit.HOURS);
+ *     index.putAll(blitzr.getLabelArtists("warp", null, 0, 100, null));
+ *     List&lt;Artist&gt; artists = index.searchArtist("aphex", new ArtistFilters(), true, 0, 10, false);
+ * </code></pre>
+ *
+ * <p>The index is thread safe.</p>
+ */
+public class LocalSearchIndex {
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static class Doc {
+        private final EntityType type;
+        private final SearchResult entity;
+        private final String name;
+        private final Set<String> nameWords;
+        private final Set<String> words;
+        private final long indexedAt;
+
+        Doc(EntityType type, SearchResult entity, String name, Set<String> nameWords, Set<String> words) {
+            this.type = type;
+            this.entity = entity;
+            this.name = (name != null) ? name : "";
+            this.nameWords = nameWords;
+            this.words = words;
+            this.indexedAt = System.currentTimeMillis();
+        }
+    }
+
+    private static class Hit {
+        private final Doc doc;
+        private final int score;
+
+        Hit(Doc doc, int score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+
+    private static final Comparator<Hit> BY_SCORE = new Comparator<Hit>() {
+        @Override
+        public int compare(Hit a, Hit b) {
+            if (a.score != b.score) {
+                return (a.score > b.score) ? -1 : 1;
+            }
+            if (a.doc.name.length() != b.doc.name.length()) {
+                return (a.doc.name.length() < b.doc.name.length()) ? -1 : 1;
+            }
+            return a.doc.name.compareTo(b.doc.name);
+        }
+    };
+
+    private interface Filter {
+        boolean accept(SearchResult entity);
+    }
+
+    private final BlitzrClient client;
+    private final long maxAgeMillis;
+    private final Map<String, Doc> docs = new HashMap<>();
+    private final TreeMap<String, Set<String>> postings = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TtlCache<String, Boolean> localQueries;
+
+    /**
+     * @param client The client called on misses, may be null for a local only index
+     * @param maxAge Time after which an indexed entity is ignored until indexed again
+     * @param unit Unit of the maximum age
+     */
+    public LocalSearchIndex(BlitzrClient client, long maxAge, TimeUnit unit) {
+        this.client = client;
+        this.maxAgeMillis = unit.toMillis(maxAge);
+        this.localQueries = new TtlCache<>(maxAge, unit, 10000);
+        localQueries.setName("local-search-sources");
+    }
+
+    public void put(Artist artist) {
+        Set<String> words = new HashSet<>();
+        addWords(words, artist.getReal_name());
+        addWords(words, artist.getLocation());
+        addTagWords(words, artist.getTags());
+        index(EntityType.artist, artist.getUuid(), artist, artist.getName(), words);
+    }
+
+    public void put(Label label) {
+        Set<String> words = new HashSet<>();
+        addWords(words, label.getLocation());
+        addTagWords(words, label.getTags());
+        index(EntityType.label, label.getUuid(), label, label.getName(), words);
+    }
+
+    public void put(Release release) {
+        Set<String> words = new HashSet<>();
+        addTagWords(words, release.getTags());
+        if (release.getArtists() != null) {
+            for (Artist artist : release.getArtists()) {
+                addWords(words, artist.getName());
+            }
+        }
+        index(EntityType.release, release.getUuid(), release, release.getName(), words);
+    }
+
+    public void put(Track track) {
+        Set<String> words = new HashSet<>();
+        addTagWords(words, track.getTags());
+        if (track.getArtists() != null) {
+            for (Artist artist : track.getArtists()) {
+                addWords(words, artist.getName());
+            }
+        }
+        index(EntityType.track, track.getUuid(), track, track.getTitle(), words);
+    }
+
+    /**
+     * @param entities Artists, labels, releases or tracks, like the results of search
+     */
+    public void putAll(Collection<? extends SearchResult> entities) {
+        for (SearchResult entity : entities) {
+            if (entity instanceof Artist) {
+                put((Artist) entity);
+            } else if (entity instanceof Label) {
+                put((Label) entity);
+            } else if (entity instanceof Release) {
+                put((Release) entity);
+            } else if (entity instanceof Track) {
+                put((Track) entity);
+            }
+        }
+    }
+
+    /**
+     * @return true if the entity was indexed
+     */
+    public boolean remove(EntityType type, String uuid) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(type + ":" + uuid);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            docs.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search Artist in the index only.
+     *
+     * @param query Your query
+     * @param filters ArtistFilters, may be null
+     * @param autocomplete Match the last word of the query as a prefix
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @return A list of Artist
+     */
+    public List<Artist> findArtists(String query, final ArtistFilters filters, boolean autocomplete, int start, int limit) {
+        return find(Artist.class, EntityType.artist, query, autocomplete, start, limit, new Filter() {
+            @Override
+            public boolean accept(SearchResult entity) {
+                Artist artist = (Artist) entity;
+                return filters == null || (contains(artist.getLocation(), filters.getLocation())
+                        && hasTag(artist.getTags(), filters.getTag())
+                        && (filters.getType() == null || filters.getType().name().equalsIgnoreCase(artist.getType())));
+            }
+        });
+    }
+
+    /**
+     * Search Label in the index only.
+     *
+     * @param query Your query
+     * @param filters LabelFilters, may be null
+     * @param autocomplete Match the last word of the query as a prefix
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @return A list of Label
+     */
+    public List<Label> findLabels(String query, final LabelFilters filters, boolean autocomplete, int start, int limit) {
+        return find(Label.class, EntityType.label, query, autocomplete, start, limit, new Filter() {
+            @Override
+            public boolean accept(SearchResult entity) {
+                Label label = (Label) entity;
+                return filters == null || (contains(label.getLocation(), filters.getLocation())
+                        && hasTag(label.getTags(), filters.getTag()));
+            }
+        });
+    }
+
+    /**
+     * Search Release in the index only.
+     *
+     * @param query Your query
+     * @param filters ReleaseFilters, may be null
+     * @param autocomplete Match the last word of the query as a prefix
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @return A list of Release
+     */
+    public List<Release> findReleases(String query, final ReleaseFilters filters, boolean autocomplete, int start, int limit) {
+        return find(Release.class, EntityType.release, query, autocomplete, start, limit, new Filter() {
+            @Override
+            public boolean accept(SearchResult entity) {
+                Release release = (Release) entity;
+                return filters == null || (hasArtist(release.getArtists(), filters.getArtist(), filters.getArtistUuid(), filters.getLocation())
+                        && hasLabel(release.getLabels(), filters.getLabel(), filters.getLabelUuid())
+                        && hasTag(release.getTags(), filters.getTag())
+                        && (filters.getYear() == null || filters.getYear().equals(year(release))));
+            }
+        });
+    }
+
+    /**
+     * Search Track in the index only.
+     *
+     * @param query Your query
+     * @param filters TrackFilters, may be null
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @return A list of Track
+     */
+    public List<Track> findTracks(String query, final TrackFilters filters, int start, int limit) {
+        return find(Track.class, EntityType.track, query, false, start, limit, new Filter() {
+            @Override
+            public boolean accept(SearchResult entity) {
+                Track track = (Track) entity;
+                if (filters == null) {
+                    return true;
+                }
+                Release release = track.getRelease();
+                return hasArtist(track.getArtists(), filters.getArtist(), filters.getArtistUuid(), filters.getLocation())
+                        && (filters.getRelease() == null || (release != null && contains(release.getName(), filters.getRelease())))
+                        && (filters.getReleaseUuid() == null || (release != null && filters.getReleaseUuid().equals(release.getUuid())))
+                        && (filters.getYear() == null || (release != null && filters.getYear().equals(year(release))));
+            }
+        });
+    }
+
+    /**
+     * Search Artist in the index, or with searchArtist when the index does not fill the first page of the query.
+     *
+     * @param query Your query
+     * @param filters List of ArtistFilters. Only location, tag and type are available here.
+     * @param autocomplete Enable predictive search
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param fresh true to always call the API
+     * @return A list of Artist
+     */
+    public List<Artist> searchArtist(String query, ArtistFilters filters, boolean autocomplete, int start, int limit, boolean fresh) {
+        if (!fresh) {
+            HashMap<String, Object> params = new HashMap<>();
+            if (filters != null) {
+                filters.apply(params);
+            }
+            List<Artist> local = findArtists(query, filters, autocomplete, start, limit);
+            if (isLocal(queryKey(EntityType.artist, query, params, autocomplete, limit), start, local.size(), limit)) {
+                return local;
+            }
+        }
+        List<Artist> remote = client.searchArtist(query, (filters != null) ? filters : new ArtistFilters(), autocomplete, start, limit);
+        putAll(remote);
+        return remote;
+    }
+
+    /**
+     * Search Label in the index, or with searchLabel when the index does not fill the first page of the query.
+     *
+     * @param query Your query
+     * @param filters List of LabelFilters. Only location and tag are available here.
+     * @param autocomplete Enable predictive search
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param fresh true to always call the API
+     * @return A list of Label
+     */
+    public List<Label> searchLabel(String query, LabelFilters filters, boolean autocomplete, int start, int limit, boolean fresh) {
+        if (!fresh) {
+            HashMap<String, Object> params = new HashMap<>();
+            if (filters != null) {
+                filters.apply(params);
+            }
+            List<Label> local = findLabels(query, filters, autocomplete, start, limit);
+            if (isLocal(queryKey(EntityType.label, query, params, autocomplete, limit), start, local.size(), limit)) {
+                return local;
+            }
+        }
+        List<Label> remote = client.searchLabel(query, (filters != null) ? filters : new LabelFilters(), autocomplete, start, limit);
+        putAll(remote);
+        return remote;
+    }
+
+    /**
+     * Search Release in the index, or with searchRelease when the index does not fill the first page of the query.
+     *
+     * @param query Your query
+     * @param filters List of ReleaseFilters
+     * @param autocomplete Enable predictive search
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param fresh true to always call the API
+     * @return A list of Release
+     */
+    public List<Release> searchRelease(String query, ReleaseFilters filters, boolean autocomplete, int start, int limit, boolean fresh) {
+        if (!fresh) {
+            HashMap<String, Object> params = new HashMap<>();
+            if (filters != null) {
+                filters.apply(params);
+            }
+            List<Release> local = findReleases(query, filters, autocomplete, start, limit);
+            if (isLocal(queryKey(EntityType.release, query, params, autocomplete, limit), start, local.size(), limit)) {
+                return local;
+            }
+        }
+        List<Release> remote = client.searchRelease(query, (filters != null) ? filters : new ReleaseFilters(), autocomplete, start, limit);
+        putAll(remote);
+        return remote;
+    }
+
+    /**
+     * Search Track in the index, or with searchTrack when the index does not fill the first page of the query.
+     *
+     * @param query Your query
+     * @param filters List of TrackFilters
+     * @param start Offset for pagination
+     * @param limit Limit for pagination
+     * @param fresh true to always call the API
+     * @return A list of Track
+     */
+    public List<Track> searchTrack(String query, TrackFilters filters, int start, int limit, boolean fresh) {
+        if (!fresh) {
+            HashMap<String, Object> params = new HashMap<>();
+            if (filters != null) {
+                filters.apply(params);
+            }
+            List<Track> local = findTracks(query, filters, start, limit);
+            if (isLocal(queryKey(EntityType.track, query, params, false, limit), start, local.size(), limit)) {
+                return local;
+            }
+        }
+        List<Track> remote = client.searchTrack(query, (filters != null) ? filters : new TrackFilters(), start, limit);
+        putAll(remote);
+        return remote;
+    }
+
+    /**
+     * Choose the source of a page. The first page of a query is answered from the index if the index fills it, the
+     * next pages from the same source as the first one.
+     *
+     * @return true to answer from the index
+     */
+    private boolean isLocal(String queryKey, int start, int localCount, int limit) {
+        if (client == null) {
+            return true;
+        }
+        Boolean local = (start > 0) ? localQueries.get(queryKey) : null;
+        if (local == null) {
+            // A next page whose first page is unknown is paginated with the API
+            local = start == 0 && localCount >= limit;
+            localQueries.put(queryKey, local);
+        }
+        return local;
+    }
+
+    private static String queryKey(EntityType type, String query, HashMap<String, Object> filterParams,
+                                   boolean autocomplete, int limit) {
+        return type + "/" + words(query) + "/" + new TreeMap<>(filterParams) + "/" + autocomplete + "/" + limit;
+    }
+
+    private void index(EntityType type, String uuid, SearchResult entity, String name, Set<String> words) {
+        if (uuid == null) {
+            return;
+        }
+        Set<String> nameWords = new LinkedHashSet<>();
+        addWords(nameWords, name);
+        words.addAll(nameWords);
+        Doc doc = new Doc(type, entity, name, nameWords, words);
+        String key = type + ":" + uuid;
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            docs.put(key, doc);
+            for (String word : words) {
+                Set<String> keys = postings.get(word);
+                if (keys == null) {
+                    keys = new HashSet<>();
+                    postings.put(word, keys);
+                }
+                keys.add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean removeLocked(String key) {
+        Doc doc = docs.remove(key);
+        if (doc == null) {
+            return false;
+        }
+        for (String word : doc.words) {
+            Set<String> keys = postings.get(word);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    postings.remove(word);
+                }
+            }
+        }
+        return true;
+    }
+
+    private <T> List<T> find(Class<T> clazz, EntityType type, String query, boolean autocomplete, int start, int limit, Filter filter) {
+        List<String> words = new ArrayList<>(words(query));
+        if (words.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long oldest = System.currentTimeMillis() - maxAgeMillis;
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<String> keys = null;
+            for (int i = 0; i < words.size() && (keys == null || !keys.isEmpty()); i++) {
+                Set<String> matching = new HashSet<>();
+                String word = words.get(i);
+                if (autocomplete && i == words.size() - 1) {
+                    for (Set<String> prefixed : postings.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+                        matching.addAll(prefixed);
+                    }
+                } else if (postings.containsKey(word)) {
+                    matching.addAll(postings.get(word));
+                }
+                if (keys == null) {
+                    keys = matching;
+                } else {
+                    keys.retainAll(matching);
+                }
+            }
+            for (String key : keys) {
+                Doc doc = docs.get(key);
+                if (doc.type != type || doc.indexedAt < oldest || !filter.accept(doc.entity)) {
+                    continue;
+                }
+                hits.add(new Hit(doc, score(doc, words, autocomplete)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Collections.sort(hits, BY_SCORE);
+        List<T> results = new ArrayList<>();
+        for (int i = Math.max(0, start); i < hits.size() && results.size() < limit; i++) {
+            results.add(clazz.cast(hits.get(i).doc.entity));
+        }
+        return results;
+    }
+
+    /**
+     * Two points by word of the query found in the name, and a bonus when the name is exactly the query.
+     */
+    private static int score(Doc doc, List<String> words, boolean autocomplete) {
+        int score = 0;
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            if (doc.nameWords.contains(word)) {
+                score += 2;
+            } else if (autocomplete && i == words.size() - 1) {
+                for (String nameWord : doc.nameWords) {
+                    if (nameWord.startsWith(word)) {
+                        score += 2;
+                        break;
+                    }
+                }
+            }
+        }
+        if (new ArrayList<>(doc.nameWords).equals(words)) {
+            score += 10;
+        }
+        return score;
+    }
+
+    private static void addTagWords(Set<String> words, List<Tag> tags) {
+        if (tags != null) {
+            for (Tag tag : tags) {
+                addWords(words, tag.getName());
+                addWords(words, tag.getSlug());
+            }
+        }
+    }
+
+    private static void addWords(Set<String> words, String text) {
+        words.addAll(words(text));
+    }
+
+    /**
+     * @return The lower case words of the text, without accents
+     */
+    private static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text == null) {
+            return words;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
+                .toLowerCase(Locale.ROOT);
+        for (String word : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static boolean contains(String value, String filter) {
+        if (filter == null) {
+            return true;
+        }
+        return value != null && value.toLowerCase(Locale.ROOT).contains(filter.toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean hasTag(List<Tag> tags, String filter) {
+        if (filter == null) {
+            return true;
+        }
+        if (tags != null) {
+            for (Tag tag : tags) {
+                if (filter.equalsIgnoreCase(tag.getSlug()) || filter.equalsIgnoreCase(tag.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasArtist(List<Artist> artists, String name, String uuid, String location) {
+        if (name == null && uuid == null && location == null) {
+            return true;
+        }
+        if (artists != null) {
+            for (Artist artist : artists) {
+                if ((name == null || name.equalsIgnoreCase(artist.getName()))
+                        && (uuid == null || uuid.equals(artist.getUuid()))
+                        && contains(artist.getLocation(), location)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasLabel(List<Label> labels, String name, String uuid) {
+        if (name == null && uuid == null) {
+            return true;
+        }
+        if (labels != null) {
+            for (Label label : labels) {
+                if ((name == null || name.equalsIgnoreCase(label.getName())) && (uuid == null || uuid.equals(label.getUuid()))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Integer year(Release release) {
+        if (release.getRelease_date() == null) {
+            return null;
+        }
+        Calendar calendar = Calendar.getInstance(UTC);
+        calendar.setTime(release.getRelease_date());
+        return calendar.get(Calendar.YEAR);
+    }
+}
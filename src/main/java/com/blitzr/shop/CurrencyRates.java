@@ -0,0 +1,17 @@
+package com.blitzr.shop;
+
+/**
+ * Converts the prices of the products to a single currency, so offers in different currencies can be compared.
+ */
+public interface CurrencyRates {
+    /**
+     * @return The currency of the converted prices (EUR, USD...)
+     */
+    String getBaseCurrency();
+
+    /**
+     * @param currency A currency code, as in Product.currency
+     * @return The price in the base currency of one unit of this currency, null if unknown
+     */
+    Double getRate(String currency);
+}
@@ -0,0 +1,38 @@
+package com.blitzr.shop;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A rate table filled by the application. Rates can be updated while the table is used.
+ */
+public class FixedCurrencyRates implements CurrencyRates {
+    private final String baseCurrency;
+    private final ConcurrentHashMap<String, Double> rates = new ConcurrentHashMap<>();
+
+    /**
+     * @param baseCurrency The currency of the converted prices, its rate is 1
+     */
+    public FixedCurrencyRates(String baseCurrency) {
+        this.baseCurrency = baseCurrency.toUpperCase(Locale.ROOT);
+        rates.put(this.baseCurrency, 1.0);
+    }
+
+    /**
+     * @param currency A currency code
+     * @param rate The price in the base currency of one unit of this currency
+     */
+    public void setRate(String currency, double rate) {
+        rates.put(currency.toUpperCase(Locale.ROOT), rate);
+    }
+
+    @Override
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    @Override
+    public Double getRate(String currency) {
+        return (currency != null) ? rates.get(currency.toUpperCase(Locale.ROOT)) : null;
+    }
+}
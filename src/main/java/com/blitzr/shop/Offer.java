@@ -0,0 +1,51 @@
+package com.blitzr.shop;
+
+import com.blitzr.models.shop.Product;
+import com.blitzr.models.shop.ProductType;
+
+/**
+ * A product with its price converted to the base currency of the CurrencyRates.
+ */
+public final class Offer {
+    private final Product product;
+    private final ProductType type;
+    private final double price;
+    private final String currency;
+
+    Offer(Product product, ProductType type, double price, String currency) {
+        this.product = product;
+        this.type = type;
+        this.price = price;
+        this.currency = currency;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * @return The requested type of the product, null for a track
+     */
+    public ProductType getType() {
+        return type;
+    }
+
+    /**
+     * @return The converted price
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * @return The base currency
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    @Override
+    public String toString() {
+        return product.getProvider() + " " + price + " " + currency;
+    }
+}
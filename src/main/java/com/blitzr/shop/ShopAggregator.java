@@ -0,0 +1,188 @@
+package com.blitzr.shop;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.cache.TtlCache;
+import com.blitzr.concurrent.BlitzrExecutors;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.shop.Product;
+import com.blitzr.models.shop.ProductType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Compare the products of many artists, labels, releases and tracks in one call.</p>
+ * <p>The shop calls (one by entity and product type) run at most <b>concurrency</b> at a time, and their products
+ * are cached for a short time. Prices are converted with the CurrencyRates, then the cheapest offer of each
+ * entity and provider is kept. A failed call only leaves out its products.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     FixedCurrencyRates rates = new FixedCurrencyRates("EUR");
+ *     rates.setRate("USD", 0.92);
+ *     ShopAggregator shop = new ShopAggregator(blitzr, rates);
+ *     Map&lt;ShopQuery, ShopOffers&gt; offers = shop.aggregate(Arrays.asList(
+ *             ShopQuery.release("discovery", null, ProductType.lp, ProductType.cd),
+ *             ShopQuery.track(trackUuid)));
+ * </code></pre>
+ */
+public class ShopAggregator {
+    private final BlitzrClient client;
+    private final CurrencyRates rates;
+    private final TtlCache<String, List<Product>> cache;
+    private int concurrency = 8;
+
+    /**
+     * Cache the products of 10000 calls for 5 minutes.
+     */
+    public ShopAggregator(BlitzrClient client, CurrencyRates rates) {
+        this(client, rates, new TtlCache<String, List<Product>>(5, TimeUnit.MINUTES, 10000));
+        cache.setName("shop");
+    }
+
+    /**
+     * @param client The client
+     * @param rates The currency conversion
+     * @param cache The cache of the products by shop call
+     */
+    public ShopAggregator(BlitzrClient client, CurrencyRates rates, TtlCache<String, List<Product>> cache) {
+        this.client = client;
+        this.rates = rates;
+        this.cache = cache;
+    }
+
+    /**
+     * @param concurrency Maximum number of shop calls at the same time, 8 by default
+     */
+    public void setConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param queries The entities and product types to compare
+     * @return The offers of each query, in the order of the queries
+     */
+    public Map<ShopQuery, ShopOffers> aggregate(Collection<ShopQuery> queries) {
+        LinkedHashMap<ShopQuery, ShopOffers> offers = new LinkedHashMap<>();
+        LinkedHashMap<String, Callable<List<Product>>> calls = new LinkedHashMap<>();
+        for (ShopQuery query : queries) {
+            offers.put(query, new ShopOffers());
+            if (query.getTypes().isEmpty()) {
+                calls.put(key(query, null), call(query, null));
+            }
+            for (ProductType type : query.getTypes()) {
+                calls.put(key(query, type), call(query, type));
+            }
+        }
+
+        LinkedHashMap<String, List<Product>> products = new LinkedHashMap<>();
+        LinkedHashMap<String, Future<List<Product>>> futures = new LinkedHashMap<>();
+        ExecutorService executor = null;
+        try {
+            for (Map.Entry<String, Callable<List<Product>>> call : calls.entrySet()) {
+                List<Product> cached = cache.get(call.getKey());
+                if (cached != null) {
+                    products.put(call.getKey(), cached);
+                    continue;
+                }
+                if (executor == null) {
+                    executor = BlitzrExecutors.newFixedThreadPool("blitzr-shop", Math.min(concurrency, calls.size()));
+                }
+                futures.put(call.getKey(), executor.submit(call.getValue()));
+            }
+
+            for (Map.Entry<ShopQuery, ShopOffers> entry : offers.entrySet()) {
+                ShopQuery query = entry.getKey();
+                List<ProductType> types = new ArrayList<>(query.getTypes());
+                if (types.isEmpty()) {
+                    types.add(null);
+                }
+                for (ProductType type : types) {
+                    String key = key(query, type);
+                    try {
+                        List<Product> list = products.get(key);
+                        if (list == null) {
+                            list = futures.get(key).get();
+                            if (list == null) {
+                                list = Collections.emptyList();
+                            }
+                            cache.put(key, list);
+                            products.put(key, list);
+                        }
+                        addOffers(entry.getValue(), type, list);
+                    } catch (ExecutionException e) {
+                        entry.getValue().addFailure((e.getCause() instanceof BlitzrException)
+                                ? (BlitzrException) e.getCause() : new BlitzrException(601, String.valueOf(e.getCause())));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new BlitzrException(601, "Interrupted while aggregating the shops");
+                    }
+                }
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        return offers;
+    }
+
+    /**
+     * @param query The entity and product types to compare
+     * @return Its offers
+     */
+    public ShopOffers aggregate(ShopQuery query) {
+        List<ShopQuery> queries = new ArrayList<>();
+        queries.add(query);
+        return aggregate(queries).get(query);
+    }
+
+    private void addOffers(ShopOffers offers, ProductType type, List<Product> products) {
+        for (Product product : products) {
+            if (product == null) {
+                continue;
+            }
+            Double rate = rates.getRate(product.getCurrency());
+            if (product.getPrice() == null || rate == null) {
+                offers.addUnpriced();
+                continue;
+            }
+            offers.add(new Offer(product, type, product.getPrice() * rate, rates.getBaseCurrency()));
+        }
+    }
+
+    private Callable<List<Product>> call(final ShopQuery query, final ProductType type) {
+        return new Callable<List<Product>>() {
+            @Override
+            public List<Product> call() {
+                switch (query.getEntity()) {
+                    case artist:
+                        return client.shopArtist(type, query.getSlug(), query.getUuid());
+                    case label:
+                        return client.shopLabel(type, query.getSlug(), query.getUuid());
+                    case release:
+                        return client.shopRelease(type, query.getSlug(), query.getUuid());
+                    default:
+                        return client.shopTrack(query.getUuid());
+                }
+            }
+        };
+    }
+
+    private static String key(ShopQuery query, ProductType type) {
+        return query.getEntity() + "/" + query.getSlug() + "/" + query.getUuid() + "/" + type;
+    }
+}
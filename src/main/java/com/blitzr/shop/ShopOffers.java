@@ -0,0 +1,65 @@
+package com.blitzr.shop;
+
+import com.blitzr.exceptions.BlitzrException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The cheapest offers of a ShopQuery.
+ */
+public class ShopOffers {
+    private final TreeMap<String, Offer> byProvider = new TreeMap<>();
+    private final List<BlitzrException> failures = new ArrayList<>();
+    private Offer cheapest;
+    private int unpriced;
+
+    void add(Offer offer) {
+        String provider = (offer.getProduct().getProvider() != null) ? offer.getProduct().getProvider() : "";
+        Offer current = byProvider.get(provider);
+        if (current == null || offer.getPrice() < current.getPrice()) {
+            byProvider.put(provider, offer);
+        }
+        if (cheapest == null || offer.getPrice() < cheapest.getPrice()) {
+            cheapest = offer;
+        }
+    }
+
+    void addUnpriced() {
+        unpriced++;
+    }
+
+    void addFailure(BlitzrException failure) {
+        failures.add(failure);
+    }
+
+    /**
+     * @return The cheapest offer of all the providers, null if none
+     */
+    public Offer getCheapest() {
+        return cheapest;
+    }
+
+    /**
+     * @return The cheapest offer of each provider
+     */
+    public Map<String, Offer> getCheapestByProvider() {
+        return byProvider;
+    }
+
+    /**
+     * @return Number of products left out, without price or with an unknown currency
+     */
+    public int getUnpriced() {
+        return unpriced;
+    }
+
+    /**
+     * @return The errors of the shop calls which failed, the offers of the other calls are still compared
+     */
+    public List<BlitzrException> getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,101 @@
+package com.blitzr.shop;
+
+import com.blitzr.models.shop.ProductType;
+import com.blitzr.models.utils.EntityType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The products of an entity to compare : an artist, a label, a release or a track, and the product types. Two
+ * queries of the same entity and types are equal.
+ */
+public final class ShopQuery {
+    private final EntityType entity;
+    private final String slug;
+    private final String uuid;
+    private final Set<ProductType> types;
+
+    private ShopQuery(EntityType entity, String slug, String uuid, Set<ProductType> types) {
+        this.entity = entity;
+        this.slug = slug;
+        this.uuid = uuid;
+        this.types = Collections.unmodifiableSet(types);
+    }
+
+    /**
+     * @param types Types of the products (cd|lp|mp3|merch), all of them if none
+     */
+    public static ShopQuery artist(String slug, String uuid, ProductType... types) {
+        return new ShopQuery(EntityType.artist, slug, uuid,
+                types(types, ProductType.cd, ProductType.lp, ProductType.mp3, ProductType.merch));
+    }
+
+    /**
+     * @param types Types of the products (cd|lp|merch), all of them if none
+     */
+    public static ShopQuery label(String slug, String uuid, ProductType... types) {
+        return new ShopQuery(EntityType.label, slug, uuid, types(types, ProductType.cd, ProductType.lp, ProductType.merch));
+    }
+
+    /**
+     * @param types Types of the products (cd|lp|mp3), all of them if none
+     */
+    public static ShopQuery release(String slug, String uuid, ProductType... types) {
+        return new ShopQuery(EntityType.release, slug, uuid, types(types, ProductType.cd, ProductType.lp, ProductType.mp3));
+    }
+
+    public static ShopQuery track(String uuid) {
+        return new ShopQuery(EntityType.track, null, uuid, EnumSet.noneOf(ProductType.class));
+    }
+
+    public EntityType getEntity() {
+        return entity;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * @return The product types, empty for a track
+     */
+    public Set<ProductType> getTypes() {
+        return types;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ShopQuery)) {
+            return false;
+        }
+        return Arrays.equals(values(), ((ShopQuery) o).values());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values());
+    }
+
+    @Override
+    public String toString() {
+        return "ShopQuery" + Arrays.toString(values());
+    }
+
+    private static Set<ProductType> types(ProductType[] types, ProductType first, ProductType... rest) {
+        return (types.length == 0) ? EnumSet.of(first, rest) : EnumSet.copyOf(Arrays.asList(types));
+    }
+
+    private Object[] values() {
+        return new Object[]{entity, slug, uuid, types};
+    }
+}
@@ -0,0 +1,46 @@
+package com.blitzr.trace;
+
+import com.blitzr.exceptions.BlitzrException;
+
+/**
+ * <p>A hook around each API call, registered with ApiCaller.addInterceptor.</p>
+ * <p>The interceptors are called in their registration order before the call, and in the reverse order after
+ * it. An interceptor returning a result from before short-circuits the call : the next interceptors and the HTTP
+ * request are skipped, and the result is returned as the response (eg: from a cache). The after hooks are called
+ * for every interceptor whose before was called.</p>
+ * <p>The hooks are called by the thread making the call, they must be thread safe.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     ApiCaller.addInterceptor(new ApiInterceptor() {
+ *         public Object before(ApiRequest request) {
+ *             Span span = tracer.startSpan("blitzr " + request.getEndpoint(), request.getContext());
+ *             request.getHeaders().put("traceparent", span.getTraceParent());
+ *             request.setAttribute("span", span);
+ *             return null;
+ *         }
+ *         public void after(ApiRequest request, Object result, RuntimeException error) {
+ *             ((Span) request.getAttribute("span")).end(error);
+ *         }
+ *     });
+ * </code></pre>
+ */
+public interface ApiInterceptor {
+    /**
+     * @param request The call, its parameters and headers can be changed
+     * @return null to go on with the call, or the response of the call to short-circuit it. For a visit, the
+     * response is a list of the elements to visit.
+     * @throws BlitzrException To fail the call
+     */
+    Object before(ApiRequest request);
+
+    /**
+     * Called when the call ended. An exception thrown by after is ignored.
+     *
+     * @param request The call
+     * @param result The response, the number of elements visited for a visit, null if the call failed
+     * @param error The error of the call, null if it succeeded
+     */
+    void after(ApiRequest request, Object result, RuntimeException error);
+}
@@ -0,0 +1,91 @@
+package com.blitzr.trace;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>An API call going through the ApiInterceptors. The interceptors may change its parameters and add HTTP
+ * headers before the call, and keep their own attributes between before and after.</p>
+ */
+public class ApiRequest {
+    private final String endpoint;
+    private final HashMap<String, Object> params;
+    private final JavaType type;
+    private final boolean visit;
+    private final CallContext context;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    /**
+     * @param endpoint The endpoint path (eg: "artist/")
+     * @param params The query parameters, copied
+     * @param type The type of the response, or of its elements for a visit
+     * @param visit true if the elements of the response are visited instead of returned
+     */
+    public ApiRequest(String endpoint, HashMap<String, Object> params, JavaType type, boolean visit) {
+        this.endpoint = endpoint;
+        this.params = (params != null) ? new HashMap<>(params) : new HashMap<String, Object>();
+        this.type = type;
+        this.visit = visit;
+        this.context = CallContext.current();
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return The query parameters, to change before the call. Null values are skipped.
+     */
+    public HashMap<String, Object> getParams() {
+        return params;
+    }
+
+    /**
+     * @return The type of the response, or of its elements for a visit
+     */
+    public JavaType getType() {
+        return type;
+    }
+
+    /**
+     * @return true if the call is a visitApiList : a short-circuit result must then be a list of elements
+     */
+    public boolean isVisit() {
+        return visit;
+    }
+
+    /**
+     * @return The context of the thread making the call, null if none
+     */
+    public CallContext getContext() {
+        return context;
+    }
+
+    /**
+     * @return The HTTP headers sent with the request, to change before the call
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public Object getAttribute(String key) {
+        return attributes.get(key);
+    }
+
+    /**
+     * @param key The attribute name
+     * @param value The attribute value, kept for the other interceptors and the after hooks
+     */
+    public void setAttribute(String key, Object value) {
+        attributes.put(key, value);
+    }
+
+    @Override
+    public String toString() {
+        return endpoint + " " + params;
+    }
+}
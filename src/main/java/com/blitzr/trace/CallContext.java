@@ -0,0 +1,118 @@
+package com.blitzr.trace;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>A context attached to the calling thread, carried to the API calls it triggers : the ApiInterceptors get
+ * it from {@link ApiRequest#getContext()}, for example to link the calls to the span of a distributed trace.</p>
+ * <p>The context follows the work of the client to its other threads : the producer of a Generator gets the
+ * context of the thread iterating it, and the tasks of the BlitzrExecutors get the context of the thread
+ * submitting them. Use {@link #wrap(Runnable)} to carry it to your own threads.</p>
+ *
+ * <em>Example : </em>
+ *
+ * <pre><code>
+ *     CallContext context = new CallContext();
+ *     context.put("traceparent", span.getTraceParent());
+ *     CallContext previous = CallContext.attach(context);
+ *     try {
+ *         for (Release release : blitzr.getArtistReleasesGenerator("daft-punk", null, null, 20, null, null, null)) {
+ *             ...
+ *         }
+ *     } finally {
+ *         CallContext.attach(previous);
+ *     }
+ * </code></pre>
+ */
+public final class CallContext {
+    private static final ThreadLocal<CallContext> CURRENT = new ThreadLocal<>();
+
+    private final ConcurrentMap<String, Object> attributes = new ConcurrentHashMap<>();
+
+    /**
+     * @param key The attribute name
+     * @return The attribute value, null if absent
+     */
+    public Object get(String key) {
+        return attributes.get(key);
+    }
+
+    /**
+     * @param key The attribute name
+     * @param value The attribute value, null to remove it
+     */
+    public void put(String key, Object value) {
+        if (value == null) {
+            attributes.remove(key);
+        } else {
+            attributes.put(key, value);
+        }
+    }
+
+    /**
+     * @return The context of the current thread, null if none
+     */
+    public static CallContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @param context The context of the current thread, null to remove it
+     * @return The previous context of the thread, to attach back when done
+     */
+    public static CallContext attach(CallContext context) {
+        CallContext previous = CURRENT.get();
+        if (context == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+        return previous;
+    }
+
+    /**
+     * @param task A task
+     * @return The task, running with the context of the current thread
+     */
+    public static Runnable wrap(final Runnable task) {
+        final CallContext context = CURRENT.get();
+        if (context == null) {
+            return task;
+        }
+        return new Runnable() {
+            @Override
+            public void run() {
+                CallContext previous = attach(context);
+                try {
+                    task.run();
+                } finally {
+                    attach(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * @param task A task
+     * @return The task, running with the context of the current thread
+     */
+    public static <V> Callable<V> wrap(final Callable<V> task) {
+        final CallContext context = CURRENT.get();
+        if (context == null) {
+            return task;
+        }
+        return new Callable<V>() {
+            @Override
+            public V call() throws Exception {
+                CallContext previous = attach(context);
+                try {
+                    return task.call();
+                } finally {
+                    attach(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,254 @@
+package com.blitzr;
+
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.release.Release;
+import com.blitzr.trace.ApiInterceptor;
+import com.blitzr.trace.ApiRequest;
+import com.blitzr.trace.CallContext;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ApiCallerTest {
+
+    /**
+     * Log its hooks in the shared log, and return a result from before if given one.
+     */
+    private static class Recording implements ApiInterceptor {
+        private final String name;
+        private final List<String> log;
+        private Object shortCircuit;
+        private ApiRequest request;
+        private Object result;
+        private RuntimeException error;
+
+        Recording(String name, List<String> log) {
+            this.name = name;
+            this.log = log;
+        }
+
+        @Override
+        public Object before(ApiRequest request) {
+            log.add(name + ".before");
+            this.request = request;
+            return shortCircuit;
+        }
+
+        @Override
+        public void after(ApiRequest request, Object result, RuntimeException error) {
+            log.add(name + ".after");
+            this.result = result;
+            this.error = error;
+        }
+    }
+
+    private final List<String> log = new CopyOnWriteArrayList<>();
+    private final List<ApiInterceptor> added = new ArrayList<>();
+    private StubServer server;
+    private BlitzrClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer();
+        client = new BlitzrClient("key");
+    }
+
+    @After
+    public void tearDown() {
+        for (ApiInterceptor interceptor : added) {
+            ApiCaller.removeInterceptor(interceptor);
+        }
+        CallContext.attach(null);
+        server.stop();
+    }
+
+    private Recording add(String name) {
+        Recording interceptor = new Recording(name, log);
+        add(interceptor);
+        return interceptor;
+    }
+
+    private void add(ApiInterceptor interceptor) {
+        ApiCaller.addInterceptor(interceptor);
+        added.add(interceptor);
+    }
+
+    @Test
+    public void afterHooksRunInTheReverseOrder() {
+        server.respond("artist/", "{\"uuid\":\"ART1\",\"name\":\"Daft Punk\"}");
+        Recording first = add("first");
+        Recording second = add("second");
+        Artist artist = client.getArtist("daft-punk", null, null, null);
+
+        assertEquals("Daft Punk", artist.getName());
+        assertEquals(Arrays.asList("first.before", "second.before", "second.after", "first.after"), log);
+        assertSame(artist, first.result);
+        assertSame(artist, second.result);
+        assertNull(first.error);
+        assertEquals("artist/", first.request.getEndpoint());
+        assertEquals(1, server.getRequests().size());
+    }
+
+    @Test
+    public void paramsAndHeadersAreSent() {
+        server.respond("artist/", "{\"uuid\":\"ART1\"}");
+        add(new ApiInterceptor() {
+            @Override
+            public Object before(ApiRequest request) {
+                request.getParams().put("slug", "justice");
+                request.getHeaders().put("X-Trace", "abc");
+                return null;
+            }
+
+            @Override
+            public void after(ApiRequest request, Object result, RuntimeException error) {
+            }
+        });
+        client.getArtist("daft-punk", null, null, null);
+
+        assertTrue(server.getRequests().get(0), server.getRequests().get(0).contains("slug=justice"));
+        assertEquals(Collections.singletonList("abc"), server.getHeaders().get(0).get("X-trace"));
+    }
+
+    @Test
+    public void beforeResultShortCircuitsTheCall() {
+        Artist cached = new Artist();
+        cached.setUuid("ART1");
+        Recording first = add("first");
+        Recording second = add("second");
+        Recording third = add("third");
+        second.shortCircuit = cached;
+        Artist artist = client.getArtist("daft-punk", null, null, null);
+
+        assertSame(cached, artist);
+        assertEquals(Arrays.asList("first.before", "second.before", "second.after", "first.after"), log);
+        assertNull(third.request);
+        assertSame(cached, first.result);
+        assertTrue(server.getRequests().isEmpty());
+    }
+
+    @Test
+    public void errorsReachTheAfterHooks() {
+        server.fail("artist/", 503);
+        Recording first = add("first");
+        try {
+            client.getArtist("daft-punk", null, null, null);
+            fail();
+        } catch (BlitzrException e) {
+            assertSame(e, first.error);
+            assertEquals(503, e.getmStatusCode());
+        }
+        assertNull(first.result);
+    }
+
+    @Test
+    public void failingAfterHookDoesNotHideTheResult() {
+        server.respond("artist/", "{\"uuid\":\"ART1\"}");
+        add(new ApiInterceptor() {
+            @Override
+            public Object before(ApiRequest request) {
+                return null;
+            }
+
+            @Override
+            public void after(ApiRequest request, Object result, RuntimeException error) {
+                throw new IllegalStateException("after");
+            }
+        });
+        assertEquals("ART1", client.getArtist("daft-punk", null, null, null).getUuid());
+    }
+
+    @Test
+    public void visitsGoThroughTheChain() {
+        server.respond("label/releases/", "[{\"uuid\":\"REL1\"},{\"uuid\":\"REL2\"}]");
+        Recording first = add("first");
+        final List<String> uuids = new ArrayList<>();
+        int count = client.forEachLabelRelease("warp", null, null, 0, 10, new Visitor<Release>() {
+            @Override
+            public void visit(Release release) {
+                uuids.add(release.getUuid());
+            }
+        });
+
+        assertEquals(2, count);
+        assertEquals(Arrays.asList("REL1", "REL2"), uuids);
+        assertTrue(first.request.isVisit());
+        assertEquals(2, first.result);
+    }
+
+    @Test
+    public void visitShortCircuitIsVisited() {
+        Release release = new Release();
+        release.setUuid("REL9");
+        Recording first = add("first");
+        first.shortCircuit = Collections.singletonList(release);
+        final List<String> uuids = new ArrayList<>();
+        int count = client.forEachLabelRelease("warp", null, null, 0, 10, new Visitor<Release>() {
+            @Override
+            public void visit(Release release) {
+                uuids.add(release.getUuid());
+            }
+        });
+
+        assertEquals(1, count);
+        assertEquals(Collections.singletonList("REL9"), uuids);
+        assertEquals(1, first.result);
+        assertTrue(server.getRequests().isEmpty());
+    }
+
+    @Test
+    public void rawVisitShortCircuitIsSerialized() {
+        Release release = new Release();
+        release.setUuid("REL9");
+        Recording first = add("first");
+        first.shortCircuit = Collections.singletonList(release);
+        final List<String> uuids = new ArrayList<>();
+        int count = client.forEachLabelRelease("warp", null, null, 0, 10, new JsonVisitor() {
+            @Override
+            public void visit(JsonParser element) throws IOException {
+                JsonNode node = new ObjectMapper().readTree(element);
+                uuids.add(node.get("uuid").asText());
+            }
+        });
+
+        assertEquals(1, count);
+        assertEquals(Collections.singletonList("REL9"), uuids);
+        assertTrue(server.getRequests().isEmpty());
+    }
+
+    @Test
+    public void requestsCarryTheCallContext() {
+        server.respond("artist/releases/", "[{\"uuid\":\"REL1\"}]");
+        Recording first = add("first");
+        CallContext context = new CallContext();
+        context.put("traceparent", "00-abc-01");
+        CallContext.attach(context);
+
+        // The producer of the Generator runs on its own thread
+        List<String> uuids = new ArrayList<>();
+        for (Release release : client.getArtistReleasesGenerator("daft-punk", null, 0, 10, null, null, false)) {
+            uuids.add(release.getUuid());
+        }
+
+        assertEquals(Collections.singletonList("REL1"), uuids);
+        assertSame(context, first.request.getContext());
+        assertEquals("00-abc-01", first.request.getContext().get("traceparent"));
+    }
+}
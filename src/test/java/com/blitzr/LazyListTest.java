@@ -0,0 +1,23 @@
+package com.blitzr;
+
+import com.blitzr.models.label.Label;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LazyListTest {
+
+    @Test
+    public void bindsTheNestedListWhenRead() throws Exception {
+        Label label = LazyList.newMapper().readValue("{\"name\":\"Warp\",\"last_releases\":"
+                + "[{\"uuid\":\"REL1\",\"name\":\"Selected Ambient Works\"},{\"uuid\":\"REL2\"}]}", Label.class);
+        assertTrue(label.getLast_releases() instanceof LazyList);
+        LazyList<?> releases = (LazyList<?>) label.getLast_releases();
+        assertFalse(releases.isMaterialized());
+        assertEquals(2, label.getLast_releases().size());
+        assertTrue(releases.isMaterialized());
+        assertEquals("Selected Ambient Works", label.getLast_releases().get(0).getName());
+    }
+}
@@ -0,0 +1,29 @@
+package com.blitzr;
+
+import com.blitzr.models.artist.Artist;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ProjectionTest {
+    private static final String ARTIST = "{\"uuid\":\"ART1\",\"name\":\"The Beatles\",\"thumb\":\"thumb.jpg\","
+            + "\"type\":\"band\",\"location\":\"Liverpool\"}";
+
+    @Test
+    public void bindsOnlyTheProjectedFields() throws Exception {
+        Projection<Artist> light = Projection.of(Artist.class, "uuid", "name");
+        Artist artist = light.getMapper().readValue(ARTIST, Artist.class);
+        assertEquals("ART1", artist.getUuid());
+        assertEquals("The Beatles", artist.getName());
+        assertNull(artist.getThumb());
+        assertNull(artist.getLocation());
+    }
+
+    @Test
+    public void viewBindsTheWholeType() throws Exception {
+        Artist artist = Projection.view(Artist.class).getMapper().readValue(ARTIST, Artist.class);
+        assertEquals("thumb.jpg", artist.getThumb());
+        assertEquals("Liverpool", artist.getLocation());
+    }
+}
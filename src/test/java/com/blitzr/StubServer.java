@@ -0,0 +1,114 @@
+package com.blitzr;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A local HTTP server answering the API calls of the tests with canned responses.
+ */
+public class StubServer {
+    private final HttpServer server;
+    private final Map<String, String> bodies = new ConcurrentHashMap<>();
+    private final Map<String, Integer> statuses = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final List<Map<String, List<String>>> headers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Start the server and send the API calls of the BlitzrClient to it.
+     */
+    public StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                String path = exchange.getRequestURI().getPath().substring(1);
+                requests.add(exchange.getRequestURI().toString());
+                headers.add(exchange.getRequestHeaders());
+                String body = bodies.get(path + "?start=" + start(exchange.getRequestURI().getRawQuery()));
+                if (body == null) {
+                    body = bodies.get(path);
+                }
+                Integer status = statuses.get(path);
+                if (status == null) {
+                    status = (body != null) ? 200 : 404;
+                }
+                byte[] bytes = (body != null) ? body.getBytes("UTF-8") : new byte[0];
+                exchange.sendResponseHeaders(status, (bytes.length > 0) ? bytes.length : -1);
+                if (bytes.length > 0) {
+                    OutputStream out = exchange.getResponseBody();
+                    out.write(bytes);
+                    out.close();
+                }
+                exchange.close();
+            }
+        });
+        server.start();
+        BlitzrClient.setApiUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    /**
+     * @param endpoint The endpoint path (eg: "artist/")
+     * @param json The response body
+     */
+    public void respond(String endpoint, String json) {
+        bodies.put(endpoint, json);
+        statuses.remove(endpoint);
+    }
+
+    /**
+     * @param endpoint The endpoint path (eg: "label/releases/")
+     * @param start The start parameter of the page
+     * @param json The response body of the page, instead of the one of the endpoint
+     */
+    public void respond(String endpoint, int start, String json) {
+        bodies.put(endpoint + "?start=" + start, json);
+    }
+
+    /**
+     * @param endpoint The endpoint path (eg: "artist/")
+     * @param status The HTTP status of the responses, without body
+     */
+    public void fail(String endpoint, int status) {
+        bodies.remove(endpoint);
+        statuses.put(endpoint, status);
+    }
+
+    /**
+     * @return The path and query of the received requests
+     */
+    public List<String> getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return The headers of the received requests
+     */
+    public List<Map<String, List<String>>> getHeaders() {
+        return headers;
+    }
+
+    private static String start(String query) {
+        if (query != null) {
+            for (String param : query.split("&")) {
+                if (param.startsWith("start=")) {
+                    return param.substring("start=".length());
+                }
+            }
+        }
+        return null;
+    }
+
+    public void stop() {
+        BlitzrClient.setApiUrl(null);
+        server.stop(0);
+    }
+}
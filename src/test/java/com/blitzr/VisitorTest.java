@@ -0,0 +1,151 @@
+package com.blitzr;
+
+import com.blitzr.metrics.ApiMetrics;
+import com.blitzr.metrics.MetricsSink;
+import com.blitzr.metrics.RequestMetrics;
+import com.blitzr.models.release.Release;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.junit.Assert.fail;
+
+public class VisitorTest {
+    private StubServer server;
+    private BlitzrClient client;
+    private final List<RequestMetrics> recorded = new CopyOnWriteArrayList<>();
+    private final MetricsSink sink = new MetricsSink() {
+        @Override
+        public void onRequest(RequestMetrics request) {
+            recorded.add(request);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer();
+        client = new BlitzrClient("key");
+        ApiMetrics.addSink(sink);
+    }
+
+    @After
+    public void tearDown() {
+        ApiMetrics.setPayloadAccounting(false);
+        ApiMetrics.removeSink(sink);
+        server.stop();
+    }
+
+    @Test
+    public void visitsEachElementWithANewInstance() {
+        server.respond("label/releases/", "[{\"uuid\":\"REL1\",\"name\":\"First\",\"format\":\"album\"},"
+                + "{\"uuid\":\"REL2\",\"name\":\"Second\"}]");
+        final List<Release> releases = new ArrayList<>();
+        int count = client.forEachLabelRelease("warp", null, null, 0, 10, new Visitor<Release>() {
+            @Override
+            public void visit(Release release) {
+                releases.add(release);
+            }
+        });
+        assertEquals(2, count);
+        assertNotSame(releases.get(0), releases.get(1));
+        assertEquals("Second", releases.get(1).getName());
+        assertNull(releases.get(1).getFormat());
+    }
+
+    @Test
+    public void skipsTheNullElements() {
+        server.respond("label/releases/", "[{\"uuid\":\"REL1\"},null,{\"uuid\":\"REL2\"},null]");
+        final List<String> uuids = new ArrayList<>();
+        int count = client.forEachLabelRelease("warp", null, null, 0, 10, new Visitor<Release>() {
+            @Override
+            public void visit(Release release) {
+                uuids.add(release.getUuid());
+            }
+        });
+        assertEquals(2, count);
+        assertEquals(Arrays.asList("REL1", "REL2"), uuids);
+    }
+
+    @Test
+    public void failingVisitorIsRecorded() {
+        server.respond("label/releases/", "[{\"uuid\":\"REL1\"},{\"uuid\":\"REL2\"}]");
+        final IllegalStateException thrown = new IllegalStateException("full");
+        try {
+            client.forEachLabelRelease("warp", null, null, 0, 10, new Visitor<Release>() {
+                @Override
+                public void visit(Release release) {
+                    throw thrown;
+                }
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            assertSame(thrown, e);
+        }
+        assertEquals(1, recorded.size());
+        assertTrue(recorded.get(0).isError());
+        assertEquals(601, recorded.get(0).getError().getmStatusCode());
+    }
+
+    @Test
+    public void visitorTimeIsNotDeserializationTime() {
+        server.respond("label/releases/", "[{\"uuid\":\"REL1\"},{\"uuid\":\"REL2\"}]");
+        client.forEachLabelRelease("warp", null, null, 0, 10, new Visitor<Release>() {
+            @Override
+            public void visit(Release release) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertEquals(1, recorded.size());
+        assertTrue(recorded.get(0).getDeserializeNanos() < TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void skippedObjectsAreNotCounted() {
+        ApiMetrics.setPayloadAccounting(true);
+        String json = "[{\"uuid\":\"REL1\",\"unknown\":{\"a\":{\"b\":1}}},{\"uuid\":\"REL2\",\"unknown\":[{}]}]";
+        server.respond("label/releases/", json);
+        client.forEachLabelRelease("warp", null, null, 0, 10, new Visitor<Release>() {
+            @Override
+            public void visit(Release release) {
+            }
+        });
+        client.getLabelReleases("warp", null, null, 0, 10);
+
+        assertEquals(2, recorded.size());
+        assertEquals(2, recorded.get(0).getObjects());
+        assertEquals(2, recorded.get(1).getObjects());
+    }
+
+    @Test
+    public void visitorAllocationsAreNotCounted() {
+        ApiMetrics.setPayloadAccounting(true);
+        server.respond("label/releases/", "[{\"uuid\":\"REL1\"},{\"uuid\":\"REL2\"}]");
+        final List<byte[]> kept = new ArrayList<>();
+        client.forEachLabelRelease("warp", null, null, 0, 10, new Visitor<Release>() {
+            @Override
+            public void visit(Release release) {
+                kept.add(new byte[8 << 20]);
+            }
+        });
+
+        assumeTrue(recorded.get(0).getAllocatedBytes() >= 0);
+        assertEquals(2, kept.size());
+        assertTrue(recorded.get(0).getAllocatedBytes() < 8 << 20);
+    }
+}
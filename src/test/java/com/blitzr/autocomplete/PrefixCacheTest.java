@@ -0,0 +1,81 @@
+package com.blitzr.autocomplete;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class PrefixCacheTest {
+
+    @Test
+    public void getReturnsTheEntryOfExactlyThePrefix() {
+        PrefixCache<String> cache = new PrefixCache<>(1, TimeUnit.MINUTES, 10);
+        cache.put("bea", Arrays.asList("beatles", "beach boys"), false);
+        assertEquals(Arrays.asList("beatles", "beach boys"), cache.get("bea").getResults());
+        assertNull(cache.get("be"));
+        assertNull(cache.get("beat"));
+    }
+
+    @Test
+    public void completeAncestorAnswersTheLongerPrefixes() {
+        PrefixCache<String> cache = new PrefixCache<>(1, TimeUnit.MINUTES, 10);
+        cache.put("b", Arrays.asList("beatles", "beach boys", "blur"), false);
+        cache.put("be", Arrays.asList("beatles", "beach boys"), true);
+        cache.put("bea", Collections.singletonList("beatles"), false);
+
+        PrefixCache.Entry<String> ancestor = cache.getCompleteAncestor("beat");
+        assertNotNull(ancestor);
+        assertEquals("be", ancestor.getPrefix());
+        assertNull(cache.getCompleteAncestor("be"));
+        assertNull(cache.getCompleteAncestor("xyz"));
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedPrefix() {
+        PrefixCache<String> cache = new PrefixCache<>(1, TimeUnit.MINUTES, 2);
+        cache.put("a", Collections.singletonList("abba"), true);
+        cache.put("b", Collections.singletonList("blur"), true);
+        cache.get("a");
+        cache.put("c", Collections.singletonList("cure"), true);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void evictionKeepsTheDescendants() {
+        PrefixCache<String> cache = new PrefixCache<>(1, TimeUnit.MINUTES, 2);
+        cache.put("b", Collections.singletonList("blur"), true);
+        cache.put("bl", Collections.singletonList("blur"), true);
+        cache.put("c", Collections.singletonList("cure"), true);
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("bl"));
+    }
+
+    @Test
+    public void expiredEntriesAreIgnored() throws InterruptedException {
+        PrefixCache<String> cache = new PrefixCache<>(30, TimeUnit.MILLISECONDS, 10);
+        cache.put("b", Collections.singletonList("blur"), true);
+        Thread.sleep(60);
+        assertNull(cache.getCompleteAncestor("bl"));
+        assertNull(cache.get("b"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        PrefixCache<String> cache = new PrefixCache<>(1, TimeUnit.MINUTES, 10);
+        cache.put("b", Collections.singletonList("blur"), true);
+        cache.put("bl", Collections.singletonList("blur"), true);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get("bl"));
+        assertNull(cache.getCompleteAncestor("blu"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.blitzr.cache;
+
+import com.blitzr.metrics.ClientEventAdapter;
+import com.blitzr.metrics.ClientEvents;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TtlCacheTest {
+
+    @Test
+    public void countsHitsAndMisses() {
+        TtlCache<String, String> cache = new TtlCache<>(1, TimeUnit.MINUTES, 10);
+        cache.put("warp", "Warp Records");
+        assertEquals("Warp Records", cache.get("warp"));
+        assertNull(cache.get("ninja-tune"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void expiresTheEntries() throws InterruptedException {
+        TtlCache<String, String> cache = new TtlCache<>(50, TimeUnit.MILLISECONDS, 10);
+        cache.put("warp", "Warp Records");
+        Thread.sleep(100);
+        assertNull(cache.get("warp"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void purgeRemovesOnlyTheExpiredEntries() throws InterruptedException {
+        TtlCache<String, String> cache = new TtlCache<>(50, TimeUnit.MILLISECONDS, 10);
+        cache.put("warp", "Warp Records");
+        Thread.sleep(100);
+        cache.put("ninja-tune", "Ninja Tune");
+        cache.purge();
+        assertEquals(1, cache.size());
+        assertEquals("Ninja Tune", cache.get("ninja-tune"));
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedEntry() {
+        TtlCache<String, String> cache = new TtlCache<>(1, TimeUnit.MINUTES, 2);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.put("c", "C");
+        assertEquals(2, cache.size());
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+    }
+
+    @Test
+    public void ignoresNullValues() {
+        TtlCache<String, String> cache = new TtlCache<>(1, TimeUnit.MINUTES, 2);
+        cache.put("a", null);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void containsKeyIsNotALookup() throws InterruptedException {
+        final List<String> lookups = new ArrayList<>();
+        ClientEventAdapter listener = new ClientEventAdapter() {
+            @Override
+            public void onCacheLookup(String cache, Object key, boolean hit) {
+                lookups.add(cache + "/" + key + "/" + hit);
+            }
+        };
+        TtlCache<String, String> cache = new TtlCache<>(50, TimeUnit.MILLISECONDS, 2);
+        cache.put("warp", "Warp Records");
+        ClientEvents.addListener(listener);
+        try {
+            assertTrue(cache.containsKey("warp"));
+            assertFalse(cache.containsKey("ninja-tune"));
+            Thread.sleep(100);
+            assertFalse(cache.containsKey("warp"));
+        } finally {
+            ClientEvents.removeListener(listener);
+        }
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertTrue(lookups.isEmpty());
+    }
+
+    @Test
+    public void firesTheLookupsWithTheCacheName() {
+        final List<String> lookups = new ArrayList<>();
+        ClientEventAdapter listener = new ClientEventAdapter() {
+            @Override
+            public void onCacheLookup(String cache, Object key, boolean hit) {
+                lookups.add(cache + "/" + key + "/" + hit);
+            }
+        };
+        TtlCache<String, String> cache = new TtlCache<>(1, TimeUnit.MINUTES, 2);
+        cache.setName("labels");
+        cache.put("warp", "Warp Records");
+        ClientEvents.addListener(listener);
+        try {
+            cache.get("warp");
+            cache.get("ninja-tune");
+        } finally {
+            ClientEvents.removeListener(listener);
+        }
+        assertEquals(2, lookups.size());
+        assertEquals("labels/warp/true", lookups.get(0));
+        assertEquals("labels/ninja-tune/false", lookups.get(1));
+    }
+
+    @Test
+    public void staysBoundedUnderConcurrentAccess() throws InterruptedException {
+        final TtlCache<Integer, Integer> cache = new TtlCache<>(1, TimeUnit.MINUTES, 100);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t * 1000;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        cache.put(offset + i, i);
+                        cache.get(offset + i / 2);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(100, cache.size());
+        assertEquals(4000, cache.getHits() + cache.getMisses());
+    }
+}
@@ -0,0 +1,61 @@
+package com.blitzr.concurrent;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimiterTest {
+
+    @Test
+    public void burstIsAvailableAtOnce() {
+        RateLimiter limiter = new RateLimiter(1, 3);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    public void permitsAreRefilledAtTheRate() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(20, 1);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        Thread.sleep(80);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void acquireWaitsForTheRefill() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(20, 1);
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        // The first permit is free, the 4 next ones take 50 ms each
+        assertTrue("elapsed " + elapsed, elapsed >= 190);
+        assertTrue("elapsed " + elapsed, elapsed < 2000);
+    }
+
+    @Test
+    public void idleTimeDoesNotExceedTheBurst() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1000, 2);
+        Thread.sleep(50);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rateMustBePositive() {
+        new RateLimiter(0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void burstMustBeAtLeastOne() {
+        new RateLimiter(10, 0);
+    }
+}
@@ -0,0 +1,90 @@
+package com.blitzr.concurrent;
+
+import com.blitzr.exceptions.BlitzrException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetrierTest {
+
+    /**
+     * Fail with status until the given attempt.
+     */
+    private static class Failing implements Retrier.Attempt<String> {
+        private final int status;
+        private final int succeedAt;
+        private int attempts;
+
+        Failing(int status, int succeedAt) {
+            this.status = status;
+            this.succeedAt = succeedAt;
+        }
+
+        @Override
+        public String call(int attempt) {
+            attempts = attempt;
+            if (attempt < succeedAt) {
+                throw new BlitzrException(status);
+            }
+            return "ok";
+        }
+    }
+
+    @Test
+    public void retryableErrorsAreRetried() throws InterruptedException {
+        Retrier retrier = new Retrier(null, 3, 1);
+        Failing attempt = new Failing(503, 3);
+        assertEquals("ok", retrier.call(attempt));
+        assertEquals(3, attempt.attempts);
+        assertEquals(2, retrier.getRetries());
+    }
+
+    @Test
+    public void lastErrorIsThrownAfterMaxRetries() throws InterruptedException {
+        Retrier retrier = new Retrier(null, 2, 1);
+        Failing attempt = new Failing(600, 10);
+        try {
+            retrier.call(attempt);
+            fail();
+        } catch (BlitzrException e) {
+            assertEquals(600, e.getmStatusCode());
+        }
+        assertEquals(3, attempt.attempts);
+        assertEquals(2, retrier.getRetries());
+    }
+
+    @Test
+    public void otherErrorsAreThrownAtOnce() throws InterruptedException {
+        Retrier retrier = new Retrier(null, 3, 1);
+        Failing attempt = new Failing(601, 2);
+        try {
+            retrier.call(attempt);
+            fail();
+        } catch (BlitzrException e) {
+            assertEquals(601, e.getmStatusCode());
+        }
+        assertEquals(1, attempt.attempts);
+        assertEquals(0, retrier.getRetries());
+    }
+
+    @Test
+    public void attemptsTakeAPermit() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1, 2);
+        Retrier retrier = new Retrier(limiter, 3, 1);
+        retrier.call(new Failing(429, 2));
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    public void retryableStatuses() {
+        assertTrue(Retrier.isRetryable(new BlitzrException(429)));
+        assertTrue(Retrier.isRetryable(new BlitzrException(500)));
+        assertTrue(Retrier.isRetryable(new BlitzrException(599)));
+        assertTrue(Retrier.isRetryable(new BlitzrException(600)));
+        assertFalse(Retrier.isRetryable(new BlitzrException(601)));
+        assertFalse(Retrier.isRetryable(new BlitzrException(404)));
+    }
+}
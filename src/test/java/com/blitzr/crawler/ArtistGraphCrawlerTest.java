@@ -0,0 +1,93 @@
+package com.blitzr.crawler;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.artist.Artist;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ArtistGraphCrawlerTest {
+
+    /**
+     * A complete graph : every artist is related to all the others.
+     */
+    private static class CompleteGraphClient extends BlitzrClient {
+        private final int size;
+
+        CompleteGraphClient(int size) {
+            super("key");
+            this.size = size;
+        }
+
+        @Override
+        public List<Artist> getArtistRelated(String slug, String uuid, Integer start, Integer limit) {
+            List<Artist> related = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                if (!uuid.equals("ART" + i)) {
+                    related.add(new Artist("ART" + i));
+                }
+            }
+            return related;
+        }
+    }
+
+    private static class RecordingListener implements CrawlListener {
+        private final Set<String> nodes = new HashSet<>();
+        private final List<String> unknownTargets = new ArrayList<>();
+        private int edges;
+
+        @Override
+        public void onNode(Artist artist, int depth) {
+            assertTrue(nodes.add(artist.getUuid()));
+        }
+
+        @Override
+        public void onEdge(String fromUuid, String toUuid, ArtistEdge edge) {
+            edges++;
+            if (!nodes.contains(fromUuid) || !nodes.contains(toUuid)) {
+                unknownTargets.add(fromUuid + "->" + toUuid);
+            }
+        }
+
+        @Override
+        public void onError(String uuid, ArtistEdge edge, BlitzrException error) {
+        }
+    }
+
+    @Test
+    public void edgesOnlyPointToReportedNodes() throws InterruptedException {
+        ArtistGraphCrawler crawler = new ArtistGraphCrawler(new CompleteGraphClient(200));
+        crawler.setEdges(EnumSet.of(ArtistEdge.related));
+        crawler.setMaxDepth(3);
+        crawler.setNodeBudget(50);
+        crawler.setConcurrency(8);
+        RecordingListener listener = new RecordingListener();
+
+        int reached = crawler.crawl(Arrays.asList("ART0", "ART1", "ART2", "ART3"), listener);
+
+        assertEquals(50, reached);
+        assertEquals(50, listener.nodes.size());
+        assertTrue(listener.edges > 0);
+        assertEquals(new ArrayList<String>(), listener.unknownTargets);
+    }
+
+    @Test
+    public void stopsAtTheMaxDepth() throws InterruptedException {
+        ArtistGraphCrawler crawler = new ArtistGraphCrawler(new CompleteGraphClient(20));
+        crawler.setEdges(EnumSet.of(ArtistEdge.related));
+        crawler.setMaxDepth(0);
+        RecordingListener listener = new RecordingListener();
+
+        assertEquals(1, crawler.crawl(Arrays.asList("ART0"), listener));
+        assertEquals(0, listener.edges);
+    }
+}
@@ -0,0 +1,120 @@
+package com.blitzr.events;
+
+import com.blitzr.models.event.Event;
+import com.blitzr.models.utils.City;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EventIndexTest {
+    private static final long DAY = 24 * 3600 * 1000L;
+    private static final long T0 = 1500000000000L;
+
+    private EventIndex index;
+
+    @Before
+    public void setUp() {
+        index = new EventIndex(Events.byCity(Arrays.asList(
+                city("Paris", 48.85f, 2.35f),
+                city("Versailles", 48.80f, 2.13f),
+                city("Lyon", 45.76f, 4.84f),
+                city("Suva", -18.14f, 178.44f),
+                city("Taveuni", -16.85f, -179.97f))));
+    }
+
+    private static City city(String name, float latitude, float longitude) {
+        City city = new City();
+        city.setName(name);
+        city.setLatitude(latitude);
+        city.setLongitude(longitude);
+        return city;
+    }
+
+    private static Event event(String id, String city, int day) {
+        Event event = new Event();
+        event.setId(id);
+        event.setCity(city);
+        event.setDate_start(new Date(T0 + day * DAY));
+        return event;
+    }
+
+    private static List<String> ids(List<Event> events) {
+        List<String> ids = new ArrayList<>();
+        for (Event event : events) {
+            ids.add(event.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void queryReturnsTheNearEventsOrderedByDate() {
+        index.put(event("EV1", "Paris", 3));
+        index.put(event("EV2", "Versailles", 1));
+        index.put(event("EV3", "Lyon", 2));
+        assertEquals(Arrays.asList("EV2", "EV1"), ids(index.query(48.85f, 2.35f, 50, null, null)));
+        assertEquals(Arrays.asList("EV2", "EV3", "EV1"), ids(index.query(48.85f, 2.35f, 500, null, null)));
+    }
+
+    @Test
+    public void queryFiltersTheDatesInclusively() {
+        index.put(event("EV1", "Paris", 1));
+        index.put(event("EV2", "Paris", 2));
+        index.put(event("EV3", "Paris", 3));
+        index.put(event("EV4", "Paris", 4));
+        assertEquals(Arrays.asList("EV2", "EV3"),
+                ids(index.query(48.85f, 2.35f, 10, new Date(T0 + 2 * DAY), new Date(T0 + 3 * DAY))));
+        assertTrue(index.query(48.85f, 2.35f, 10, new Date(T0 + 3 * DAY), new Date(T0 + 2 * DAY)).isEmpty());
+    }
+
+    @Test
+    public void eventsWhichCannotBeLocatedAreNotIndexed() {
+        assertFalse(index.put(event("EV1", "Atlantis", 1)));
+        assertEquals(0, index.size());
+        assertEquals(1, index.putAll(Arrays.asList(event("EV1", "Atlantis", 1), event("EV2", "Paris", 1))));
+    }
+
+    @Test
+    public void putReplacesTheEventWithTheSameId() {
+        index.put(event("EV1", "Paris", 1));
+        index.put(event("EV1", "Lyon", 5));
+        assertEquals(1, index.size());
+        assertTrue(index.query(48.85f, 2.35f, 50, null, null).isEmpty());
+        assertEquals(Arrays.asList("EV1"), ids(index.query(45.76f, 4.84f, 50, null, null)));
+    }
+
+    @Test
+    public void removeForgetsTheEvent() {
+        index.put(event("EV1", "Paris", 1));
+        assertEquals("EV1", index.remove("EV1").getId());
+        assertNull(index.get("EV1"));
+        assertNull(index.remove("EV1"));
+        assertTrue(index.query(48.85f, 2.35f, 50, null, null).isEmpty());
+    }
+
+    @Test
+    public void queryCrossesTheAntimeridian() {
+        index.put(event("EV1", "Suva", 1));
+        index.put(event("EV2", "Taveuni", 2));
+        assertEquals(Arrays.asList("EV1", "EV2"), ids(index.query(-17.5f, 179.9f, 250, null, null)));
+    }
+
+    @Test
+    public void followsTheSynchronizerChanges() {
+        EventQuery query = EventQuery.city("paris", null);
+        Event event = event("EV1", "Paris", 1);
+        index.onAdded(query, event);
+        index.onUpdated(query, event, event("EV1", "Versailles", 2));
+        assertEquals("Versailles", index.get("EV1").getCity());
+        index.onRemoved(query, index.get("EV1"));
+        assertEquals(0, index.size());
+    }
+}
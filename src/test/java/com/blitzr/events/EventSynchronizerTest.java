@@ -0,0 +1,235 @@
+package com.blitzr.events;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.event.Event;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EventSynchronizerTest {
+    private static final EventQuery PARIS = EventQuery.city("paris", "rock");
+
+    /**
+     * Serves the upcoming events of its map, filtered by date like the API.
+     */
+    private static class StubClient extends BlitzrClient {
+        private final Map<String, Event> events = new LinkedHashMap<>();
+        private final List<Date> froms = new ArrayList<>();
+        private int failures;
+
+        StubClient() {
+            super("key");
+        }
+
+        @Override
+        public List<Event> getEvents(String countryCode, Float latitude, Float longitude, String city, String venue,
+                                     String tag, Date dateStart, Date dateEnd, Integer radius, Integer start,
+                                     Integer limit) {
+            if (failures > 0) {
+                failures--;
+                throw new BlitzrException(600);
+            }
+            if (start == 0) {
+                froms.add(dateStart);
+            }
+            List<Event> matching = new ArrayList<>();
+            for (Event event : events.values()) {
+                Date date = event.getDate_start();
+                if (!date.before(dateStart) && (dateEnd == null || !date.after(dateEnd))) {
+                    matching.add(event);
+                }
+            }
+            return matching.subList(Math.min(start, matching.size()), Math.min(start + limit, matching.size()));
+        }
+    }
+
+    private static class RecordingListener implements EventSyncListener {
+        private final List<String> changes = new ArrayList<>();
+
+        @Override
+        public void onAdded(EventQuery query, Event event) {
+            changes.add("added " + event.getId());
+        }
+
+        @Override
+        public void onUpdated(EventQuery query, Event previous, Event current) {
+            changes.add("updated " + current.getId());
+        }
+
+        @Override
+        public void onRemoved(EventQuery query, Event event) {
+            changes.add("removed " + event.getId());
+        }
+    }
+
+    private long now;
+    private StubClient client;
+    private EventSynchronizer synchronizer;
+    private RecordingListener listener;
+
+    @Before
+    public void setUp() {
+        now = System.currentTimeMillis();
+        client = new StubClient();
+        synchronizer = new EventSynchronizer(client);
+        synchronizer.setPageLimit(2);
+        listener = new RecordingListener();
+    }
+
+    private void put(String id, int inDays, String name) {
+        Event event = new Event();
+        event.setId(id);
+        event.setName(name);
+        event.setDate_start(new Date(now + TimeUnit.DAYS.toMillis(inDays)));
+        client.events.put(id, event);
+    }
+
+    @Test
+    public void firstSyncReportsAllTheEventsAsAdded() {
+        put("EV1", 1, "One");
+        put("EV2", 10, "Two");
+        put("EV3", 100, "Three");
+        assertEquals(3, synchronizer.sync(PARIS, listener));
+        assertEquals(Arrays.asList("added EV1", "added EV2", "added EV3"), listener.changes);
+        assertEquals(3, synchronizer.getSnapshot(PARIS).size());
+        assertEquals(client.events.get("EV3").getDate_start(), synchronizer.getWatermark(PARIS));
+    }
+
+    @Test
+    public void incrementalSyncFindsTheChangesBeforeTheWatermark() {
+        put("EV1", 1, "One");
+        put("EV3", 100, "Three");
+        synchronizer.sync(PARIS, listener);
+        listener.changes.clear();
+
+        put("EV1", 1, "One, sold out");
+        put("EV2", 5, "Two");
+        put("EV4", 120, "Four");
+        synchronizer.sync(PARIS, listener);
+
+        assertTrue(listener.changes.contains("updated EV1"));
+        assertTrue(listener.changes.contains("added EV2"));
+        assertTrue(listener.changes.contains("added EV4"));
+        assertEquals(3, listener.changes.size());
+    }
+
+    @Test
+    public void incrementalSyncMissesTheChangesBetweenTheWindowsUntilTheFullRefresh() {
+        synchronizer.setFullRefreshInterval(2);
+        put("EV1", 1, "One");
+        put("EV3", 100, "Three");
+        synchronizer.sync(PARIS, listener);
+        listener.changes.clear();
+
+        put("EV2", 60, "Two");
+        synchronizer.sync(PARIS, listener);
+        assertEquals(new ArrayList<String>(), listener.changes);
+
+        synchronizer.sync(PARIS, listener);
+        assertEquals(Arrays.asList("added EV2"), listener.changes);
+    }
+
+    @Test
+    public void fullRefreshReportsTheRemovedEvents() {
+        synchronizer.setFullRefreshInterval(1);
+        put("EV1", 1, "One");
+        put("EV2", 5, "Two");
+        synchronizer.sync(PARIS, listener);
+        listener.changes.clear();
+
+        client.events.remove("EV1");
+        synchronizer.sync(PARIS, listener);
+        assertEquals(Arrays.asList("removed EV1"), listener.changes);
+        assertEquals(1, synchronizer.getSnapshot(PARIS).size());
+    }
+
+    @Test
+    public void unchangedEventsAreNotReported() {
+        put("EV1", 1, "One");
+        synchronizer.sync(PARIS, listener);
+        listener.changes.clear();
+        put("EV1", 1, "One");
+        synchronizer.sync(PARIS, listener);
+        assertEquals(new ArrayList<String>(), listener.changes);
+    }
+
+    @Test
+    public void failedSyncDoesNotCount() {
+        synchronizer.setFullRefreshInterval(2);
+        put("EV1", 1, "One");
+        put("EV3", 100, "Three");
+        synchronizer.sync(PARIS, listener);
+
+        client.failures = 1;
+        try {
+            synchronizer.sync(PARIS, listener);
+            fail("The sync should have failed");
+        } catch (BlitzrException e) {
+            assertEquals(600, e.getmStatusCode());
+        }
+
+        client.froms.clear();
+        synchronizer.sync(PARIS, listener);
+        // Still the incremental sync : it starts with the events after the watermark
+        assertEquals(synchronizer.getWatermark(PARIS), client.froms.get(0));
+        assertEquals(2, client.froms.size());
+    }
+
+    @Test
+    public void updateWithTheSameHashIsReported() {
+        // "Aa" and "BB" have the same hashCode
+        put("EV1", 1, "Aa");
+        synchronizer.sync(PARIS, listener);
+        listener.changes.clear();
+        put("EV1", 1, "BB");
+        synchronizer.sync(PARIS, listener);
+        assertEquals(Arrays.asList("updated EV1"), listener.changes);
+    }
+
+    @Test
+    public void failingListenerLeavesTheStateUnchanged() {
+        synchronizer.setFullRefreshInterval(1);
+        put("EV1", 1, "One");
+        put("EV2", 5, "Two");
+        synchronizer.sync(PARIS, listener);
+        Date watermark = synchronizer.getWatermark(PARIS);
+        listener.changes.clear();
+
+        client.events.remove("EV1");
+        put("EV2", 5, "Two, moved");
+        put("EV3", 100, "Three");
+        try {
+            synchronizer.sync(PARIS, new RecordingListener() {
+                @Override
+                public void onAdded(EventQuery query, Event event) {
+                    throw new IllegalStateException("listener");
+                }
+            });
+            fail("The listener should have thrown");
+        } catch (IllegalStateException e) {
+            assertEquals("listener", e.getMessage());
+        }
+        assertEquals(watermark, synchronizer.getWatermark(PARIS));
+        assertEquals(2, synchronizer.getSnapshot(PARIS).size());
+        assertEquals("Two", synchronizer.getSnapshot(PARIS).get(1).getName());
+
+        synchronizer.sync(PARIS, listener);
+        assertTrue(listener.changes.contains("updated EV2"));
+        assertTrue(listener.changes.contains("added EV3"));
+        assertTrue(listener.changes.contains("removed EV1"));
+        assertEquals(3, listener.changes.size());
+        assertEquals(client.events.get("EV3").getDate_start(), synchronizer.getWatermark(PARIS));
+    }
+}
@@ -0,0 +1,123 @@
+package com.blitzr.events;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.models.event.Event;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TiledEventSearchTest {
+
+    /**
+     * Serves the events of its map within the radius of the query, like the API.
+     */
+    private static class StubClient extends BlitzrClient implements EventLocator {
+        private final Map<Event, GeoPoint> points = new HashMap<>();
+
+        StubClient() {
+            super("key");
+        }
+
+        void put(String id, float latitude, float longitude) {
+            Event event = new Event();
+            event.setId(id);
+            event.setDate_start(new Date(1500000000000L + points.size() * 3600000L));
+            points.put(event, new GeoPoint(latitude, longitude));
+        }
+
+        @Override
+        public List<Event> getEvents(String countryCode, Float latitude, Float longitude, String city, String venue,
+                                     String tag, Date dateStart, Date dateEnd, Integer radius, Integer start,
+                                     Integer limit) {
+            GeoPoint center = new GeoPoint(latitude, longitude);
+            List<Event> events = new ArrayList<>();
+            for (Map.Entry<Event, GeoPoint> entry : points.entrySet()) {
+                if (entry.getValue().distanceKm(center) <= radius) {
+                    events.add(entry.getKey());
+                }
+            }
+            return events.subList(Math.min(start, events.size()), Math.min(start + limit, events.size()));
+        }
+
+        @Override
+        public GeoPoint locate(Event event) {
+            return points.get(event);
+        }
+    }
+
+    private static Set<String> ids(Iterable<Event> events) {
+        Set<String> ids = new HashSet<>();
+        for (Event event : events) {
+            assertTrue("duplicate " + event.getId(), ids.add(event.getId()));
+        }
+        return ids;
+    }
+
+    @Test
+    public void aroundSkipsTheEventsOutsideOfTheCircle() {
+        StubClient client = new StubClient();
+        client.put("paris", 48.85f, 2.35f);
+        client.put("orleans", 47.90f, 1.90f);     // 110 km
+        client.put("rouen", 49.44f, 1.10f);       // 110 km
+        client.put("lille", 50.63f, 3.06f);       // 205 km
+        client.put("brussels", 50.85f, 4.35f);    // 265 km
+        TiledEventSearch search = new TiledEventSearch(client);
+
+        Set<String> found = ids(search.around(48.85f, 2.35f, 150, client, null, null, null));
+
+        assertEquals(new HashSet<>(Arrays.asList("paris", "orleans", "rouen")), found);
+    }
+
+    @Test
+    public void aroundWithoutLocatorKeepsTheEdgeTiles() {
+        StubClient client = new StubClient();
+        client.put("paris", 48.85f, 2.35f);
+        client.put("lille", 50.63f, 3.06f);
+        TiledEventSearch search = new TiledEventSearch(client);
+        search.setTileSizeKm(200);
+
+        Set<String> found = ids(search.around(48.85f, 2.35f, 150, null, null, null, null));
+
+        assertTrue(found.contains("paris"));
+        assertTrue(found.contains("lille"));
+    }
+
+    @Test
+    public void boxCrossingTheAntimeridianIsCoveredOnBothSides() {
+        TiledEventSearch search = new TiledEventSearch(new StubClient());
+        List<TiledEventSearch.Tile> tiles = search.tilesInBox(-18, 178, -16, -179);
+        assertFalse(tiles.isEmpty());
+        for (TiledEventSearch.Tile tile : tiles) {
+            assertTrue(tile.getLongitude() + " outside of the box",
+                    tile.getLongitude() >= 178 || tile.getLongitude() <= -179);
+        }
+    }
+
+    @Test
+    public void circleCrossingTheAntimeridianIsCoveredOnBothSides() {
+        StubClient client = new StubClient();
+        client.put("suva", -18.14f, 178.44f);
+        client.put("taveuni", -16.85f, -179.97f);
+        TiledEventSearch search = new TiledEventSearch(client);
+
+        Set<String> found = ids(search.around(-17.5f, 179.9f, 250, client, null, null, null));
+
+        assertEquals(new HashSet<>(Arrays.asList("suva", "taveuni")), found);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheLongitudesOutOfRange() {
+        new TiledEventSearch(new StubClient()).tilesInBox(0, 170, 1, 190);
+    }
+}
@@ -0,0 +1,164 @@
+package com.blitzr.export;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.StubServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LabelCatalogExporterTest {
+    private static final String REL1 = "{\"uuid\":\"REL1\",\"name\":null,\"not_in_models\":{\"a\":[1,\"b\",true]}}";
+    private static final String REL2 = "{\"uuid\":\"REL2\",\"release_date\":\"2001-03-12\",\"extra\":[]}";
+    private static final String REL3 = "{\"uuid\":\"REL3\"}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private StubServer server;
+    private LabelCatalogExporter exporter;
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StubServer();
+        directory = folder.newFolder("warp");
+        exporter = new LabelCatalogExporter(new BlitzrClient("key"), directory, false);
+        exporter.setPageLimit(2);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+    }
+
+    private static String array(String... elements) {
+        StringBuilder json = new StringBuilder("[");
+        for (String element : elements) {
+            json.append((json.length() > 1) ? "," : "").append(element);
+        }
+        return json.append(']').toString();
+    }
+
+    private static List<String> lines(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) > 0) {
+                bytes.write(buffer, 0, count);
+            }
+        } finally {
+            in.close();
+        }
+        String text = bytes.toString("UTF-8");
+        return text.isEmpty() ? Collections.<String>emptyList() : Arrays.asList(text.split("\n"));
+    }
+
+    private int requests(String endpoint) {
+        int count = 0;
+        for (String request : server.getRequests()) {
+            if (request.startsWith("/" + endpoint)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void exportsTheRawJsonUntilAShortPage() throws IOException {
+        server.respond("label/releases/", 0, array(REL1, REL2));
+        server.respond("label/releases/", 2, array(REL3));
+        server.respond("label/artists/", 0, array());
+        exporter.export("warp", null);
+
+        // Unknown fields, nulls and dates are kept as the API sent them
+        assertEquals(Arrays.asList(REL1, REL2, REL3), lines(new FileInputStream(exporter.getReleasesFile())));
+        assertEquals(0, exporter.getArtistsFile().length());
+        // The page of 1 release ends the releases, the empty page ends the artists
+        assertEquals(2, requests("label/releases/"));
+        assertEquals(1, requests("label/artists/"));
+
+        exporter.export("warp", null);
+        assertEquals(3, server.getRequests().size());
+    }
+
+    @Test
+    public void fullLastPageNeedsAnEmptyPage() throws IOException {
+        server.respond("label/releases/", 0, array(REL1, REL2));
+        server.respond("label/releases/", 2, array(REL3, REL3));
+        server.respond("label/releases/", 4, array());
+        server.respond("label/artists/", 0, array());
+        exporter.export("warp", null);
+
+        assertEquals(4, lines(new FileInputStream(exporter.getReleasesFile())).size());
+        assertEquals(3, requests("label/releases/"));
+    }
+
+    @Test
+    public void resumesFromTheCheckpointAndTruncatesTheRest() throws IOException {
+        byte[] checkpointed = (REL1 + "\n" + REL2 + "\n").getBytes("UTF-8");
+        OutputStream out = new FileOutputStream(exporter.getReleasesFile());
+        out.write(checkpointed);
+        // Written after the checkpoint, before a crash
+        out.write("{\"uuid\":\"REL3\",\"na".getBytes("UTF-8"));
+        out.close();
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("label", "warp/null");
+        checkpoint.setProperty("releases.offset", "2");
+        checkpoint.setProperty("releases.bytes", Integer.toString(checkpointed.length));
+        out = new FileOutputStream(new File(directory, "checkpoint.properties"));
+        checkpoint.store(out, null);
+        out.close();
+
+        server.respond("label/releases/", 2, array(REL3));
+        server.respond("label/artists/", 0, array());
+        exporter.export("warp", null);
+
+        assertEquals(Arrays.asList(REL1, REL2, REL3), lines(new FileInputStream(exporter.getReleasesFile())));
+        assertEquals(1, requests("label/releases/"));
+        assertTrue(server.getRequests().get(0), server.getRequests().get(0).contains("start=2"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void checkpointOfAnotherLabelIsRefused() throws IOException {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("label", "ninja-tune/null");
+        OutputStream out = new FileOutputStream(new File(directory, "checkpoint.properties"));
+        checkpoint.store(out, null);
+        out.close();
+        exporter.export("warp", null);
+    }
+
+    @Test
+    public void gzippedPagesAreOneFile() throws IOException {
+        exporter = new LabelCatalogExporter(new BlitzrClient("key"), directory, true);
+        exporter.setPageLimit(2);
+        server.respond("label/releases/", 0, array(REL1, REL2));
+        server.respond("label/releases/", 2, array(REL3));
+        server.respond("label/artists/", 0, array());
+        exporter.export("warp", null);
+
+        assertEquals(Arrays.asList(REL1, REL2, REL3),
+                lines(new GZIPInputStream(new FileInputStream(exporter.getReleasesFile()))));
+        exporter.reset();
+        assertEquals(0, directory.list().length);
+    }
+}
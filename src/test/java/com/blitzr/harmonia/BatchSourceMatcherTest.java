@@ -0,0 +1,101 @@
+package com.blitzr.harmonia;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.track.SourceFilters;
+import com.blitzr.models.track.Track;
+import com.blitzr.models.utils.SourceName;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchSourceMatcherTest {
+
+    /**
+     * Match the ids to "TRA" + id, except the ids starting with "unknown" (404) and "broken" (400).
+     */
+    private static class StubClient extends BlitzrClient {
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+
+        StubClient() {
+            super("key");
+        }
+
+        @Override
+        public List<Track> getHarmoniaSearchBySource(SourceName source, Object id, List<SourceFilters> source_filters,
+                                                     Boolean strict) {
+            calls.add(source + "/" + id);
+            if (String.valueOf(id).startsWith("unknown")) {
+                throw new BlitzrException(404);
+            }
+            if (String.valueOf(id).startsWith("broken")) {
+                throw new BlitzrException(400);
+            }
+            Track track = new Track();
+            track.setUuid("TRA" + id);
+            return Collections.singletonList(track);
+        }
+    }
+
+    private StubClient client;
+    private BatchSourceMatcher matcher;
+
+    @Before
+    public void setUp() {
+        client = new StubClient();
+        matcher = new BatchSourceMatcher(client);
+        matcher.setRateLimiter(null);
+    }
+
+    private static SourceId youtube(String id) {
+        return new SourceId(SourceName.youtube, id);
+    }
+
+    @Test(timeout = 10000)
+    public void duplicatesAreLookedUpOnce() {
+        SourceMatches matches = matcher.match(Arrays.asList(youtube("a"), null, youtube("b"), youtube("a")),
+                null, true);
+
+        assertEquals(2, matches.getMatches().size());
+        assertEquals("TRAa", matches.getMatches().get(youtube("a")).get(0).getUuid());
+        assertEquals(2, client.calls.size());
+        assertEquals(0, matches.getCacheHits());
+    }
+
+    @Test(timeout = 10000)
+    public void matchesAreCachedWhateverTheFilterOrder() {
+        matcher.match(Arrays.asList(youtube("a")), Arrays.asList(SourceFilters.spotify, SourceFilters.youtube), true);
+        SourceMatches matches = matcher.match(Arrays.asList(youtube("a"), youtube("b")),
+                Arrays.asList(SourceFilters.youtube, SourceFilters.spotify), true);
+
+        assertEquals(1, matches.getCacheHits());
+        assertEquals(2, matches.getMatches().size());
+        assertEquals(Arrays.asList("youtube/a", "youtube/b"), client.calls);
+
+        // Another strictness is another lookup
+        matches = matcher.match(Arrays.asList(youtube("a")), Arrays.asList(SourceFilters.youtube), false);
+        assertEquals(0, matches.getCacheHits());
+        assertEquals(3, client.calls.size());
+    }
+
+    @Test(timeout = 10000)
+    public void notFoundIsNoMatch() {
+        SourceMatches matches = matcher.match(Arrays.asList(youtube("unknown"), youtube("broken")), null, true);
+
+        assertTrue(matches.getMatches().get(youtube("unknown")).isEmpty());
+        assertEquals(1, matches.getFailures().size());
+        assertEquals(400, matches.getFailures().get(youtube("broken")).getmStatusCode());
+
+        // The empty match is cached, the failure is not
+        matches = matcher.match(Arrays.asList(youtube("unknown"), youtube("broken")), null, true);
+        assertEquals(1, matches.getCacheHits());
+        assertEquals(3, client.calls.size());
+    }
+}
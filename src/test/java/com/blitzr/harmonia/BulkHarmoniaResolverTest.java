@@ -0,0 +1,118 @@
+package com.blitzr.harmonia;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.utils.EntityType;
+import com.blitzr.models.utils.ServiceName;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BulkHarmoniaResolverTest {
+
+    /**
+     * Fail the first call of an id with its status, if any, then map it to "ART" + id.
+     */
+    private static class StubClient extends BlitzrClient {
+        private final Map<String, Integer> failures = new HashMap<>();
+        private final ConcurrentMap<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+        StubClient() {
+            super("key");
+        }
+
+        @Override
+        public Artist getHarmoniaArtist(ServiceName service, Object id) {
+            String key = String.valueOf(id);
+            calls.putIfAbsent(key, new AtomicInteger());
+            int call = calls.get(key).incrementAndGet();
+            Integer status = failures.get(key);
+            if (status != null && (call == 1 || status == 404 || status == 601)) {
+                throw new BlitzrException(status);
+            }
+            Artist artist = new Artist();
+            artist.setUuid("ART" + key);
+            return artist;
+        }
+
+        int calls(String id) {
+            AtomicInteger count = calls.get(id);
+            return (count != null) ? count.get() : 0;
+        }
+    }
+
+    private static ExternalId discogs(int id) {
+        return new ExternalId(EntityType.artist, ServiceName.discogs, id);
+    }
+
+    private static Map<ExternalId, Resolution> resolve(BulkHarmoniaResolver bulk, List<ExternalId> ids) {
+        Map<ExternalId, Resolution> resolutions = new HashMap<>();
+        for (Resolution resolution : bulk.resolve(ids.iterator())) {
+            resolutions.put(resolution.getExternalId(), resolution);
+        }
+        return resolutions;
+    }
+
+    private static BulkHarmoniaResolver bulk(StubClient client) {
+        BulkHarmoniaResolver bulk = new BulkHarmoniaResolver(new HarmoniaResolver(client, new HarmoniaMappings()));
+        bulk.setRateLimiter(null);
+        bulk.setRetryDelayMillis(1);
+        return bulk;
+    }
+
+    @Test
+    public void resolvesWithoutRateLimiter() {
+        StubClient client = new StubClient();
+        client.failures.put("2", 404);
+        BulkHarmoniaResolver bulk = bulk(client);
+        Map<ExternalId, Resolution> resolutions = resolve(bulk, Arrays.asList(discogs(1), discogs(2), discogs(1)));
+
+        assertEquals(2, resolutions.size());
+        assertEquals("ART1", resolutions.get(discogs(1)).getUuid());
+        assertTrue(resolutions.get(discogs(1)).isMapped());
+        assertNull(resolutions.get(discogs(2)).getUuid());
+        assertNull(resolutions.get(discogs(2)).getError());
+        assertEquals(1, bulk.getDuplicates());
+        assertEquals(1, bulk.getUnmapped());
+    }
+
+    @Test
+    public void serverAndNetworkErrorsAreRetried() {
+        StubClient client = new StubClient();
+        client.failures.put("1", 503);
+        client.failures.put("2", 429);
+        client.failures.put("3", 600);
+        BulkHarmoniaResolver bulk = bulk(client);
+        Map<ExternalId, Resolution> resolutions = resolve(bulk, Arrays.asList(discogs(1), discogs(2), discogs(3)));
+
+        for (int id = 1; id <= 3; id++) {
+            assertEquals("ART" + id, resolutions.get(discogs(id)).getUuid());
+            assertEquals(2, resolutions.get(discogs(id)).getAttempts());
+        }
+        assertEquals(3, bulk.getRetries());
+    }
+
+    @Test
+    public void internalErrorsAreNotRetried() {
+        StubClient client = new StubClient();
+        client.failures.put("1", 601);
+        BulkHarmoniaResolver bulk = bulk(client);
+        Resolution resolution = resolve(bulk, Arrays.asList(discogs(1))).get(discogs(1));
+
+        assertTrue(resolution.isFailed());
+        assertEquals(601, resolution.getError().getmStatusCode());
+        assertEquals(1, client.calls("1"));
+        assertEquals(0, bulk.getRetries());
+    }
+}
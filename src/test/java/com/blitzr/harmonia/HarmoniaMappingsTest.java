@@ -0,0 +1,107 @@
+package com.blitzr.harmonia;
+
+import com.blitzr.models.harmonia.HarmoniaProvider;
+import com.blitzr.models.utils.EntityType;
+import com.blitzr.models.utils.ServiceName;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HarmoniaMappingsTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static HarmoniaProvider provider(Object id) {
+        HarmoniaProvider provider = new HarmoniaProvider();
+        provider.setId(id);
+        return provider;
+    }
+
+    @Test
+    public void mapsBothWays() {
+        HarmoniaMappings mappings = new HarmoniaMappings();
+        mappings.put(EntityType.artist, ServiceName.discogs, 82730, "ART1");
+        assertEquals("ART1", mappings.getUuid(EntityType.artist, ServiceName.discogs, "82730"));
+        assertEquals("82730", mappings.getId(EntityType.artist, "ART1", ServiceName.discogs));
+        assertNull(mappings.getUuid(EntityType.label, ServiceName.discogs, 82730));
+        assertFalse(mappings.isComplete(EntityType.artist, "ART1"));
+    }
+
+    @Test
+    public void harmoniaLookupsAreComplete() {
+        HarmoniaMappings mappings = new HarmoniaMappings();
+        Map<String, HarmoniaProvider> providers = new HashMap<>();
+        providers.put("discogs", provider(82730));
+        providers.put("spotify", provider("3WrFJ7ztbogyGnTHbHJFl2"));
+        providers.put("unknown-service", provider("x"));
+        mappings.putHarmonia(EntityType.artist, "ART1", providers);
+        assertTrue(mappings.isComplete(EntityType.artist, "ART1"));
+        assertEquals(2, mappings.getIds(EntityType.artist, "ART1").size());
+        assertEquals(2, mappings.size());
+    }
+
+    @Test
+    public void saveAndLoadKeepTheMappings() throws IOException {
+        HarmoniaMappings mappings = new HarmoniaMappings();
+        Map<String, HarmoniaProvider> providers = new HashMap<>();
+        providers.put("discogs", provider(82730));
+        providers.put("musicbrainz", provider("b10bbbfc-cf9e-42e0-be17-e2c3e1d2600d"));
+        mappings.putHarmonia(EntityType.artist, "ART1", providers);
+        mappings.put(EntityType.label, ServiceName.discogs, 23528, "LAB1");
+        File file = new File(folder.getRoot(), "harmonia.tsv");
+        mappings.save(file);
+
+        HarmoniaMappings loaded = new HarmoniaMappings();
+        assertEquals(4, loaded.load(file));
+        assertEquals(3, loaded.size());
+        assertEquals("ART1", loaded.getUuid(EntityType.artist, ServiceName.musicbrainz, "b10bbbfc-cf9e-42e0-be17-e2c3e1d2600d"));
+        assertEquals("23528", loaded.getId(EntityType.label, "LAB1", ServiceName.discogs));
+        assertTrue(loaded.isComplete(EntityType.artist, "ART1"));
+        assertFalse(loaded.isComplete(EntityType.label, "LAB1"));
+        assertFalse(new File(folder.getRoot(), "harmonia.tsv.tmp").exists());
+    }
+
+    @Test
+    public void saveReplacesTheFile() throws IOException {
+        File file = new File(folder.getRoot(), "harmonia.tsv");
+        HarmoniaMappings first = new HarmoniaMappings();
+        first.put(EntityType.artist, ServiceName.discogs, 1, "ART1");
+        first.save(file);
+        HarmoniaMappings second = new HarmoniaMappings();
+        second.put(EntityType.artist, ServiceName.discogs, 2, "ART2");
+        second.save(file);
+
+        HarmoniaMappings loaded = new HarmoniaMappings();
+        loaded.load(file);
+        assertEquals(1, loaded.size());
+        assertEquals("ART2", loaded.getUuid(EntityType.artist, ServiceName.discogs, 2));
+    }
+
+    @Test
+    public void loadSkipsTheUnknownLines() throws IOException {
+        File file = folder.newFile("harmonia.tsv");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        writer.write("map\tartist\tART1\tdiscogs\t82730\n");
+        writer.write("# a comment\n");
+        writer.write("map\tartist\tART2\n");
+        writer.write("complete\tartist\tART1\n");
+        writer.close();
+
+        HarmoniaMappings loaded = new HarmoniaMappings();
+        assertEquals(2, loaded.load(file));
+        assertTrue(loaded.isComplete(EntityType.artist, "ART1"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.blitzr.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class LatencyHistogramTest {
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    public void emptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanMillis(), 0);
+        assertEquals(0, histogram.getPercentileMillis(99), 0);
+        assertEquals(0, histogram.getMaxMillis(), 0);
+    }
+
+    @Test
+    public void bucketsDoubleInSize() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(500);
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(1));
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+        histogram.record(-1);
+        // Under 1 us, [1, 2) us and [2, 4) us, the negative duration is ignored
+        long[] buckets = histogram.getBuckets();
+        assertEquals(1, buckets[0]);
+        assertEquals(1, buckets[1]);
+        assertEquals(1, buckets[2]);
+        assertEquals(3, histogram.getCount());
+        assertEquals(1, LatencyHistogram.getBucketBoundMicros(0));
+        assertEquals(1024, LatencyHistogram.getBucketBoundMicros(10));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.getBucketBoundMicros(LatencyHistogram.BUCKETS - 1));
+    }
+
+    @Test
+    public void longDurationsGoToTheLastBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.HOURS.toNanos(1));
+        assertEquals(1, histogram.getBuckets()[LatencyHistogram.BUCKETS - 1]);
+        assertEquals(3600000, histogram.getPercentileMillis(100), 0.001);
+    }
+
+    @Test
+    public void percentilesArePreciseToAFactorOf2() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(millis(10));
+        }
+        histogram.record(millis(300));
+        // 10 ms falls in [8.192, 16.384) ms
+        assertEquals(16.384, histogram.getPercentileMillis(50), 0.001);
+        assertEquals(16.384, histogram.getPercentileMillis(99), 0.001);
+        // The bound of the last bucket used is capped by the max
+        assertEquals(300, histogram.getPercentileMillis(100), 0.001);
+        assertEquals(300, histogram.getMaxMillis(), 0.001);
+        assertEquals(12.9, histogram.getMeanMillis(), 0.001);
+    }
+
+    @Test
+    public void copyIsNotUpdated() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(millis(1));
+        LatencyHistogram copy = histogram.copy();
+        histogram.record(millis(2));
+        assertEquals(1, copy.getCount());
+        assertEquals(1, copy.getMaxMillis(), 0.001);
+        assertEquals(2, histogram.getCount());
+    }
+}
@@ -0,0 +1,35 @@
+package com.blitzr.models.compact;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class CompactArtistTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void bindsTheApiResponse() throws Exception {
+        CompactArtist artist = mapper.readValue("{\"uuid\":\"ART1\",\"slug\":\"the-beatles\",\"name\":\"The Beatles\","
+                + "\"type\":\"band\",\"location\":\"Liverpool\",\"location_code\":\"GB\",\"begin_date\":1960,"
+                + "\"tags\":[{\"slug\":\"rock\",\"name\":\"Rock\"},{\"slug\":\"pop\",\"name\":\"Pop\"}],"
+                + "\"releases\":[{\"uuid\":\"REL1\"}]}", CompactArtist.class);
+        assertEquals("ART1", artist.getUuid());
+        assertEquals("The Beatles", artist.getName());
+        assertEquals("Liverpool", artist.getLocation());
+        assertEquals(1960, artist.getBeginDate());
+        assertEquals(0, artist.getEndDate());
+        assertEquals(Arrays.asList("rock", "pop"), artist.getTags());
+    }
+
+    @Test
+    public void sharesTheLowCardinalityValues() throws Exception {
+        CompactArtist first = mapper.readValue("{\"type\":\"band\",\"location_code\":\"GB\"}", CompactArtist.class);
+        CompactArtist second = mapper.readValue("{\"type\":\"band\",\"location_code\":\"GB\"}", CompactArtist.class);
+        assertSame(first.getType(), second.getType());
+        assertSame(first.getLocationCode(), second.getLocationCode());
+    }
+}
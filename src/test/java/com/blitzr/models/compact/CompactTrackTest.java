@@ -0,0 +1,52 @@
+package com.blitzr.models.compact;
+
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.release.Release;
+import com.blitzr.models.track.Track;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CompactTrackTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void keepsTheUuidsOfTheNestedObjects() throws Exception {
+        CompactTrack track = mapper.readValue("{\"uuid\":\"TRA1\",\"title\":\"One More Time\","
+                + "\"release\":{\"uuid\":\"REL1\",\"name\":\"Discovery\",\"tracklist\":[{\"uuid\":\"TRA1\"}],"
+                + "\"not_in_models\":{\"a\":[1,true]}},"
+                + "\"credited_artists\":[{\"uuid\":\"ART2\",\"name\":\"Romanthony\",\"releases\":[{\"uuid\":\"REL2\"}]}],"
+                + "\"artists\":[{\"uuid\":\"ART1\",\"tags\":[{\"slug\":\"house\"}]}]}", CompactTrack.class);
+        assertEquals("TRA1", track.getUuid());
+        assertEquals("REL1", track.getReleaseUuid());
+        assertEquals(Arrays.asList("ART2", "ART1"), track.getArtistUuids());
+    }
+
+    @Test
+    public void missingNestedObjectsAreEmpty() throws Exception {
+        CompactTrack track = mapper.readValue("{\"uuid\":\"TRA1\",\"release\":null}", CompactTrack.class);
+        assertNull(track.getReleaseUuid());
+        assertTrue(track.getArtistUuids().isEmpty());
+    }
+
+    @Test
+    public void convertsTheModel() {
+        Release release = new Release();
+        release.setUuid("REL1");
+        Artist artist = new Artist();
+        artist.setUuid("ART1");
+        Track model = new Track();
+        model.setUuid("TRA1");
+        model.setRelease(release);
+        model.setArtists(Collections.singletonList(artist));
+        CompactTrack track = CompactTrack.of(model);
+        assertEquals("REL1", track.getReleaseUuid());
+        assertEquals(Collections.singletonList("ART1"), track.getArtistUuids());
+    }
+}
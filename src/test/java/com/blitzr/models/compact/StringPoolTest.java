@@ -0,0 +1,43 @@
+package com.blitzr.models.compact;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StringPoolTest {
+
+    @Test
+    public void internReturnsTheCanonicalInstance() {
+        String first = StringPool.intern(new String("Album"));
+        String second = StringPool.intern(new String("Album"));
+        assertSame(first, second);
+        assertNull(StringPool.intern(null));
+    }
+
+    @Test
+    public void poolIsBounded() {
+        for (int i = 0; i < StringPool.SLOTS * 4; i++) {
+            StringPool.intern("value-" + i);
+        }
+        assertTrue(StringPool.size() <= StringPool.SLOTS);
+    }
+
+    @Test
+    public void internAllKeepsTheOrder() {
+        List<String> values = StringPool.internAll(Arrays.asList("Vinyl", "CD", "Vinyl"));
+        assertEquals(Arrays.asList("Vinyl", "CD", "Vinyl"), values);
+        assertSame(values.get(0), values.get(2));
+        assertTrue(StringPool.internAll(null).isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void internAllIsImmutable() {
+        StringPool.internAll(Arrays.asList("Vinyl")).add("CD");
+    }
+}
@@ -0,0 +1,127 @@
+package com.blitzr.pipeline;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.release.Release;
+import com.blitzr.models.release.ReleaseFormat;
+import com.blitzr.models.release.ReleaseType;
+import com.blitzr.models.track.Source;
+import com.blitzr.models.track.Track;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class DiscographyFetcherTest {
+
+    /**
+     * List the releases REL0 to REL(count - 1), each one with two tracks. REL1 fails, REL2 is null, REL3 has no
+     * tracklist and the sources of the first track of REL4 fail.
+     */
+    private static class StubClient extends BlitzrClient {
+        private final int count;
+
+        StubClient(int count) {
+            super("key");
+            this.count = count;
+        }
+
+        @Override
+        public List<Release> getArtistReleases(String slug, String uuid, Integer start, Integer limit, ReleaseType type, ReleaseFormat format, Boolean credited) {
+            List<Release> page = new ArrayList<>();
+            for (int i = start; i < Math.min(count, start + limit); i++) {
+                page.add(release("REL" + i, null));
+            }
+            return page;
+        }
+
+        @Override
+        public Release getRelease(String slug, String uuid) {
+            if ("REL1".equals(uuid)) {
+                throw new BlitzrException(503);
+            }
+            if ("REL2".equals(uuid)) {
+                return null;
+            }
+            if ("REL3".equals(uuid)) {
+                return release(uuid, null);
+            }
+            return release(uuid, Arrays.asList(track(uuid + "-A"), track(uuid + "-B")));
+        }
+
+        @Override
+        public List<Source> getTrackSources(String uuid) {
+            if ("REL4-A".equals(uuid)) {
+                throw new BlitzrException(601);
+            }
+            return Collections.singletonList(new Source());
+        }
+    }
+
+    private static Release release(String uuid, List<Track> tracklist) {
+        Release release = new Release();
+        release.setUuid(uuid);
+        release.setTracklist(tracklist);
+        return release;
+    }
+
+    private static Track track(String uuid) {
+        Track track = new Track();
+        track.setUuid(uuid);
+        return track;
+    }
+
+    private static Map<String, Release> fetch(DiscographyFetcher fetcher) {
+        Map<String, Release> releases = new HashMap<>();
+        for (Release release : fetcher.fetch("artist", null, null, null, false)) {
+            releases.put(release.getUuid(), release);
+        }
+        return releases;
+    }
+
+    @Test(timeout = 10000)
+    public void failingReleasesAreSkipped() {
+        DiscographyFetcher fetcher = new DiscographyFetcher(new StubClient(6));
+        fetcher.setPageLimit(4);
+        fetcher.setMaxPendingReleases(2);
+        Map<String, Release> releases = fetch(fetcher);
+
+        assertEquals(4, releases.size());
+        assertNull(releases.get("REL1"));
+        assertNull(releases.get("REL2"));
+        assertNull(releases.get("REL3").getTracklist());
+        assertNotNull(releases.get("REL5").getTracklist().get(1).getSources());
+        assertEquals(4, fetcher.getReleaseStats().getItems());
+        assertEquals(2, fetcher.getReleaseStats().getErrors());
+        assertEquals(2, fetcher.getListingStats().getItems());
+    }
+
+    @Test(timeout = 10000)
+    public void failingSourcesKeepNullSources() {
+        DiscographyFetcher fetcher = new DiscographyFetcher(new StubClient(5));
+        Map<String, Release> releases = fetch(fetcher);
+
+        Release release = releases.get("REL4");
+        assertNull(release.getTracklist().get(0).getSources());
+        assertEquals(1, release.getTracklist().get(1).getSources().size());
+        assertEquals(1, fetcher.getSourcesStats().getErrors());
+        // The tracks of REL0 and the second track of REL4
+        assertEquals(3, fetcher.getSourcesStats().getItems());
+    }
+
+    @Test(timeout = 10000)
+    public void statsAreCumulated() {
+        DiscographyFetcher fetcher = new DiscographyFetcher(new StubClient(1));
+        fetch(fetcher);
+        fetch(fetcher);
+        assertEquals(2, fetcher.getReleaseStats().getItems());
+    }
+}
@@ -0,0 +1,137 @@
+package com.blitzr.radio;
+
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.track.Track;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RadioSessionTest {
+
+    /**
+     * Answer each fetch with the next scripted batch : a list of uuids, null, or an error. The last one is repeated.
+     */
+    private static class ScriptedSource implements RadioSource {
+        private final List<Object> batches;
+        private final List<Long> fetchedAt = new CopyOnWriteArrayList<>();
+
+        ScriptedSource(Object... batches) {
+            this.batches = Arrays.asList(batches);
+        }
+
+        @Override
+        public List<Track> fetch(int number) {
+            int call = fetchedAt.size();
+            fetchedAt.add(System.nanoTime());
+            Object batch = batches.get(Math.min(call, batches.size() - 1));
+            if (batch instanceof BlitzrException) {
+                throw (BlitzrException) batch;
+            }
+            if (batch == null) {
+                return null;
+            }
+            List<Track> tracks = new ArrayList<>();
+            for (String uuid : (String[]) batch) {
+                Track track = new Track();
+                track.setUuid(uuid);
+                tracks.add(track);
+            }
+            return tracks;
+        }
+    }
+
+    private RadioSession session;
+
+    private RadioSession start(RadioSource source, int maxEmptyRefills, long emptyRefillDelayMillis) {
+        session = new RadioSession(source);
+        session.setLowWatermark(0);
+        session.setMaxEmptyRefills(maxEmptyRefills);
+        session.setEmptyRefillDelayMillis(emptyRefillDelayMillis);
+        session.start();
+        return session;
+    }
+
+    @After
+    public void tearDown() {
+        if (session != null) {
+            session.close();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void nullBatchIsEmpty() throws InterruptedException {
+        RadioSession radio = start(new ScriptedSource(new String[]{"TRA1"}, null), 2, 1);
+        assertEquals("TRA1", radio.next().getUuid());
+        assertNull(radio.next());
+        assertTrue(radio.isExhausted());
+    }
+
+    @Test(timeout = 10000)
+    public void emptyRefillsBackOff() throws InterruptedException {
+        ScriptedSource source = new ScriptedSource((Object) new String[0]);
+        RadioSession radio = start(source, 3, 100);
+        assertNull(radio.next());
+
+        assertEquals(3, source.fetchedAt.size());
+        // 100 ms after the first empty refill, 200 ms after the second one
+        assertTrue(source.fetchedAt.get(1) - source.fetchedAt.get(0) >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(source.fetchedAt.get(2) - source.fetchedAt.get(1) >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test(timeout = 10000)
+    public void exhaustedRadioCanBeStartedAgain() throws InterruptedException {
+        RadioSession radio = start(new ScriptedSource(new String[0], new String[]{"TRA1"}), 1, 1);
+        assertNull(radio.next());
+        radio.start();
+        assertEquals("TRA1", radio.next().getUuid());
+    }
+
+    @Test(timeout = 10000)
+    public void errorOfAnEarlierRefillIsNotThrown() throws InterruptedException {
+        ScriptedSource source = new ScriptedSource(new String[]{"TRA1"}, new BlitzrException(503),
+                new String[]{"TRA2"});
+        RadioSession radio = start(source, 3, 1);
+        assertEquals("TRA1", radio.next().getUuid());
+        // The refill started by the first next fails while nobody waits
+        while (radio.getRefillErrors() == 0) {
+            Thread.sleep(10);
+        }
+        assertEquals("TRA2", radio.next().getUuid());
+    }
+
+    @Test(timeout = 10000)
+    public void errorOfTheAwaitedRefillIsThrown() throws InterruptedException {
+        RadioSession radio = start(new ScriptedSource(new BlitzrException(503)), 3, 1);
+        try {
+            radio.next();
+            fail();
+        } catch (BlitzrException e) {
+            assertEquals(503, e.getmStatusCode());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void recentTracksAreDropped() throws InterruptedException {
+        RadioSession radio = start(new ScriptedSource(new String[]{"TRA1", "TRA2"}, new String[]{"TRA2", "TRA3"},
+                new String[0]), 1, 1);
+        List<String> played = new ArrayList<>();
+        Track track;
+        while ((track = radio.next()) != null) {
+            played.add(track.getUuid());
+        }
+        assertEquals(Arrays.asList("TRA1", "TRA2", "TRA3"), played);
+        assertEquals(1, radio.getDuplicates());
+        assertEquals(Collections.emptyList(), radio.getUpcoming(5));
+    }
+}
@@ -0,0 +1,105 @@
+package com.blitzr.radio;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.cache.TtlCache;
+import com.blitzr.models.track.Source;
+import com.blitzr.models.track.Track;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SourceResolverTest {
+
+    private static class StubClient extends BlitzrClient {
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        StubClient() {
+            super("key");
+        }
+
+        @Override
+        public List<Source> getTrackSources(String uuid) {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Collections.singletonList(new Source());
+        }
+    }
+
+    private static Track track(String uuid) {
+        Track track = new Track();
+        track.setUuid(uuid);
+        return track;
+    }
+
+    @Test
+    public void prefetchedSourcesDoNotWait() throws InterruptedException {
+        StubClient client = new StubClient();
+        client.release.countDown();
+        SourceResolver resolver = new SourceResolver(client);
+        resolver.prefetch(Arrays.asList(track("TRA1"), track("TRA2")));
+        Thread.sleep(200);
+
+        assertEquals(1, resolver.getSources("TRA1").size());
+        assertEquals(1, resolver.getSources("TRA2").size());
+        assertEquals(2, resolver.getLookups());
+        assertEquals(0, resolver.getWaits());
+    }
+
+    @Test
+    public void runningLookupIsSharedAndCountedAsAWait() throws InterruptedException {
+        final StubClient client = new StubClient();
+        SourceResolver resolver = new SourceResolver(client);
+        resolver.prefetch(Arrays.asList(track("TRA1")));
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                client.release.countDown();
+            }
+        }).start();
+
+        assertEquals(1, resolver.getSources("TRA1").size());
+        assertEquals(1, resolver.getLookups());
+        assertEquals(1, resolver.getWaits());
+        assertEquals(1, resolver.getSources("TRA1").size());
+        assertEquals(1, resolver.getWaits());
+    }
+
+    @Test
+    public void prefetchIsNotACacheLookup() throws InterruptedException {
+        StubClient client = new StubClient();
+        client.release.countDown();
+        TtlCache<String, List<Source>> cache = new TtlCache<>(1, TimeUnit.MINUTES, 10);
+        SourceResolver resolver = new SourceResolver(client, cache, 2);
+        resolver.prefetch(Arrays.asList(track("TRA1"), track("TRA2")));
+        Thread.sleep(200);
+        resolver.prefetch(Arrays.asList(track("TRA1"), track("TRA2")));
+
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertEquals(2, resolver.getLookups());
+        resolver.getSources("TRA1");
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void nullSourcesSelectNothing() {
+        SourceResolver resolver = new SourceResolver(new StubClient());
+        assertNull(resolver.select(null));
+        assertNull(resolver.select(Arrays.asList((Source) null)));
+    }
+}
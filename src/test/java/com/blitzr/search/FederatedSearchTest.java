@@ -0,0 +1,72 @@
+package com.blitzr.search;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.artist.ArtistFilters;
+import com.blitzr.models.label.Label;
+import com.blitzr.models.label.LabelFilters;
+import com.blitzr.models.release.Release;
+import com.blitzr.models.release.ReleaseFilters;
+import com.blitzr.models.utils.EntityType;
+import com.blitzr.models.utils.SearchResults;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FederatedSearchTest {
+
+    private static <T> SearchResults<T> page(int total, List<T> results) {
+        SearchResults<T> page = new SearchResults<>();
+        page.setTotal(total);
+        page.setResults(results);
+        return page;
+    }
+
+    private static class StubClient extends BlitzrClient {
+        StubClient() {
+            super("key");
+        }
+
+        @Override
+        public SearchResults<Artist> searchArtistWithExtras(String query, ArtistFilters filters, Boolean autocomplete,
+                                                            Integer start, Integer limit) {
+            return page(120, Arrays.asList(new Artist("ART1"), new Artist("ART2")));
+        }
+
+        @Override
+        public SearchResults<Release> searchReleaseWithExtras(String query, ReleaseFilters filters,
+                                                              Boolean autocomplete, Integer start, Integer limit) {
+            Release release = new Release();
+            release.setUuid("REL1");
+            return page(45, Arrays.asList(release));
+        }
+
+        @Override
+        public SearchResults<Label> searchLabelWithExtras(String query, LabelFilters filters, Boolean autocomplete,
+                                                          Integer start, Integer limit) {
+            throw new BlitzrException(500);
+        }
+    }
+
+    @Test
+    public void totalsAreTheServerTotals() {
+        FederatedSearch search = new FederatedSearch(new StubClient());
+        search.setDefaultBudget(5, TimeUnit.SECONDS);
+
+        FederatedSearchResults results = search.search("daft punk", new ArtistFilters(), new LabelFilters(),
+                new ReleaseFilters(null, null, null, null, null), null, false, 2);
+
+        assertEquals(Integer.valueOf(120), results.getTotals().get(EntityType.artist));
+        assertEquals(Integer.valueOf(45), results.getTotals().get(EntityType.release));
+        assertEquals(Integer.valueOf(165), results.getTotal());
+        assertEquals(3, results.getResults().size());
+        assertEquals(500, results.getFailures().get(EntityType.label).getmStatusCode());
+        assertTrue(results.isPartial());
+    }
+}
@@ -0,0 +1,110 @@
+package com.blitzr.search;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.models.artist.Artist;
+import com.blitzr.models.artist.ArtistFilters;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class LocalSearchIndexTest {
+
+    /**
+     * Finds 100 artists named "Aphex" for any query.
+     */
+    private static class StubClient extends BlitzrClient {
+        private final List<Integer> starts = new ArrayList<>();
+
+        StubClient() {
+            super("key");
+        }
+
+        @Override
+        public List<Artist> searchArtist(String query, ArtistFilters filters, Boolean autocomplete, Integer start,
+                                         Integer limit) {
+            starts.add(start);
+            List<Artist> artists = new ArrayList<>();
+            for (int i = start; i < Math.min(start + limit, 100); i++) {
+                artists.add(artist("REMOTE" + i, "Aphex " + i));
+            }
+            return artists;
+        }
+    }
+
+    private static Artist artist(String uuid, String name) {
+        Artist artist = new Artist(uuid);
+        artist.setName(name);
+        return artist;
+    }
+
+    private StubClient client;
+    private LocalSearchIndex index;
+
+    @Before
+    public void setUp() {
+        client = new StubClient();
+        index = new LocalSearchIndex(client, 1, TimeUnit.HOURS);
+    }
+
+    private void indexLocal(int count) {
+        for (int i = 0; i < count; i++) {
+            index.put(artist("LOCAL" + i, "Aphex Local " + i));
+        }
+    }
+
+    @Test
+    public void partialLocalPageFallsBackToTheApi() {
+        indexLocal(3);
+        List<Artist> artists = index.searchArtist("aphex", null, false, 0, 10, false);
+        assertEquals(10, artists.size());
+        assertEquals("REMOTE0", artists.get(0).getUuid());
+        assertEquals(1, client.starts.size());
+    }
+
+    @Test
+    public void queryAnsweredLocallyIsPaginatedLocally() {
+        indexLocal(15);
+        assertEquals(10, index.searchArtist("aphex", null, false, 0, 10, false).size());
+        List<Artist> second = index.searchArtist("aphex", null, false, 10, 10, false);
+        assertEquals(5, second.size());
+        assertEquals(0, client.starts.size());
+    }
+
+    @Test
+    public void queryAnsweredByTheApiIsPaginatedWithTheApi() {
+        indexLocal(3);
+        index.searchArtist("aphex", null, false, 0, 10, false);
+        // The first page is now indexed, the second one must still come from the API
+        List<Artist> second = index.searchArtist("aphex", null, false, 10, 10, false);
+        assertEquals("REMOTE10", second.get(0).getUuid());
+        assertEquals(2, client.starts.size());
+        assertEquals(Integer.valueOf(10), client.starts.get(1));
+    }
+
+    @Test
+    public void filtersAreAPartOfTheQuery() {
+        indexLocal(15);
+        index.searchArtist("aphex", null, false, 0, 10, false);
+        index.searchArtist("aphex", new ArtistFilters("uk"), false, 10, 10, false);
+        assertEquals(1, client.starts.size());
+    }
+
+    @Test
+    public void localOnlyIndexNeverCallsTheApi() {
+        index = new LocalSearchIndex(null, 1, TimeUnit.HOURS);
+        indexLocal(3);
+        assertEquals(3, index.searchArtist("aphex", null, false, 0, 10, false).size());
+    }
+
+    @Test
+    public void freshSearchCallsTheApi() {
+        indexLocal(15);
+        index.searchArtist("aphex", null, false, 0, 10, true);
+        assertEquals(1, client.starts.size());
+    }
+}
@@ -0,0 +1,131 @@
+package com.blitzr.shop;
+
+import com.blitzr.BlitzrClient;
+import com.blitzr.exceptions.BlitzrException;
+import com.blitzr.models.shop.Product;
+import com.blitzr.models.shop.ProductType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ShopAggregatorTest {
+
+    /**
+     * Serves the products of the release "discovery" by type, fails for the label "warp" and returns null for the
+     * artist "daft-punk".
+     */
+    private static class StubClient extends BlitzrClient {
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+
+        StubClient() {
+            super("key");
+        }
+
+        @Override
+        public List<Product> shopRelease(ProductType type, String slug, String uuid) {
+            calls.add("release/" + slug + "/" + type);
+            if (type == ProductType.lp) {
+                return Arrays.asList(product("discogs", 30f, "EUR"), product("discogs", 20f, "USD"),
+                        product("amazon", 25f, "EUR"), product("amazon", null, "EUR"), product("ebay", 10f, "GBX"));
+            }
+            return Collections.singletonList(product("amazon", 12f, "usd"));
+        }
+
+        @Override
+        public List<Product> shopLabel(ProductType type, String slug, String uuid) {
+            calls.add("label/" + slug + "/" + type);
+            throw new BlitzrException(503);
+        }
+
+        @Override
+        public List<Product> shopArtist(ProductType type, String slug, String uuid) {
+            calls.add("artist/" + slug + "/" + type);
+            return null;
+        }
+    }
+
+    private StubClient client;
+    private ShopAggregator shop;
+
+    @Before
+    public void setUp() {
+        client = new StubClient();
+        FixedCurrencyRates rates = new FixedCurrencyRates("EUR");
+        rates.setRate("USD", 0.5);
+        shop = new ShopAggregator(client, rates);
+    }
+
+    private static Product product(String provider, Float price, String currency) {
+        Product product = new Product();
+        product.setProvider(provider);
+        product.setPrice(price);
+        product.setCurrency(currency);
+        return product;
+    }
+
+    @Test
+    public void keepsTheCheapestConvertedOfferByProvider() {
+        ShopOffers offers = shop.aggregate(ShopQuery.release("discovery", null, ProductType.lp, ProductType.cd));
+
+        Map<String, Offer> byProvider = offers.getCheapestByProvider();
+        assertEquals(Arrays.asList("amazon", "discogs"), new ArrayList<>(byProvider.keySet()));
+        // 20 USD is 10 EUR, cheaper than 30 EUR
+        assertEquals(10.0, byProvider.get("discogs").getPrice(), 0.001);
+        assertEquals("EUR", byProvider.get("discogs").getCurrency());
+        // The 12 USD cd is 6 EUR, cheaper than the 25 EUR lp
+        assertEquals(6.0, byProvider.get("amazon").getPrice(), 0.001);
+        assertEquals(ProductType.cd, byProvider.get("amazon").getType());
+        assertEquals(6.0, offers.getCheapest().getPrice(), 0.001);
+        // No price, and an unknown currency
+        assertEquals(2, offers.getUnpriced());
+        assertTrue(offers.getFailures().isEmpty());
+    }
+
+    @Test
+    public void failedCallOnlyLeavesOutItsProducts() {
+        ShopQuery release = ShopQuery.release("discovery", null, ProductType.cd);
+        ShopQuery label = ShopQuery.label("warp", null, ProductType.cd);
+        Map<ShopQuery, ShopOffers> offers = shop.aggregate(Arrays.asList(release, label));
+
+        assertEquals(Arrays.asList(release, label), new ArrayList<>(offers.keySet()));
+        assertEquals(6.0, offers.get(release).getCheapest().getPrice(), 0.001);
+        assertNull(offers.get(label).getCheapest());
+        assertEquals(1, offers.get(label).getFailures().size());
+        assertEquals(503, offers.get(label).getFailures().get(0).getmStatusCode());
+    }
+
+    @Test
+    public void nullProductsAreEmpty() {
+        ShopQuery artist = ShopQuery.artist("daft-punk", null, ProductType.cd);
+        ShopQuery release = ShopQuery.release("discovery", null, ProductType.cd);
+        Map<ShopQuery, ShopOffers> offers = shop.aggregate(Arrays.asList(artist, release));
+
+        assertNull(offers.get(artist).getCheapest());
+        assertTrue(offers.get(artist).getFailures().isEmpty());
+        assertEquals(6.0, offers.get(release).getCheapest().getPrice(), 0.001);
+
+        // Cached as empty
+        assertNull(shop.aggregate(artist).getCheapest());
+        assertEquals(1, Collections.frequency(client.calls, "artist/daft-punk/cd"));
+    }
+
+    @Test
+    public void cachedProductsAreNotFetchedAgain() {
+        shop.aggregate(ShopQuery.release("discovery", null, ProductType.lp, ProductType.cd));
+        ShopOffers offers = shop.aggregate(ShopQuery.release("discovery", null, ProductType.cd));
+
+        assertEquals(6.0, offers.getCheapest().getPrice(), 0.001);
+        assertEquals(2, client.calls.size());
+        assertEquals(1, Collections.frequency(client.calls, "release/discovery/cd"));
+    }
+}